@@ -0,0 +1,143 @@
+package cz.itnetwork.benchmark;
+
+import cz.itnetwork.dto.Invoice.InvoiceDTO;
+import cz.itnetwork.dto.Person.PersonDTO;
+import cz.itnetwork.dto.Person.PersonReadDTO;
+import cz.itnetwork.entity.Countries;
+import cz.itnetwork.entity.Invoice;
+import cz.itnetwork.entity.Person;
+import cz.itnetwork.security.JwtUtil;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Testovací data a ručně sestavené komponenty pro benchmarky.
+ *
+ * Komponenty se vytvářejí bez Spring kontextu; hodnoty,
+ * které jinak dodává konfigurace (@Value), se nastavují reflexí.
+ */
+final class BenchmarkData {
+
+    static final String JWT_SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+    private BenchmarkData() {
+    }
+
+    static Person person(int id) {
+        return Person.builder()
+                .id(id)
+                .name("Firma " + id + " s.r.o.")
+                .identificationNumber(String.format("%08d", 10_000_000 + id))
+                .taxNumber("CZ" + (10_000_000 + id))
+                .accountNumber("123456789/" + id)
+                .bankCode("0100")
+                .iban("CZ6508000000192000145399")
+                .telephone("+420 777 123 456")
+                .mail("firma" + id + "@example.com")
+                .street("Dlouhá " + id)
+                .zip("11000")
+                .city("Praha")
+                .country(Countries.CZECHIA)
+                .note("Poznámka k osobě " + id)
+                .hidden(false)
+                .build();
+    }
+
+    static PersonDTO personDto(int id) {
+        return PersonDTO.builder()
+                .id(id)
+                .name("Firma " + id + " s.r.o.")
+                .identificationNumber(String.format("%08d", 10_000_000 + id))
+                .taxNumber("CZ" + (10_000_000 + id))
+                .accountNumber("123456789/" + id)
+                .bankCode("0100")
+                .iban("CZ6508000000192000145399")
+                .telephone("+420 777 123 456")
+                .mail("firma" + id + "@example.com")
+                .street("Dlouhá " + id)
+                .zip("11000")
+                .city("Praha")
+                .country("CZECHIA")
+                .note("Poznámka k osobě " + id)
+                .hidden(false)
+                .build();
+    }
+
+    static Invoice invoice(int id, Person seller, Person buyer) {
+        LocalDate issued = LocalDate.of(2024, 1, 1).plusDays(id % 365);
+        return Invoice.builder()
+                .id(id)
+                .invoiceNumber(2024_000 + id)
+                .issued(issued)
+                .dueDate(issued.plusDays(14))
+                .product("Produkt " + id)
+                .price(1000.0 + id)
+                .vat(21.0)
+                .note("Poznámka k faktuře " + id)
+                .seller(seller)
+                .buyer(buyer)
+                .hidden(false)
+                .build();
+    }
+
+    static InvoiceDTO invoiceDto(int id) {
+        LocalDate issued = LocalDate.of(2024, 1, 1).plusDays(id % 365);
+        return InvoiceDTO.builder()
+                .id(id)
+                .invoiceNumber(2024_000 + id)
+                .issued(issued.toString())
+                .dueDate(issued.plusDays(14).toString())
+                .product("Produkt " + id)
+                .price(1000.0 + id)
+                .vat(21.0)
+                .note("Poznámka k faktuře " + id)
+                .seller(personRead(id % 50))
+                .buyer(personRead(id % 50 + 1))
+                .hidden(false)
+                .build();
+    }
+
+    static List<InvoiceDTO> invoiceDtos(int count) {
+        List<InvoiceDTO> invoices = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            invoices.add(invoiceDto(i));
+        }
+        return invoices;
+    }
+
+    static PersonReadDTO personRead(int id) {
+        PersonReadDTO person = new PersonReadDTO();
+        person.setId((long) id);
+        person.setName("Firma " + id + " s.r.o.");
+        person.setIdentificationNumber(String.format("%08d", 10_000_000 + id));
+        person.setTaxNumber("CZ" + (10_000_000 + id));
+        person.setAccountNumber("123456789/" + id);
+        person.setBankCode("0100");
+        person.setIban("CZ6508000000192000145399");
+        person.setTelephone("+420 777 123 456");
+        person.setMail("firma" + id + "@example.com");
+        person.setStreet("Dlouhá " + id);
+        person.setZip("11000");
+        person.setCity("Praha");
+        person.setCountry("CZECHIA");
+        person.setNote("Poznámka k osobě " + id);
+        return person;
+    }
+
+    /**
+     * Vytvoření JwtUtil se zadanou velikostí cache ověřených tokenů.
+     *
+     * @param verifiedCacheMaxSize maximální počet ověřených tokenů v cache
+     * @return inicializovaná komponenta
+     */
+    static JwtUtil jwtUtil(long verifiedCacheMaxSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,56 @@
+package cz.itnetwork.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import cz.itnetwork.dto.Invoice.InvoiceDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializace seznamu faktur do JSON, tak jak ji provádí odpověď
+ * GET /api/invoices (případně cache serializovaných odpovědí).
+ *
+ * ObjectMapper je sestaven stejným builderem jako ve Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoiceSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private List<InvoiceDTO> invoices;
+
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, InvoiceDTO.class));
+        invoices = BenchmarkData.invoiceDtos(size);
+    }
+
+    @Benchmark
+    public byte[] serializeInvoices() throws JsonProcessingException {
+        return writer.writeValueAsBytes(invoices);
+    }
+}
@@ -0,0 +1,112 @@
+package cz.itnetwork.benchmark;
+
+import cz.itnetwork.entity.repository.RevokedTokenRepository;
+import cz.itnetwork.security.CustomUserDetailsService;
+import cz.itnetwork.security.JwtAuthenticationFilter;
+import cz.itnetwork.security.JwtUtil;
+import cz.itnetwork.security.TokenRevocationService;
+import cz.itnetwork.security.UserDetailsCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Průchod požadavku s platným tokenem JWT filtrem až po nastavení
+ * autentizace do SecurityContext.
+ *
+ * Uživatelské údaje (jwt.live-user-check=true) načítá skutečná cache
+ * z mockované služby, odvolání tokenů kontroluje skutečný Bloom filtr
+ * nad prázdným (mockovaným) repozitářem. Token i uživatel jsou v cache,
+ * jako je tomu u opakovaných požadavků téhož klienta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"false", "true"})
+    private boolean liveUserCheck;
+
+    private final MockServletContext servletContext = new MockServletContext();
+
+    private JwtAuthenticationFilter filter;
+
+    private TokenRevocationService tokenRevocationService;
+
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        UserDetails userDetails = User.withUsername("uzivatel@example.com")
+                .password("")
+                .authorities("ROLE_USER")
+                .build();
+
+        JwtUtil jwtUtil = BenchmarkData.jwtUtil(10_000);
+        authorization = "Bearer " + jwtUtil.generateToken(userDetails);
+
+        CustomUserDetailsService userDetailsService = Mockito.mock(CustomUserDetailsService.class);
+        Mockito.when(userDetailsService.loadUserByUsername(userDetails.getUsername())).thenReturn(userDetails);
+        UserDetailsCache userDetailsCache = new UserDetailsCache(userDetailsService, Duration.ofHours(1), 10_000);
+
+        tokenRevocationService = new TokenRevocationService(
+                Mockito.mock(RevokedTokenRepository.class), jwtUtil);
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedEntries", 100_000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(tokenRevocationService, "exactCacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "pollInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(tokenRevocationService, "pollOverlap", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(tokenRevocationService, "rebuildInterval", Duration.ofHours(1));
+        ReflectionTestUtils.invokeMethod(tokenRevocationService, "init");
+
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsCache, tokenRevocationService);
+        ReflectionTestUtils.setField(filter, "liveUserCheck", liveUserCheck);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(tokenRevocationService, "shutdown");
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/api/invoices");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
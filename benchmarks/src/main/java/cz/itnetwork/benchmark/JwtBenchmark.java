@@ -0,0 +1,78 @@
+package cz.itnetwork.benchmark;
+
+import cz.itnetwork.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vydání a ověření JWT tokenu.
+ *
+ * validateTokenCached měří běžný případ (token je v cache ověřených tokenů),
+ * validateTokenUncached ověření podpisu a parsování – cache má nulovou
+ * velikost a tokeny se střídají z většího souboru.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final int UNCACHED_TOKENS = 1024;
+
+    private JwtUtil jwtUtil;
+
+    private JwtUtil uncachedJwtUtil;
+
+    private UserDetails userDetails;
+
+    private String token;
+
+    private String[] uncachedTokens;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkData.jwtUtil(10_000);
+        uncachedJwtUtil = BenchmarkData.jwtUtil(0);
+        userDetails = User.withUsername("uzivatel@example.com")
+                .password("")
+                .authorities("ROLE_USER")
+                .build();
+        token = jwtUtil.generateToken(userDetails);
+        uncachedTokens = new String[UNCACHED_TOKENS];
+        for (int i = 0; i < UNCACHED_TOKENS; i++) {
+            uncachedTokens[i] = uncachedJwtUtil.generateToken(userDetails);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return jwtUtil.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public Boolean validateTokenUncached() {
+        next = (next + 1) & (UNCACHED_TOKENS - 1);
+        return uncachedJwtUtil.validateToken(uncachedTokens[next], userDetails);
+    }
+}
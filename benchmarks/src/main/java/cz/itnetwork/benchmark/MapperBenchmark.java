@@ -0,0 +1,80 @@
+package cz.itnetwork.benchmark;
+
+import cz.itnetwork.dto.Invoice.InvoiceDTO;
+import cz.itnetwork.dto.Invoice.InvoiceReadDTO;
+import cz.itnetwork.dto.Person.PersonDTO;
+import cz.itnetwork.dto.mapper.InvoiceMapper;
+import cz.itnetwork.dto.mapper.InvoiceMapperImpl;
+import cz.itnetwork.dto.mapper.PersonMapper;
+import cz.itnetwork.dto.mapper.PersonMapperImpl;
+import cz.itnetwork.entity.Invoice;
+import cz.itnetwork.entity.Person;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapování mezi entitami a DTO (MapStruct) pro jednu fakturu, resp. osobu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final InvoiceMapper invoiceMapper = new InvoiceMapperImpl();
+
+    private final PersonMapper personMapper = new PersonMapperImpl();
+
+    private Invoice invoice;
+
+    private InvoiceDTO invoiceDto;
+
+    private Person person;
+
+    private PersonDTO personDto;
+
+    @Setup
+    public void setUp() {
+        invoice = BenchmarkData.invoice(1, BenchmarkData.person(1), BenchmarkData.person(2));
+        invoiceDto = BenchmarkData.invoiceDto(1);
+        person = BenchmarkData.person(1);
+        personDto = BenchmarkData.personDto(1);
+    }
+
+    @Benchmark
+    public InvoiceDTO invoiceToDto() {
+        return invoiceMapper.toDto(invoice);
+    }
+
+    @Benchmark
+    public Invoice invoiceToEntity() {
+        return invoiceMapper.toEntity(invoiceDto);
+    }
+
+    @Benchmark
+    public InvoiceReadDTO invoiceToReadDto() {
+        return invoiceMapper.toReadDTO(invoice);
+    }
+
+    @Benchmark
+    public PersonDTO personToDto() {
+        return personMapper.toDto(person);
+    }
+
+    @Benchmark
+    public Person personToEntity() {
+        return personMapper.toEntity(personDto);
+    }
+}
@@ -0,0 +1,84 @@
+package cz.itnetwork.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Volby příkazové řádky ve tvaru "--nazev hodnota".
+ *
+ * Hodnoty, které nejsou zadány, lze převzít z proměnných prostředí
+ * (stejných jako u aplikace, např. DB_URL), jinak platí výchozí hodnota.
+ */
+final class Arguments {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    Arguments(String[] args, int from) {
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Neplatná volba: " + arg + " (očekáváno --nazev hodnota)");
+            }
+            values.put(arg.substring(2), args[++i]);
+        }
+    }
+
+    /**
+     * Kopie voleb s jednou změněnou hodnotou (opakované spuštění
+     * zátěže s jiným nastavením).
+     */
+    Arguments with(String name, String value) {
+        Arguments copy = new Arguments(new String[0], 0);
+        copy.values.putAll(values);
+        copy.values.put(name, value);
+        return copy;
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    String getOrEnv(String name, String env, String defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            value = System.getenv(env);
+        }
+        return value != null ? value : defaultValue;
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value.replace("_", "")) : defaultValue;
+    }
+
+    long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        return value != null ? Long.parseLong(value.replace("_", "")) : defaultValue;
+    }
+
+    double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    /**
+     * Doba ve tvaru "500ms", "30s", "5m" nebo "1h".
+     */
+    Duration getDuration(String name, Duration defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Neplatná doba: " + value);
+        };
+    }
+}
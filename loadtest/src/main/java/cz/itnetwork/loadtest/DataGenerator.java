@@ -0,0 +1,227 @@
+package cz.itnetwork.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Naplnění lokální PostgreSQL databáze syntetickými osobami a fakturami.
+ *
+ * Schéma vytváří aplikace (spring.jpa.hibernate.ddl-auto=update), generátor
+ * proto vyžaduje, aby aplikace nad databází alespoň jednou běžela.
+ * Tabulky persons a invoices jsou vyprázdněny a data se zapisují
+ * příkazem COPY, takže i desítky milionů faktur trvají jednotky minut.
+ *
+ * Rozložení dat:
+ * - prodávající a kupující podle Zipfova rozdělení (viz Dataset),
+ * - datum vystavení exponenciálně ubývá do minulosti (průměrně rok,
+ *   nejvýše pět let), splatnost 14, 30 nebo 60 dní,
+ * - cena log-normálně (medián 10 000), DPH převážně 21 %,
+ * - malá část osob a faktur je skrytá (soft delete).
+ *
+ * Po zápisu jsou tabulky vakuovány a analyzovány, aby plány dotazů
+ * odpovídaly ustálenému provozu.
+ */
+final class DataGenerator {
+
+    private static final int COPY_BUFFER_CHARS = 1 << 20;
+
+    private static final int PROGRESS_STEP = 1_000_000;
+
+    private static final String[] CITIES = {
+            "Praha", "Brno", "Ostrava", "Plzeň", "Liberec", "Olomouc", "České Budějovice",
+            "Hradec Králové", "Pardubice", "Zlín", "Bratislava", "Košice"
+    };
+
+    private static final String[] PRODUCTS = {
+            "Konzultace", "Vývoj software", "Licence", "Hosting", "Školení",
+            "Servis", "Materiál", "Doprava", "Audit", "Podpora"
+    };
+
+    private final DatabaseSettings database;
+
+    private final Dataset dataset;
+
+    private final Random random;
+
+    private final LocalDate today = LocalDate.now();
+
+    DataGenerator(Arguments arguments) {
+        this(DatabaseSettings.from(arguments),
+                new Dataset(arguments.getInt("persons", 10_000), arguments.getInt("invoices", 100_000)),
+                arguments.getLong("seed", 42));
+    }
+
+    DataGenerator(DatabaseSettings database, Dataset dataset, long seed) {
+        this.database = database;
+        this.dataset = dataset;
+        this.random = new Random(seed);
+    }
+
+    void generate() throws SQLException {
+
+        try (Connection connection = database.connect()) {
+
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                requireTable(statement, "persons");
+                requireTable(statement, "invoices");
+                statement.execute("SET synchronous_commit = off");
+                statement.execute("TRUNCATE invoices, persons RESTART IDENTITY CASCADE");
+            }
+
+            long started = System.nanoTime();
+            copyPersons(connection);
+            copyInvoices(connection);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('persons', 'id'), " + dataset.persons + ")");
+                statement.execute("SELECT setval(pg_get_serial_sequence('invoices', 'id'), " + dataset.invoices + ")");
+            }
+            connection.commit();
+
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("VACUUM ANALYZE persons");
+                statement.execute("VACUUM ANALYZE invoices");
+            }
+
+            System.out.printf("Vygenerováno %,d osob a %,d faktur za %d s%n",
+                    dataset.persons, dataset.invoices, (System.nanoTime() - started) / 1_000_000_000L);
+        }
+    }
+
+    private void copyPersons(Connection connection) throws SQLException {
+
+        CopyWriter copy = new CopyWriter(connection, """
+                COPY persons (id, name, identification_number, tax_number, account_number, bank_code,
+                              iban, telephone, mail, street, zip, city, country, note, hidden)
+                FROM STDIN""");
+
+        for (int id = 1; id <= dataset.persons; id++) {
+            String ico = Dataset.identificationNumber(id);
+            boolean slovak = random.nextInt(10) == 0;
+            copy.column(id)
+                    .column(Dataset.personName(id))
+                    .column(ico)
+                    .column((slovak ? "SK" : "CZ") + ico)
+                    .column(String.valueOf(1_000_000 + random.nextInt(9_000_000)))
+                    .column(slovak ? "1100" : "0100")
+                    .column(null)
+                    .column("+420 " + (600_000_000 + random.nextInt(100_000_000)))
+                    .column("firma" + id + "@example.com")
+                    .column("Ulice " + (1 + random.nextInt(200)))
+                    .column(String.valueOf(10_000 + random.nextInt(80_000)))
+                    .column(CITIES[slovak ? 10 + random.nextInt(2) : random.nextInt(10)])
+                    .column(slovak ? "SLOVAKIA" : "CZECHIA")
+                    .column(null)
+                    .column(random.nextInt(100) == 0)
+                    .endRow();
+        }
+
+        copy.end();
+        System.out.printf("Osoby: %,d%n", dataset.persons);
+    }
+
+    private void copyInvoices(Connection connection) throws SQLException {
+
+        CopyWriter copy = new CopyWriter(connection, """
+                COPY invoices (id, invoice_number, issued, due_date, product, price, vat, note,
+                               seller_id, buyer_id, hidden)
+                FROM STDIN""");
+
+        for (int id = 1; id <= dataset.invoices; id++) {
+            int sellerId = dataset.seller(random);
+            int buyerId = dataset.buyer(random, sellerId);
+            LocalDate issued = today.minusDays(Math.min(
+                    (long) (-Math.log(1 - random.nextDouble()) * 365), 5 * 365));
+            int vatRoll = random.nextInt(100);
+
+            copy.column(id)
+                    .column(id)
+                    .column(issued.toString())
+                    .column(issued.plusDays(switch (random.nextInt(3)) {
+                        case 0 -> 14;
+                        case 1 -> 30;
+                        default -> 60;
+                    }).toString())
+                    .column(PRODUCTS[random.nextInt(PRODUCTS.length)])
+                    .column(String.valueOf(Math.max(1, Math.round(Math.exp(Math.log(10_000) + 1.2 * random.nextGaussian()) * 100) / 100.0)))
+                    .column(vatRoll < 80 ? "21.0" : vatRoll < 95 ? "12.0" : "0.0")
+                    .column(null)
+                    .column(sellerId)
+                    .column(buyerId)
+                    .column(random.nextInt(50) == 0)
+                    .endRow();
+
+            if (id % PROGRESS_STEP == 0) {
+                System.out.printf("Faktury: %,d / %,d%n", id, dataset.invoices);
+            }
+        }
+
+        copy.end();
+        System.out.printf("Faktury: %,d%n", dataset.invoices);
+    }
+
+    private static void requireTable(Statement statement, String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT to_regclass('" + table + "')")) {
+            resultSet.next();
+            if (resultSet.getString(1) == null) {
+                throw new IllegalStateException("Tabulka " + table + " neexistuje – spusťte nejprve aplikaci"
+                        + " nad touto databází, aby vytvořila schéma");
+            }
+        }
+    }
+
+    /**
+     * Zápis řádků ve formátu COPY ... FROM STDIN (text, oddělovač tabulátor).
+     * Hodnoty generátoru neobsahují tabulátory, konce řádků ani zpětná lomítka.
+     */
+    private static final class CopyWriter {
+
+        private final CopyIn copyIn;
+
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+
+        private boolean firstColumn = true;
+
+        CopyWriter(Connection connection, String sql) throws SQLException {
+            this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        }
+
+        CopyWriter column(Object value) {
+            if (!firstColumn) {
+                buffer.append('\t');
+            }
+            buffer.append(value != null ? value : "\\N");
+            firstColumn = false;
+            return this;
+        }
+
+        void endRow() throws SQLException {
+            buffer.append('\n');
+            firstColumn = true;
+            if (buffer.length() >= COPY_BUFFER_CHARS) {
+                flush();
+            }
+        }
+
+        void end() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package cz.itnetwork.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Připojení k databázi z voleb --db-url, --db-user a --db-password,
+ * případně z proměnných prostředí aplikace (DB_URL, DB_USERNAME, DB_PASSWORD).
+ */
+record DatabaseSettings(String url, String user, String password) {
+
+    static DatabaseSettings from(Arguments arguments) {
+        return new DatabaseSettings(
+                arguments.getOrEnv("db-url", "DB_URL", "jdbc:postgresql://localhost:5432/invoices"),
+                arguments.getOrEnv("db-user", "DB_USERNAME", "postgres"),
+                arguments.getOrEnv("db-password", "DB_PASSWORD", ""));
+    }
+
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+}
@@ -0,0 +1,118 @@
+package cz.itnetwork.loadtest;
+
+import java.util.Random;
+
+/**
+ * Popis syntetické datové sady sdílený generátorem a zátěží.
+ *
+ * Osoby a faktury mají ID 1..n, jméno a IČO osoby jsou odvozeny
+ * přímo z ID. Zátěž tak nepotřebuje číst databázi – stačí jí znát
+ * velikost sady.
+ *
+ * Prodávající, kupující i čtené faktury jsou voleny Zipfovým
+ * rozdělením: malá skupina prodávajících vystavuje většinu faktur
+ * a několik faktur je čteno výrazně častěji než ostatní. Pořadí
+ * podle oblíbenosti je promícháno, aby nejčastější prodávající
+ * a kupující nebyli tytéž osoby.
+ */
+final class Dataset {
+
+    static final String[] NAME_WORDS = {
+            "Alfa", "Beta", "Delta", "Jantar", "Kovo", "Stav", "Tech", "Agro", "Eko", "Servis",
+            "Elektro", "Auto", "Trans", "Data", "Soft", "Med", "Dřevo", "Sklo", "Plast", "Textil",
+            "Moravia", "Bohemia", "Vltava", "Labe", "Tatra", "Sever", "Jih", "Západ", "Východ", "Střed"
+    };
+
+    private static final String[] LEGAL_FORMS = {"s.r.o.", "a.s.", "spol. s r.o.", "v.o.s."};
+
+    /**
+     * Prvočísla větší než libovolná velikost sady – násobení jimi
+     * modulo n je vždy permutací.
+     */
+    private static final long SELLER_STRIDE = 2_147_483_647L;
+
+    private static final long BUYER_STRIDE = 2_147_483_629L;
+
+    private static final long INVOICE_STRIDE = 2_147_483_587L;
+
+    final int persons;
+
+    final int invoices;
+
+    private final ZipfDistribution sellers;
+
+    private final ZipfDistribution buyers;
+
+    private final ZipfDistribution invoiceReads;
+
+    Dataset(int persons, int invoices) {
+        if (persons < 2 || invoices < 1) {
+            throw new IllegalArgumentException("Datová sada musí mít alespoň 2 osoby a 1 fakturu");
+        }
+        this.persons = persons;
+        this.invoices = invoices;
+        this.sellers = new ZipfDistribution(persons, 1.1);
+        this.buyers = new ZipfDistribution(persons, 0.8);
+        this.invoiceReads = new ZipfDistribution(invoices, 0.9);
+    }
+
+    static String personName(int id) {
+        return NAME_WORDS[pick(id, NAME_WORDS.length)] + " "
+                + NAME_WORDS[pick(id * 31 + 7, NAME_WORDS.length)] + " "
+                + id + " "
+                + LEGAL_FORMS[pick(id * 17 + 3, LEGAL_FORMS.length)];
+    }
+
+    static String identificationNumber(int id) {
+        return String.format("%08d", id);
+    }
+
+    int seller(Random random) {
+        return sellerAt(sellers.sample(random));
+    }
+
+    /**
+     * Kupující, který je vždy jinou osobou než prodávající.
+     */
+    int buyer(Random random, int sellerId) {
+        int buyerId = buyerAt(buyers.sample(random));
+        return buyerId != sellerId ? buyerId : buyerId % persons + 1;
+    }
+
+    int invoiceToRead(Random random) {
+        return invoiceAt(invoiceReads.sample(random));
+    }
+
+    /**
+     * Prodávající podle pořadí oblíbenosti (1 = vystavuje nejvíce faktur).
+     */
+    int sellerAt(int rank) {
+        return scatter(rank, persons, SELLER_STRIDE, 0);
+    }
+
+    /**
+     * Kupující podle pořadí oblíbenosti (1 = přijímá nejvíce faktur).
+     */
+    int buyerAt(int rank) {
+        return scatter(rank, persons, BUYER_STRIDE, persons / 2);
+    }
+
+    /**
+     * Faktura podle pořadí oblíbenosti při čtení (1 = nejčtenější).
+     */
+    int invoiceAt(int rank) {
+        return scatter(rank, invoices, INVOICE_STRIDE, 0);
+    }
+
+    /**
+     * Převod pořadí podle oblíbenosti (1..n) na ID permutací
+     * id = (pořadí * krok + posun) mod n.
+     */
+    private static int scatter(int rank, int n, long stride, int offset) {
+        return (int) (((rank - 1L) * stride + offset) % n) + 1;
+    }
+
+    private static int pick(int value, int length) {
+        return Integer.remainderUnsigned(value * 0x9E3779B1, length);
+    }
+}
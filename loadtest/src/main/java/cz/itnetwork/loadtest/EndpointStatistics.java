@@ -0,0 +1,87 @@
+package cz.itnetwork.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latence a stavové kódy odpovědí jednoho endpointu během měření.
+ */
+final class EndpointStatistics {
+
+    /**
+     * Stavový kód zaznamenaný při chybě spojení nebo vypršení časového limitu.
+     */
+    static final int CONNECTION_ERROR = 0;
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String endpoint;
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStatistics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(long latencyNanos, int status) {
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        if (status == CONNECTION_ERROR || status >= 400) {
+            errors.increment();
+        }
+    }
+
+    Report report(double measuredSeconds) {
+
+        Map<String, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(
+                status == CONNECTION_ERROR ? "connection-error" : String.valueOf(status), count.sum()));
+
+        long requests = latencyMicros.getTotalCount();
+
+        return new Report(
+                endpoint,
+                requests,
+                errors.sum(),
+                statusCounts,
+                requests / measuredSeconds,
+                new Latency(
+                        latencyMicros.getMean() / 1000.0,
+                        millis(50),
+                        millis(90),
+                        millis(99),
+                        millis(99.9),
+                        latencyMicros.getMaxValue() / 1000.0));
+    }
+
+    private double millis(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Výsledek jednoho endpointu v reportu.
+     *
+     * @param endpoint   metoda a šablona cesty
+     * @param requests   počet změřených požadavků
+     * @param errors     počet chybových odpovědí (4xx, 5xx, chyba spojení)
+     * @param statuses   počty odpovědí podle stavového kódu
+     * @param throughput požadavky za sekundu
+     * @param latencyMs  latence v milisekundách
+     */
+    record Report(String endpoint, long requests, long errors, Map<String, Long> statuses,
+                  double throughput, Latency latencyMs) {
+    }
+
+    record Latency(double mean, double p50, double p90, double p99, double p999, double max) {
+    }
+}
@@ -0,0 +1,83 @@
+package cz.itnetwork.loadtest;
+
+/**
+ * Vstupní bod zátěžových testů.
+ *
+ * Příkazy:
+ * - generate – naplnění databáze syntetickými daty (viz DataGenerator),
+ * - run      – zátěž běžící aplikace a report latencí (viz Workload),
+ * - plans    – plány a škálování dotazů repozitářů (viz QueryPlanSuite),
+ * - threads  – porovnání platformových a virtuálních vláken (viz ThreadModeComparison).
+ */
+public final class LoadTestMain {
+
+    private static final String USAGE = """
+            Použití:
+              java -jar loadtest.jar generate [volby]
+                --db-url URL          JDBC URL databáze (výchozí $DB_URL)
+                --db-user JMÉNO       uživatel databáze (výchozí $DB_USERNAME)
+                --db-password HESLO   heslo databáze (výchozí $DB_PASSWORD)
+                --persons N           počet osob, typicky 10 000 – 1 000 000 (výchozí 10000)
+                --invoices N          počet faktur, typicky 100 000 – 50 000 000 (výchozí 100000)
+                --seed N              semínko generátoru (výchozí 42)
+
+              java -jar loadtest.jar run [volby]
+                --base-url URL        adresa aplikace (výchozí http://localhost:8081)
+                --concurrency N       počet souběžných klientů (výchozí 16)
+                --rate N              celková intenzita v req/s; 0 = bez čekání (výchozí 0)
+                --warmup DOBA         zahřátí před měřením (výchozí 10s)
+                --duration DOBA       doba měření (výchozí 60s)
+                --timeout DOBA        časový limit požadavku (výchozí 30s)
+                --mix MIX             váhy operací list, filter, detail, create, update,
+                                      statistics, search, auth (výchozí
+                                      list=20,filter=15,detail=30,create=5,update=5,statistics=5,search=15,auth=5)
+                --persons N           velikost datové sady – stejná jako u generate
+                --invoices N          velikost datové sady – stejná jako u generate
+                --users N             počet uživatelů zátěže (výchozí 10)
+                --password HESLO      heslo uživatelů zátěže
+                --report SOUBOR       JSON report (výchozí loadtest-report.json)
+                --admin-token TOKEN   JWT administrátora; přidá do reportu výpůjčky a nová
+                                      spojení poolů, haldu a GC (výchozí $LOADTEST_ADMIN_TOKEN)
+
+              java -jar loadtest.jar plans [volby]
+                --db-url, --db-user, --db-password   jako u generate (data budou přepsána)
+                --sizes VELIKOSTI     osoby:faktury pro jednotlivé kroky
+                                      (výchozí 10000:100000,30000:300000,100000:1000000)
+                --repeat N            opakování každého dotazu, bere se medián (výchozí 3)
+                --max-exponent X      hranice superlineárního růstu doby (výchozí 1.2)
+                --seed N              semínko generátoru (výchozí 42)
+                --report SOUBOR       JSON report (výchozí query-plans.json)
+
+              java -jar loadtest.jar threads [volby]
+                --platform-url URL    instance s platformovými vlákny (výchozí http://localhost:8081)
+                --virtual-url URL     instance s virtuálními vlákny (výchozí http://localhost:8082)
+                --levels N,N,...      počty souběžných klientů (výchozí 50,200,800)
+                --mix, --warmup, --duration, --timeout, --persons, --invoices,
+                --users, --password,
+                --admin-token         jako u run
+                --report SOUBOR       souhrnný JSON report (výchozí thread-modes.json)
+            """;
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        if (args.length == 0) {
+            System.out.print(USAGE);
+            System.exit(1);
+        }
+
+        Arguments arguments = new Arguments(args, 1);
+        switch (args[0]) {
+            case "generate" -> new DataGenerator(arguments).generate();
+            case "run" -> new Workload(arguments).run();
+            case "plans" -> new QueryPlanSuite(arguments).run();
+            case "threads" -> new ThreadModeComparison(arguments).run();
+            default -> {
+                System.out.print(USAGE);
+                System.exit(1);
+            }
+        }
+    }
+}
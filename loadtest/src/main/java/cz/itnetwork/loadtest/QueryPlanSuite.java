@@ -0,0 +1,256 @@
+package cz.itnetwork.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import cz.itnetwork.loadtest.RepositoryQueries.Parameter;
+import cz.itnetwork.loadtest.RepositoryQueries.QueryCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Škálování dotazů repozitářů s rostoucí velikostí dat.
+ *
+ * Pro každou velikost (--sizes osoby:faktury,...) je databáze naplněna
+ * generátorem a každý dotaz z RepositoryQueries je spuštěn pod
+ * EXPLAIN (ANALYZE, BUFFERS). Zapisující dotazy běží v transakci,
+ * která je vrácena. Z několika opakování (--repeat) se bere běh
+ * s mediánovou dobou provedení.
+ *
+ * Report obsahuje dobu provedení a plánování, počet bloků z cache
+ * a z disku, počet řádků a tvar plánu. Označeny jsou:
+ * - SEQ_SCAN – sekvenční průchod tabulkou persons nebo invoices
+ *   při největší velikosti,
+ * - SUPERLINEAR – doba roste rychleji než data (exponent růstu
+ *   nad --max-exponent, doby pod 1 ms se neposuzují),
+ * - PLAN_CHANGE – mezi velikostmi se změnil tvar plánu.
+ */
+final class QueryPlanSuite {
+
+    private static final double NOISE_FLOOR_MS = 1.0;
+
+    private static final List<String> LARGE_TABLES = List.of("persons", "invoices");
+
+    private final DatabaseSettings database;
+
+    private final List<Dataset> sizes = new ArrayList<>();
+
+    private final int repeat;
+
+    private final double maxExponent;
+
+    private final long seed;
+
+    private final String reportFile;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    QueryPlanSuite(Arguments arguments) {
+        this.database = DatabaseSettings.from(arguments);
+        for (String size : arguments.get("sizes", "10000:100000,30000:300000,100000:1000000").split(",")) {
+            String[] counts = size.trim().split(":");
+            sizes.add(new Dataset(Integer.parseInt(counts[0].replace("_", "")),
+                    Integer.parseInt(counts[1].replace("_", ""))));
+        }
+        this.repeat = Math.max(1, arguments.getInt("repeat", 3));
+        this.maxExponent = arguments.getDouble("max-exponent", 1.2);
+        this.seed = arguments.getLong("seed", 42);
+        this.reportFile = arguments.get("report", "query-plans.json");
+    }
+
+    void run() throws SQLException, IOException {
+
+        Map<String, QueryReport> reports = new LinkedHashMap<>();
+
+        for (Dataset dataset : sizes) {
+            System.out.printf("%n=== %,d osob, %,d faktur ===%n", dataset.persons, dataset.invoices);
+            new DataGenerator(database, dataset, seed).generate();
+
+            try (Connection connection = database.connect()) {
+                connection.setAutoCommit(false);
+                for (QueryCase query : RepositoryQueries.all(dataset)) {
+                    Measurement measurement = measure(connection, query, dataset);
+                    reports.computeIfAbsent(query.name(), name -> new QueryReport(name, query.scale().name()))
+                            .steps().add(measurement);
+                }
+            }
+        }
+
+        reports.values().forEach(this::evaluate);
+        print(reports.values());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("createdAt", Instant.now().toString());
+        report.put("sizes", sizes.stream()
+                .map(dataset -> Map.of("persons", dataset.persons, "invoices", dataset.invoices))
+                .toList());
+        report.put("maxExponent", maxExponent);
+        report.put("queries", reports.values());
+        objectMapper.writeValue(new File(reportFile), report);
+        System.out.printf("%nReport uložen do %s%n", reportFile);
+    }
+
+    private Measurement measure(Connection connection, QueryCase query, Dataset dataset) throws SQLException, IOException {
+
+        List<Measurement> runs = new ArrayList<>();
+        for (int i = 0; i < repeat; i++) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + query.sql())) {
+                bind(connection, statement, query.parameters());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    runs.add(parse(objectMapper.readTree(resultSet.getString(1)).get(0), dataset));
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+
+        runs.sort(Comparator.comparingDouble(Measurement::executionMs));
+        return runs.get(runs.size() / 2);
+    }
+
+    private static void bind(Connection connection, PreparedStatement statement,
+                             List<Parameter> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            Parameter parameter = parameters.get(i);
+            if (parameter.value() == null) {
+                statement.setNull(i + 1, parameter.sqlType());
+            } else if (parameter.sqlType() == Types.ARRAY) {
+                statement.setArray(i + 1, connection.createArrayOf("integer", (Object[]) parameter.value()));
+            } else {
+                statement.setObject(i + 1, parameter.value(), parameter.sqlType());
+            }
+        }
+    }
+
+    private static Measurement parse(JsonNode explain, Dataset dataset) {
+
+        JsonNode plan = explain.get("Plan");
+        List<String> seqScans = new ArrayList<>();
+        String shape = shape(plan, seqScans);
+
+        return new Measurement(
+                dataset.persons,
+                dataset.invoices,
+                explain.path("Execution Time").asDouble(),
+                explain.path("Planning Time").asDouble(),
+                plan.path("Shared Hit Blocks").asLong(),
+                plan.path("Shared Read Blocks").asLong(),
+                plan.path("Actual Rows").asLong() * Math.max(1, plan.path("Actual Loops").asLong()),
+                shape,
+                seqScans);
+    }
+
+    /**
+     * Zkrácený tvar plánu, např. "Sort(Seq Scan on invoices)".
+     */
+    private static String shape(JsonNode node, List<String> seqScans) {
+
+        StringBuilder shape = new StringBuilder(node.path("Node Type").asText());
+        String relation = node.path("Relation Name").asText(null);
+        String index = node.path("Index Name").asText(null);
+        if (index != null) {
+            shape.append(" using ").append(index);
+        }
+        if (relation != null) {
+            shape.append(" on ").append(relation);
+            if ("Seq Scan".equals(node.path("Node Type").asText()) && LARGE_TABLES.contains(relation)) {
+                seqScans.add(relation + " (odfiltrováno " + node.path("Rows Removed by Filter").asLong() + " řádků)");
+            }
+        }
+
+        JsonNode children = node.get("Plans");
+        if (children != null && !children.isEmpty()) {
+            List<String> childShapes = new ArrayList<>();
+            children.forEach(child -> childShapes.add(shape(child, seqScans)));
+            shape.append('(').append(String.join(", ", childShapes)).append(')');
+        }
+        return shape.toString();
+    }
+
+    private void evaluate(QueryReport report) {
+
+        List<Measurement> steps = report.steps();
+        Measurement largest = steps.get(steps.size() - 1);
+        if (!largest.seqScans().isEmpty()) {
+            report.flags().add("SEQ_SCAN: " + String.join(", ", largest.seqScans()));
+        }
+
+        for (int i = 1; i < steps.size(); i++) {
+            Measurement previous = steps.get(i - 1);
+            Measurement current = steps.get(i);
+
+            double sizeRatio = "PERSONS".equals(report.scale())
+                    ? (double) current.persons() / previous.persons()
+                    : (double) current.invoices() / previous.invoices();
+            double timeRatio = current.executionMs() / Math.max(previous.executionMs(), 0.001);
+            Double exponent = sizeRatio > 1 ? Math.log(timeRatio) / Math.log(sizeRatio) : null;
+            report.growthExponents().add(exponent);
+
+            if (exponent != null && exponent > maxExponent && current.executionMs() >= NOISE_FLOOR_MS) {
+                report.flags().add(String.format("SUPERLINEAR: %,d → %,d (exponent %.2f)",
+                        sizeOf(report, previous), sizeOf(report, current), exponent));
+            }
+            if (!Objects.equals(previous.plan(), current.plan())) {
+                report.flags().add(String.format("PLAN_CHANGE: %,d → %,d",
+                        sizeOf(report, previous), sizeOf(report, current)));
+            }
+        }
+    }
+
+    private static int sizeOf(QueryReport report, Measurement measurement) {
+        return "PERSONS".equals(report.scale()) ? measurement.persons() : measurement.invoices();
+    }
+
+    private static void print(Iterable<QueryReport> reports) {
+        for (QueryReport report : reports) {
+            System.out.printf("%n%s%n", report.name());
+            for (Measurement step : report.steps()) {
+                System.out.printf("  %,10d / %,11d  %10.2f ms  plán %6.2f ms  hit %,9d  read %,9d  řádky %,9d  %s%n",
+                        step.persons(), step.invoices(), step.executionMs(), step.planningMs(),
+                        step.sharedHitBlocks(), step.sharedReadBlocks(), step.rows(), step.plan());
+            }
+            if (!report.growthExponents().isEmpty()) {
+                System.out.printf("  exponent růstu: %s%n", report.growthExponents().stream()
+                        .map(exponent -> exponent != null ? String.format("%.2f", exponent) : "-")
+                        .collect(Collectors.joining(", ")));
+            }
+            report.flags().forEach(flag -> System.out.printf("  ! %s%n", flag));
+        }
+    }
+
+    /**
+     * Výsledek jednoho dotazu při jedné velikosti dat.
+     */
+    record Measurement(int persons, int invoices, double executionMs, double planningMs,
+                       long sharedHitBlocks, long sharedReadBlocks, long rows,
+                       String plan, List<String> seqScans) {
+    }
+
+    /**
+     * Výsledky jednoho dotazu napříč velikostmi.
+     */
+    record QueryReport(String name, String scale, List<Measurement> steps,
+                       List<Double> growthExponents, List<String> flags) {
+
+        QueryReport(String name, String scale) {
+            this(name, scale, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package cz.itnetwork.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Dotazy InvoiceRepository a PersonRepository v podobě, v jaké je
+ * odesílá Hibernate (viz logger cz.itnetwork.sql), s reprezentativními parametry.
+ * SQL se načítá ze souboru repository-queries.properties.
+ *
+ * Parametry míří na nejvytíženější záznamy datové sady (nejčastější
+ * prodávající a kupující, nejčtenější faktura) – tedy na případy,
+ * které v provozu nastávají nejčastěji a vracejí nejvíce řádků.
+ *
+ * Shodu SQL s tím, co Hibernate skutečně generuje, hlídá test
+ * RepositoryQueriesSqlTest hlavního projektu.
+ */
+final class RepositoryQueries {
+
+    private static final String QUERIES = "/repository-queries.properties";
+
+    private static final Properties SQL = load();
+
+    /**
+     * Velikost, se kterou dotaz přirozeně roste.
+     */
+    enum Scale {
+        PERSONS, INVOICES
+    }
+
+    /**
+     * Parametr dotazu s typem SQL (kvůli typovaným hodnotám NULL).
+     */
+    record Parameter(int sqlType, Object value) {
+
+        static Parameter integer(Integer value) {
+            return new Parameter(Types.INTEGER, value);
+        }
+
+        static Parameter decimal(Double value) {
+            return new Parameter(Types.DOUBLE, value);
+        }
+
+        static Parameter text(String value) {
+            return new Parameter(Types.VARCHAR, value);
+        }
+
+        static Parameter date(LocalDate value) {
+            return new Parameter(Types.DATE, value);
+        }
+
+        static Parameter bool(Boolean value) {
+            return new Parameter(Types.BOOLEAN, value);
+        }
+
+        static Parameter integers(Integer... values) {
+            return new Parameter(Types.ARRAY, values);
+        }
+    }
+
+    /**
+     * Jeden měřený dotaz.
+     *
+     * @param name       repozitář, metoda a případně varianta parametrů
+     * @param scale      velikost, vůči které se posuzuje růst doby běhu
+     * @param sql        SQL s parametry "?"
+     * @param parameters hodnoty parametrů
+     */
+    record QueryCase(String name, Scale scale, String sql, List<Parameter> parameters) {
+
+        QueryCase(String name, Scale scale, String sql, Parameter... parameters) {
+            this(name, scale, sql, List.of(parameters));
+        }
+    }
+
+    private RepositoryQueries() {
+    }
+
+    static List<QueryCase> all(Dataset dataset) {
+
+        int seller = dataset.sellerAt(1);
+        int buyer = dataset.buyerAt(1);
+        int invoice = dataset.invoiceAt(1);
+        LocalDate today = LocalDate.now();
+
+        return List.of(
+                // ============================
+                // InvoiceRepository
+                // ============================
+                new QueryCase("InvoiceRepository.findDetailById", Scale.INVOICES,
+                        sql("InvoiceRepository.findDetailById"),
+                        Parameter.integer(invoice)),
+
+                new QueryCase("InvoiceRepository.findForSoftDeleteById", Scale.INVOICES,
+                        sql("InvoiceRepository.findForSoftDeleteById"),
+                        Parameter.integer(invoice)),
+
+                new QueryCase("InvoiceRepository.findBySeller_IdIn", Scale.INVOICES,
+                        sql("InvoiceRepository.findBySeller_IdIn"),
+                        Parameter.integer(seller)),
+
+                new QueryCase("InvoiceRepository.findByBuyer_IdIn", Scale.INVOICES,
+                        sql("InvoiceRepository.findByBuyer_IdIn"),
+                        Parameter.integer(buyer)),
+
+                new QueryCase("InvoiceRepository.getMonthlyTurnoverRaw (prodávající)", Scale.INVOICES,
+                        sql("InvoiceRepository.getMonthlyTurnoverRaw"),
+                        Parameter.integer(seller), Parameter.integer(seller),
+                        Parameter.integer(null), Parameter.integer(null)),
+
+                new QueryCase("InvoiceRepository.getInvoiceStatisticsRaw", Scale.INVOICES,
+                        sql("InvoiceRepository.getInvoiceStatisticsRaw")),
+
+                filterInvoices("bez filtru", null, null, null, null),
+                filterInvoices("prodávající", null, seller, null, null),
+                filterInvoices("kupující", buyer, null, null, null),
+                filterInvoices("cena", null, null, 5_000.0, 10_000.0),
+
+                new QueryCase("InvoiceRepository.save (insert)", Scale.INVOICES,
+                        sql("InvoiceRepository.save.insert"),
+                        Parameter.integer(buyer), Parameter.date(today.plusDays(14)), Parameter.bool(false),
+                        Parameter.integer(1), Parameter.date(today), Parameter.text(null),
+                        Parameter.decimal(1_000.0), Parameter.text("Plán dotazů"),
+                        Parameter.integer(seller), Parameter.decimal(21.0)),
+
+                new QueryCase("InvoiceRepository.save (update)", Scale.INVOICES,
+                        sql("InvoiceRepository.save.update"),
+                        Parameter.integer(buyer), Parameter.date(today.plusDays(14)), Parameter.bool(false),
+                        Parameter.integer(1), Parameter.date(today), Parameter.text(null),
+                        Parameter.decimal(1_000.0), Parameter.text("Plán dotazů"),
+                        Parameter.integer(seller), Parameter.decimal(21.0), Parameter.integer(invoice)),
+
+                // ============================
+                // PersonRepository
+                // ============================
+                new QueryCase("PersonRepository.findById (dávka)", Scale.PERSONS,
+                        sql("PersonRepository.findById.batch"),
+                        Parameter.integers(seller, buyer)),
+
+                new QueryCase("PersonRepository.findFirstByNameIgnoreCaseContaining", Scale.PERSONS,
+                        sql("PersonRepository.findFirstByNameIgnoreCaseContaining"),
+                        Parameter.text("%" + Dataset.personName(seller) + "%"), Parameter.integer(1)),
+
+                new QueryCase("PersonRepository.findIdsByIdentificationNumber", Scale.PERSONS,
+                        sql("PersonRepository.findIdsByIdentificationNumber"),
+                        Parameter.text(Dataset.identificationNumber(seller))),
+
+                new QueryCase("PersonRepository.findAllVisible", Scale.PERSONS,
+                        sql("PersonRepository.findAllVisible")),
+
+                new QueryCase("PersonRepository.countVisibleByIdIn", Scale.PERSONS,
+                        sql("PersonRepository.countVisibleByIdIn"),
+                        Parameter.integer(seller), Parameter.integer(buyer)),
+
+                new QueryCase("PersonRepository.getPersonStatisticsRaw", Scale.INVOICES,
+                        sql("PersonRepository.getPersonStatisticsRaw")),
+
+                new QueryCase("PersonRepository.searchByName", Scale.PERSONS,
+                        sql("PersonRepository.searchByName"),
+                        Parameter.text(Dataset.NAME_WORDS[0]))
+        );
+    }
+
+    private static QueryCase filterInvoices(String variant, Integer buyerId, Integer sellerId,
+                                            Double minPrice, Double maxPrice) {
+        return new QueryCase("InvoiceRepository.filterInvoices (" + variant + ")", Scale.INVOICES,
+                sql("InvoiceRepository.filterInvoices"),
+                Parameter.integer(buyerId), Parameter.integer(buyerId),
+                Parameter.integer(sellerId), Parameter.integer(sellerId),
+                Parameter.decimal(minPrice), Parameter.decimal(minPrice),
+                Parameter.decimal(maxPrice), Parameter.decimal(maxPrice));
+    }
+
+    private static String sql(String key) {
+        String sql = SQL.getProperty(key);
+        if (sql == null) {
+            throw new IllegalStateException("Dotaz " + key + " chybí v " + QUERIES);
+        }
+        return sql;
+    }
+
+    private static Properties load() {
+
+        Properties properties = new Properties();
+        try (InputStream input = RepositoryQueries.class.getResourceAsStream(QUERIES)) {
+            if (input == null) {
+                throw new IllegalStateException("Soubor " + QUERIES + " nenalezen");
+            }
+            properties.load(new InputStreamReader(input, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,195 @@
+package cz.itnetwork.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stav connection poolů a haldy aplikace během měření.
+ *
+ * Před měřením a po něm se načtou administrátorské endpointy
+ * /api/admin/datasource/pools a /api/admin/jvm/memory; rozdíl
+ * kumulativních čítačů dává počet výpůjček a nově vytvořených spojení
+ * (churn poolu) a počet a dobu běhů GC za dobu měření. Obsazení haldy
+ * se během měření vzorkuje každou sekundu kvůli špičce.
+ *
+ * Endpointy vyžadují token uživatele s rolí ADMIN (--admin-token).
+ */
+final class ServerMetrics {
+
+    private static final Duration SAMPLE_INTERVAL = Duration.ofSeconds(1);
+
+    private final HttpClient client;
+
+    private final URI baseUri;
+
+    private final String adminToken;
+
+    private final Duration timeout;
+
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong peakHeapUsed = new AtomicLong();
+
+    private Snapshot before;
+
+    private Thread sampler;
+
+    private volatile boolean sampling;
+
+    ServerMetrics(HttpClient client, URI baseUri, String adminToken, Duration timeout, ObjectMapper objectMapper) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.adminToken = adminToken;
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Stav na začátku měření a spuštění vzorkování haldy.
+     */
+    void start() throws IOException, InterruptedException {
+
+        before = snapshot();
+        peakHeapUsed.set(before.memory().path("heapUsedBytes").asLong());
+
+        sampling = true;
+        sampler = new Thread(this::sample, "loadtest-server-metrics");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    /**
+     * Stav na konci měření a rozdíl proti začátku.
+     *
+     * @param measuredSeconds doba měření
+     * @return část reportu se stavem poolů a haldy
+     */
+    Map<String, Object> stop(double measuredSeconds) throws IOException, InterruptedException {
+
+        sampling = false;
+        sampler.interrupt();
+        sampler.join();
+
+        Snapshot after = snapshot();
+
+        List<Map<String, Object>> pools = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : after.pools().entrySet()) {
+            JsonNode end = entry.getValue();
+            JsonNode start = before.pools().get(entry.getKey());
+
+            long acquisitions = delta(start, end, "acquisitions");
+            long created = delta(start, end, "connectionsCreated");
+
+            Map<String, Object> pool = new LinkedHashMap<>();
+            pool.put("pool", entry.getKey());
+            pool.put("maximumPoolSize", end.path("maximumPoolSize").asInt());
+            pool.put("acquisitions", acquisitions);
+            pool.put("acquisitionsPerSecond", acquisitions / measuredSeconds);
+            pool.put("connectionsCreated", created);
+            pool.put("connectionsCreatedPerMinute", created * 60 / measuredSeconds);
+            pool.put("timeouts", delta(start, end, "timeouts"));
+            // Percentily čekání jsou kumulativní od startu aplikace
+            pool.put("waitP99MillisSinceStart", end.path("waitP99Millis").asDouble());
+            pools.add(pool);
+        }
+
+        JsonNode memoryBefore = before.memory();
+        JsonNode memoryAfter = after.memory();
+        long gcTime = delta(memoryBefore, memoryAfter, "gcTimeMillis");
+
+        Map<String, Object> heap = new LinkedHashMap<>();
+        heap.put("usedBeforeBytes", memoryBefore.path("heapUsedBytes").asLong());
+        heap.put("usedAfterBytes", memoryAfter.path("heapUsedBytes").asLong());
+        heap.put("peakUsedBytes", Math.max(peakHeapUsed.get(), memoryAfter.path("heapUsedBytes").asLong()));
+        heap.put("committedBytes", memoryAfter.path("heapCommittedBytes").asLong());
+        heap.put("maxBytes", memoryAfter.path("heapMaxBytes").asLong());
+        heap.put("gcCollections", delta(memoryBefore, memoryAfter, "gcCollections"));
+        heap.put("gcTimeMillis", gcTime);
+        heap.put("gcTimePercent", gcTime / (measuredSeconds * 10));
+
+        Map<String, Object> server = new LinkedHashMap<>();
+        server.put("pools", pools);
+        server.put("heap", heap);
+
+        print(pools, heap);
+        return server;
+    }
+
+    private void sample() {
+        while (sampling) {
+            try {
+                Thread.sleep(SAMPLE_INTERVAL.toMillis());
+                long used = get("/api/admin/jvm/memory").path("heapUsedBytes").asLong();
+                peakHeapUsed.accumulateAndGet(used, Math::max);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | IllegalStateException e) {
+                // Jednotlivý neúspěšný vzorek nevadí, špička se dopočte z ostatních
+            }
+        }
+    }
+
+    private Snapshot snapshot() throws IOException, InterruptedException {
+
+        Map<String, JsonNode> pools = new HashMap<>();
+        for (JsonNode pool : get("/api/admin/datasource/pools")) {
+            pools.put(pool.path("pool").asText(), pool);
+        }
+        return new Snapshot(pools, get("/api/admin/jvm/memory"));
+    }
+
+    private JsonNode get(String path) throws IOException, InterruptedException {
+
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(timeout)
+                .header("Authorization", "Bearer " + adminToken)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Načtení " + path + " selhalo: HTTP " + response.statusCode()
+                    + " (je --admin-token token uživatele s rolí ADMIN?)");
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static long delta(JsonNode start, JsonNode end, String field) {
+        long startValue = start != null ? start.path(field).asLong() : 0;
+        return end.path(field).asLong() - startValue;
+    }
+
+    private static void print(List<Map<String, Object>> pools, Map<String, Object> heap) {
+
+        System.out.printf("%n%-12s %12s %9s %18s %12s %9s%n",
+                "pool", "výpůjčky", "výp./s", "nová spojení", "nová/min", "timeouty");
+        for (Map<String, Object> pool : pools) {
+            System.out.printf("%-12s %12d %9.1f %18d %12.1f %9d%n",
+                    pool.get("pool"), pool.get("acquisitions"), pool.get("acquisitionsPerSecond"),
+                    pool.get("connectionsCreated"), pool.get("connectionsCreatedPerMinute"), pool.get("timeouts"));
+        }
+
+        System.out.printf("%nHalda: %d MB před, %d MB po, špička %d MB z %d MB; GC %d běhů, %d ms (%.2f %% doby)%n",
+                mb(heap.get("usedBeforeBytes")), mb(heap.get("usedAfterBytes")), mb(heap.get("peakUsedBytes")),
+                mb(heap.get("maxBytes")), heap.get("gcCollections"), heap.get("gcTimeMillis"), heap.get("gcTimePercent"));
+    }
+
+    private static long mb(Object bytes) {
+        return (long) bytes / (1024 * 1024);
+    }
+
+    private record Snapshot(Map<String, JsonNode> pools, JsonNode memory) {
+    }
+}
@@ -0,0 +1,138 @@
+package cz.itnetwork.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Porovnání propustnosti aplikace s platformovými a virtuálními vlákny.
+ *
+ * Předpokládá dvě běžící instance nad stejnou databází, lišící se jen
+ * režimem vláken, např.:
+ *
+ *   PORT=8081 THREADS_VIRTUAL=false java -jar app.jar
+ *   PORT=8082 THREADS_VIRTUAL=true  java -jar app.jar
+ *
+ * Pro každý počet souběžných klientů (--levels) se proti oběma instancím
+ * postupně spustí stejná zátěž (viz Workload) a porovná se propustnost
+ * a latence. Obě instance sdílejí omezení connection poolu (výchozí
+ * 5 spojení): nad jeho kapacitou virtuální vlákna propustnost databázových
+ * operací nezvýší, pouze přesunou čekání z fronty Tomcatu do čekání
+ * na spojení z poolu.
+ *
+ * Dílčí reporty jednotlivých běhů se ukládají vedle souhrnného reportu
+ * (--report) s příponou režimu a počtu klientů.
+ */
+final class ThreadModeComparison {
+
+    private static final String DEFAULT_LEVELS = "50,200,800";
+
+    private final Arguments arguments;
+
+    private final String platformUrl;
+
+    private final String virtualUrl;
+
+    private final int[] levels;
+
+    private final String reportFile;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    ThreadModeComparison(Arguments arguments) {
+        this.arguments = arguments;
+        this.platformUrl = arguments.get("platform-url", "http://localhost:8081");
+        this.virtualUrl = arguments.get("virtual-url", "http://localhost:8082");
+        this.reportFile = arguments.get("report", "thread-modes.json");
+
+        String[] parts = arguments.get("levels", DEFAULT_LEVELS).split(",");
+        this.levels = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            levels[i] = Integer.parseInt(parts[i].trim());
+            if (levels[i] <= 0) {
+                throw new IllegalArgumentException("Počet klientů musí být kladný: " + parts[i]);
+            }
+        }
+    }
+
+    void run() throws IOException, InterruptedException {
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        Instant startedAt = Instant.now();
+
+        for (int concurrency : levels) {
+            EndpointStatistics.Report platform = runMode("platform", platformUrl, concurrency);
+            EndpointStatistics.Report virtual = runMode("virtual", virtualUrl, concurrency);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("concurrency", concurrency);
+            result.put("platform", platform);
+            result.put("virtual", virtual);
+            result.put("throughputRatio", ratio(virtual.throughput(), platform.throughput()));
+            results.add(result);
+        }
+
+        System.out.printf("%n%8s %-9s %9s %7s %9s %9s %9s %9s%n",
+                "klienti", "vlákna", "req/s", "chyby", "p50 ms", "p99 ms", "max ms", "poměr");
+        for (Map<String, Object> result : results) {
+            int concurrency = (int) result.get("concurrency");
+            print(concurrency, "platform", (EndpointStatistics.Report) result.get("platform"), null);
+            print(concurrency, "virtual", (EndpointStatistics.Report) result.get("virtual"),
+                    (Double) result.get("throughputRatio"));
+        }
+
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("platformUrl", platformUrl);
+        configuration.put("virtualUrl", virtualUrl);
+        configuration.put("levels", levels);
+        configuration.put("mix", arguments.get("mix", "výchozí"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("configuration", configuration);
+        report.put("results", results);
+
+        objectMapper.writeValue(new File(reportFile), report);
+        System.out.printf("%nSouhrnný report uložen do %s%n", reportFile);
+    }
+
+    private EndpointStatistics.Report runMode(String mode, String baseUrl, int concurrency)
+            throws IOException, InterruptedException {
+
+        System.out.printf("%n=== %s vlákna, %d klientů (%s) ===%n", mode, concurrency, baseUrl);
+
+        Arguments runArguments = arguments
+                .with("base-url", baseUrl)
+                .with("concurrency", String.valueOf(concurrency))
+                .with("report", partialReport(mode, concurrency));
+
+        return new Workload(runArguments).run();
+    }
+
+    private String partialReport(String mode, int concurrency) {
+        String base = reportFile.endsWith(".json")
+                ? reportFile.substring(0, reportFile.length() - ".json".length())
+                : reportFile;
+        return base + "-" + mode + "-" + concurrency + ".json";
+    }
+
+    private static void print(int concurrency, String mode, EndpointStatistics.Report report, Double ratio) {
+        EndpointStatistics.Latency latency = report.latencyMs();
+        System.out.printf("%8d %-9s %9.1f %7d %9.2f %9.2f %9.2f %9s%n",
+                concurrency, mode, report.throughput(), report.errors(),
+                latency.p50(), latency.p99(), latency.max(),
+                ratio != null ? String.format("%.2fx", ratio) : "");
+    }
+
+    private static double ratio(double value, double base) {
+        return base > 0 ? value / base : 0;
+    }
+}
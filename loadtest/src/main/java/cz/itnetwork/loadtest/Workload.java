@@ -0,0 +1,483 @@
+package cz.itnetwork.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Řízená zátěž běžící aplikace se skriptovaným mixem operací.
+ *
+ * Zátěž generuje pevný počet souběžných klientů (--concurrency). Bez
+ * zadané intenzity (--rate) posílá každý klient další požadavek ihned
+ * po odpovědi (uzavřený model). S intenzitou jsou požadavky plánovány
+ * v pravidelných intervalech a latence se měří od plánovaného okamžiku
+ * odeslání, takže zpoždění serveru se projeví i na požadavcích, které
+ * kvůli němu odešly později (coordinated omission).
+ *
+ * Po zahřívací fázi (--warmup) se po dobu --duration měří propustnost
+ * a percentily latence každého endpointu. Výsledek se vypíše jako tabulka
+ * a uloží do JSON souboru (--report).
+ *
+ * Zátěž předpokládá data vytvořená generátorem se stejnou velikostí sady
+ * (--persons, --invoices). Přihlášení podléhá omezení počtu požadavků
+ * na /api/auth; pro měření kapacity je vhodné spustit aplikaci
+ * se security.auth-rate-limit.enabled=false.
+ *
+ * S tokenem administrátora (--admin-token) se do reportu přidá i počet
+ * výpůjček a nově vytvořených spojení poolů a obsazení haldy a běhy GC
+ * aplikace za dobu měření (viz ServerMetrics).
+ */
+final class Workload {
+
+    private static final String DEFAULT_MIX =
+            "list=20,filter=15,detail=30,create=5,update=5,statistics=5,search=15,auth=5";
+
+    private static final int CREATED_IDS = 1024;
+
+    private static final int PAGE_SIZE = 50;
+
+    /**
+     * Operace mixu.
+     */
+    enum Operation {
+        LIST, FILTER, DETAIL, CREATE, UPDATE, STATISTICS, SEARCH, AUTH
+    }
+
+    private final URI baseUri;
+
+    private final int concurrency;
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    private final double rate;
+
+    private final Duration timeout;
+
+    private final int users;
+
+    private final String password;
+
+    private final String reportFile;
+
+    private final String mixDefinition;
+
+    private final String adminToken;
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final Dataset dataset;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final HttpClient client;
+
+    private final Map<String, EndpointStatistics> statistics = new ConcurrentHashMap<>();
+
+    private final EndpointStatistics total = new EndpointStatistics("celkem");
+
+    /**
+     * Kruhový seznam ID faktur vytvořených během zátěže – operace UPDATE
+     * upravuje přednostně je, aby neměnila vygenerovaná data.
+     */
+    private final AtomicIntegerArray createdIds = new AtomicIntegerArray(CREATED_IDS);
+
+    private final AtomicLong createdCount = new AtomicLong();
+
+    private final AtomicLong invoiceNumbers = new AtomicLong(System.currentTimeMillis() % 1_000_000_000L);
+
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+
+    private volatile boolean running = true;
+
+    private List<Account> accounts;
+
+    Workload(Arguments arguments) {
+        this.baseUri = URI.create(arguments.get("base-url", "http://localhost:8081"));
+        this.concurrency = arguments.getInt("concurrency", 16);
+        this.warmup = arguments.getDuration("warmup", Duration.ofSeconds(10));
+        this.duration = arguments.getDuration("duration", Duration.ofSeconds(60));
+        this.rate = arguments.getDouble("rate", 0);
+        this.timeout = arguments.getDuration("timeout", Duration.ofSeconds(30));
+        this.users = arguments.getInt("users", 10);
+        this.password = arguments.get("password", "loadtest-heslo");
+        this.reportFile = arguments.get("report", "loadtest-report.json");
+        this.dataset = new Dataset(arguments.getInt("persons", 10_000), arguments.getInt("invoices", 100_000));
+        this.mixDefinition = arguments.get("mix", DEFAULT_MIX);
+        this.adminToken = arguments.getOrEnv("admin-token", "LOADTEST_ADMIN_TOKEN", null);
+
+        Map<Operation, Integer> mix = parseMix(mixDefinition);
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("Mix operací i počet klientů musí být kladné");
+        }
+
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Spuštění zátěže a uložení reportu.
+     *
+     * @return souhrn všech změřených požadavků
+     */
+    EndpointStatistics.Report run() throws IOException, InterruptedException {
+
+        accounts = prepareAccounts();
+        System.out.printf("Přihlášeno %d uživatelů, spouští se %d klientů%s%n", accounts.size(), concurrency,
+                rate > 0 ? String.format(" s intenzitou %.0f req/s", rate) : "");
+
+        Instant startedAt = Instant.now();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            int workerIndex = i;
+            Thread worker = new Thread(() -> work(workerIndex), "loadtest-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+
+        Thread.sleep(warmup.toMillis());
+        ServerMetrics serverMetrics = null;
+        if (adminToken != null) {
+            serverMetrics = new ServerMetrics(client, baseUri, adminToken, timeout, objectMapper);
+            serverMetrics.start();
+        }
+        long measuredFrom = System.nanoTime();
+        measureFromNanos = measuredFrom;
+        System.out.printf("Zahřátí dokončeno, měří se %d s%n", duration.toSeconds());
+
+        Thread.sleep(duration.toMillis());
+        running = false;
+        long measuredNanos = System.nanoTime() - measuredFrom;
+        Map<String, Object> server = serverMetrics != null ? serverMetrics.stop(measuredNanos / 1e9) : null;
+        for (Thread worker : workers) {
+            worker.join(timeout.toMillis());
+        }
+
+        return report(startedAt, measuredNanos / 1e9, server);
+    }
+
+    private void work(int workerIndex) {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Account account = accounts.get(workerIndex % accounts.size());
+
+        long interval = rate > 0 ? (long) (concurrency * 1e9 / rate) : 0;
+        long intended = System.nanoTime() + (interval > 0 ? random.nextLong(interval) : 0);
+
+        while (running) {
+
+            if (interval > 0) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                intended = System.nanoTime();
+            }
+
+            Call call = prepare(pick(random), random, account);
+            int status;
+            HttpResponse<byte[]> response = null;
+            try {
+                response = client.send(call.request(), HttpResponse.BodyHandlers.ofByteArray());
+                status = response.statusCode();
+            } catch (IOException e) {
+                status = EndpointStatistics.CONNECTION_ERROR;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long finished = System.nanoTime();
+            if (intended >= measureFromNanos && running) {
+                statistics.computeIfAbsent(call.endpoint(), EndpointStatistics::new)
+                        .record(finished - intended, status);
+                total.record(finished - intended, status);
+            }
+
+            if (call.operation() == Operation.CREATE && response != null && status == 200) {
+                rememberCreated(response.body());
+            }
+
+            intended += interval;
+        }
+    }
+
+    private Operation pick(Random random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private Call prepare(Operation operation, Random random, Account account) {
+        return switch (operation) {
+            case LIST -> get(operation, "GET /api/invoices", "/api/invoices?limit=" + PAGE_SIZE, account);
+            case FILTER -> get(operation, "GET /api/invoices?filtr", "/api/invoices?limit=" + PAGE_SIZE
+                    + "&" + filter(random), account);
+            case DETAIL -> get(operation, "GET /api/invoices/{id}",
+                    "/api/invoices/" + dataset.invoiceToRead(random), account);
+            case CREATE -> send(operation, "POST /api/invoices", "POST", "/api/invoices",
+                    invoiceBody(random), account);
+            case UPDATE -> send(operation, "PUT /api/invoices/{id}", "PUT",
+                    "/api/invoices/" + invoiceToUpdate(random), invoiceBody(random), account);
+            case STATISTICS -> random.nextBoolean()
+                    ? get(operation, "GET /api/invoices/statistics", "/api/invoices/statistics", account)
+                    : get(operation, "GET /api/persons/statistics", "/api/persons/statistics", account);
+            case SEARCH -> get(operation, "GET /api/persons/search", "/api/persons/search?query="
+                    + encode(Dataset.NAME_WORDS[random.nextInt(Dataset.NAME_WORDS.length)]), account);
+            case AUTH -> send(operation, "POST /api/auth/login", "POST", "/api/auth/login",
+                    credentials(account.email()), null);
+        };
+    }
+
+    /**
+     * Jeden z filtrů seznamu faktur: prodávající, kupující nebo cenové rozpětí.
+     */
+    private String filter(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> "sellerName=" + encode(Dataset.personName(dataset.seller(random)));
+            case 1 -> "buyerName=" + encode(Dataset.personName(dataset.buyer(random, 0)));
+            default -> {
+                int minPrice = 1_000 * (1 + random.nextInt(50));
+                yield "minPrice=" + minPrice + "&maxPrice=" + minPrice * 2;
+            }
+        };
+    }
+
+    private int invoiceToUpdate(Random random) {
+        long created = createdCount.get();
+        if (created == 0) {
+            return dataset.invoiceToRead(random);
+        }
+        int slots = (int) Math.min(created, CREATED_IDS);
+        return createdIds.get(random.nextInt(slots));
+    }
+
+    private void rememberCreated(byte[] body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).get("_id");
+            if (id != null) {
+                createdIds.set((int) (createdCount.getAndIncrement() % CREATED_IDS), id.asInt());
+            }
+        } catch (IOException e) {
+            // Odpověď bez ID – fakturu nelze později upravit
+        }
+    }
+
+    private String invoiceBody(Random random) {
+        int sellerId = dataset.seller(random);
+        LocalDate issued = LocalDate.now().minusDays(random.nextInt(30));
+
+        Map<String, Object> invoice = new LinkedHashMap<>();
+        invoice.put("invoiceNumber", invoiceNumbers.incrementAndGet());
+        invoice.put("issued", issued.toString());
+        invoice.put("dueDate", issued.plusDays(14).toString());
+        invoice.put("product", "Zátěžový test");
+        invoice.put("price", 100 + random.nextInt(100_000));
+        invoice.put("vat", 21);
+        invoice.put("note", "loadtest");
+        invoice.put("seller", Map.of("id", sellerId));
+        invoice.put("buyer", Map.of("id", dataset.buyer(random, sellerId)));
+        return json(invoice);
+    }
+
+    private Call get(Operation operation, String endpoint, String path, Account account) {
+        return new Call(operation, endpoint, request(path, account).GET().build());
+    }
+
+    private Call send(Operation operation, String endpoint, String method, String path, String body, Account account) {
+        return new Call(operation, endpoint, request(path, account)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private HttpRequest.Builder request(String path, Account account) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(timeout);
+        if (account != null) {
+            builder.header("Authorization", "Bearer " + account.token());
+        }
+        return builder;
+    }
+
+    // ============================
+    // PŘÍPRAVA UŽIVATELŮ
+    // ============================
+
+    /**
+     * Registrace (pokud účet ještě neexistuje) a přihlášení uživatelů zátěže.
+     * Při odmítnutí kvůli omezení počtu požadavků se čeká podle Retry-After.
+     */
+    private List<Account> prepareAccounts() throws IOException, InterruptedException {
+
+        List<Account> prepared = new ArrayList<>();
+        for (int i = 1; i <= users; i++) {
+            String email = "loadtest-" + i + "@example.com";
+
+            HttpResponse<byte[]> registered = sendWithRetry("/api/auth/register", credentials(email));
+            if (registered.statusCode() != 200 && registered.statusCode() != 409) {
+                throw new IllegalStateException("Registrace " + email + " selhala: HTTP " + registered.statusCode());
+            }
+
+            HttpResponse<byte[]> login = sendWithRetry("/api/auth/login", credentials(email));
+            if (login.statusCode() != 200) {
+                throw new IllegalStateException("Přihlášení " + email + " selhalo: HTTP " + login.statusCode());
+            }
+            prepared.add(new Account(email, objectMapper.readTree(login.body()).get("token").asText()));
+        }
+        return prepared;
+    }
+
+    private HttpResponse<byte[]> sendWithRetry(String path, String body) throws IOException, InterruptedException {
+        while (true) {
+            HttpResponse<byte[]> response = client.send(request(path, null)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 429 && response.statusCode() != 503) {
+                return response;
+            }
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            TimeUnit.SECONDS.sleep(Math.max(retryAfter, 1));
+        }
+    }
+
+    private String credentials(String email) {
+        return json(Map.of("email", email, "password", password));
+    }
+
+    // ============================
+    // REPORT
+    // ============================
+
+    private EndpointStatistics.Report report(Instant startedAt, double measuredSeconds, Map<String, Object> server)
+            throws IOException {
+
+        List<EndpointStatistics.Report> endpoints = statistics.values().stream()
+                .map(endpoint -> endpoint.report(measuredSeconds))
+                .sorted(Comparator.comparing(EndpointStatistics.Report::endpoint))
+                .toList();
+
+        EndpointStatistics.Report summary = total.report(measuredSeconds);
+        long requests = summary.requests();
+        long errors = summary.errors();
+
+        System.out.printf("%n%-34s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "požadavky", "req/s", "chyby", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStatistics.Report endpoint : endpoints) {
+            EndpointStatistics.Latency latency = endpoint.latencyMs();
+            System.out.printf("%-34s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.endpoint(), endpoint.requests(), endpoint.throughput(), endpoint.errors(),
+                    latency.p50(), latency.p90(), latency.p99(), latency.p999(), latency.max());
+        }
+        EndpointStatistics.Latency totalLatency = summary.latencyMs();
+        System.out.printf("%-34s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                "celkem", requests, summary.throughput(), errors, totalLatency.p50(), totalLatency.p90(),
+                totalLatency.p99(), totalLatency.p999(), totalLatency.max());
+
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("baseUrl", baseUri.toString());
+        configuration.put("concurrency", concurrency);
+        configuration.put("rate", rate);
+        configuration.put("warmupSeconds", warmup.toSeconds());
+        configuration.put("durationSeconds", duration.toSeconds());
+        configuration.put("mix", mixDefinition);
+        configuration.put("persons", dataset.persons);
+        configuration.put("invoices", dataset.invoices);
+        configuration.put("users", users);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("configuration", configuration);
+        report.put("measuredSeconds", measuredSeconds);
+        report.put("requests", requests);
+        report.put("errors", errors);
+        report.put("throughput", requests / measuredSeconds);
+        report.put("latencyMs", totalLatency);
+        report.put("endpoints", endpoints);
+        if (server != null) {
+            report.put("server", server);
+        }
+
+        objectMapper.writeValue(new File(reportFile), report);
+        System.out.printf("%nReport uložen do %s%n", reportFile);
+
+        return summary;
+    }
+
+    private static Map<Operation, Integer> parseMix(String definition) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : definition.split(",")) {
+            String[] entry = part.trim().split("=");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("Neplatná položka mixu: " + part);
+            }
+            int weight = Integer.parseInt(entry[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(entry[0].trim().toUpperCase()), weight);
+            }
+        }
+        return mix;
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private record Account(String email, String token) {
+    }
+
+    private record Call(Operation operation, String endpoint, HttpRequest request) {
+    }
+}
@@ -0,0 +1,80 @@
+package cz.itnetwork.cache;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch – odhad četnosti klíčů v pevné paměti.
+ *
+ * Každý klíč se započítá do jedné buňky v každém ze čtyř řádků;
+ * odhadem je minimum těchto buněk. Odhad nikdy není nižší než skutečný
+ * počet, kolize ho mohou jen nadhodnotit (o řádově počet přístupů / šířka).
+ *
+ * Buňky jsou atomické čítače, zápis je bezzámkový a nealokuje.
+ * Pro stárnutí se všechny čítače periodicky půlí.
+ */
+final class CountMinSketch {
+
+    private static final int DEPTH = 4;
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final AtomicIntegerArray table;
+
+    private final int width;
+
+    private final int mask;
+
+    /**
+     * @param width počet buněk jednoho řádku (zaokrouhlen na mocninu dvou)
+     */
+    CountMinSketch(int width) {
+        this.width = Integer.highestOneBit(Math.max(16, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.table = new AtomicIntegerArray(DEPTH * this.width);
+    }
+
+    /**
+     * Započítání přístupu ke klíči.
+     *
+     * @param hash hash klíče
+     * @return odhad počtu přístupů včetně tohoto
+     */
+    int increment(int hash) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, table.incrementAndGet(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Odhad počtu přístupů ke klíči.
+     *
+     * @param hash hash klíče
+     * @return odhad počtu přístupů
+     */
+    int estimate(int hash) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, table.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Zestárnutí – vydělení všech čítačů dvěma.
+     */
+    void halve() {
+        for (int i = 0; i < table.length(); i++) {
+            table.updateAndGet(i, value -> value >>> 1);
+        }
+    }
+
+    private int index(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h ^= h >>> 29;
+        return row * width + ((int) h & mask);
+    }
+}
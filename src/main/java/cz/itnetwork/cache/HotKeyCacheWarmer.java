@@ -0,0 +1,110 @@
+package cz.itnetwork.cache;
+
+import cz.itnetwork.service.Invoice.InvoiceService;
+import cz.itnetwork.service.Person.PersonService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodické připíchnutí a předehřátí nejčastěji čtených detailů
+ * faktur a osob v cache odpovědí.
+ *
+ * V každém intervalu se připíchne daný počet nejčastějších faktur
+ * a osob podle HotKeyTracker, chybějící detaily se načtou do cache
+ * a všechny čítače trackeru se vydělí dvěma.
+ */
+@Component
+public class HotKeyCacheWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyCacheWarmer.class);
+
+    private final HotKeyTracker hotKeyTracker;
+
+    private final ResponseBodyCache responseBodyCache;
+
+    private final InvoiceService invoiceService;
+
+    private final PersonService personService;
+
+    @Value("${cache.hot-keys.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.hot-keys.interval:30s}")
+    private Duration interval;
+
+    @Value("${cache.hot-keys.pinned:50}")
+    private int pinnedPerType;
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "hot-key-warmer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public HotKeyCacheWarmer(HotKeyTracker hotKeyTracker,
+                             ResponseBodyCache responseBodyCache,
+                             InvoiceService invoiceService,
+                             PersonService personService) {
+        this.hotKeyTracker = hotKeyTracker;
+        this.responseBodyCache = responseBodyCache;
+        this.invoiceService = invoiceService;
+        this.personService = personService;
+    }
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::refresh,
+                    interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void refresh() {
+        try {
+            List<Integer> invoiceIds = hotKeyTracker.getHotIds(HotKeyTracker.KeyType.INVOICE, pinnedPerType);
+            List<Integer> personIds = hotKeyTracker.getHotIds(HotKeyTracker.KeyType.PERSON, pinnedPerType);
+
+            responseBodyCache.pin(invoiceIds, personIds);
+
+            for (Integer id : invoiceIds) {
+                warm(() -> responseBodyCache.warmInvoice(id, () -> invoiceService.getById(id)));
+            }
+            for (Integer id : personIds) {
+                warm(() -> responseBodyCache.warmPerson(id, () -> personService.getById(id)));
+            }
+
+            hotKeyTracker.decay();
+
+        } catch (Exception e) {
+            log.warn("Předehřátí cache odpovědí selhalo, zkusí se znovu: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Předehřátí jednoho detailu – neexistující záznam (např. dotaz
+     * na neplatné ID) přeskočí bez přerušení ostatních.
+     */
+    private static void warm(Runnable warmer) {
+        try {
+            warmer.run();
+        } catch (RuntimeException e) {
+            log.debug("Detail se nepodařilo předehřát: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package cz.itnetwork.cache;
+
+import cz.itnetwork.dto.admin.HotKeyDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.EnumMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sledování nejčastěji čtených klíčů – faktur, osob a IČO.
+ *
+ * Četnost se odhaduje count-min sketchem, nad kterým se udržuje
+ * omezená množina nejčastějších klíčů (top-K). Klíč do ní vstupuje,
+ * jakmile jeho odhad překročí nejnižší četnost v množině. Běžný přístup
+ * jsou čtyři atomická přičtení a nanejvýš jedno čtení množiny,
+ * bez zámku a bez alokace.
+ *
+ * Všechny čítače se periodicky půlí (viz HotKeyCacheWarmer), takže
+ * pořadí odráží aktuální provoz, nikoliv celou dobu běhu aplikace.
+ */
+@Component
+public class HotKeyTracker {
+
+    /**
+     * Druh sledovaného klíče.
+     */
+    public enum KeyType {
+        INVOICE, PERSON, ICO
+    }
+
+    private final boolean enabled;
+
+    private final Map<KeyType, HeavyHitters> trackers = new EnumMap<>(KeyType.class);
+
+    private final HeavyHitters invoices;
+
+    private final HeavyHitters persons;
+
+    private final HeavyHitters icos;
+
+    public HotKeyTracker(@Value("${cache.hot-keys.enabled:true}") boolean enabled,
+                         @Value("${cache.hot-keys.sketch-width:4096}") int sketchWidth,
+                         @Value("${cache.hot-keys.top-k:100}") int topK) {
+
+        if (topK < 1) {
+            throw new IllegalArgumentException("Počet sledovaných klíčů musí být kladný");
+        }
+
+        this.enabled = enabled;
+        this.invoices = new HeavyHitters(sketchWidth, topK);
+        this.persons = new HeavyHitters(sketchWidth, topK);
+        this.icos = new HeavyHitters(sketchWidth, topK);
+
+        trackers.put(KeyType.INVOICE, invoices);
+        trackers.put(KeyType.PERSON, persons);
+        trackers.put(KeyType.ICO, icos);
+    }
+
+    /**
+     * Započítání čtení faktury.
+     *
+     * @param id identifikátor faktury
+     */
+    public void recordInvoice(Integer id) {
+        if (enabled && id != null) {
+            invoices.record(id);
+        }
+    }
+
+    /**
+     * Započítání čtení osoby.
+     *
+     * @param id identifikátor osoby
+     */
+    public void recordPerson(Integer id) {
+        if (enabled && id != null) {
+            persons.record(id);
+        }
+    }
+
+    /**
+     * Započítání vyhledání podle IČO.
+     *
+     * @param ico identifikační číslo osoby
+     */
+    public void recordIco(String ico) {
+        if (enabled && ico != null) {
+            icos.record(ico);
+        }
+    }
+
+    /**
+     * Nejčastěji čtené klíče daného druhu.
+     *
+     * @param type  druh klíče
+     * @param limit maximální počet klíčů
+     * @return klíče seřazené od nejčastějšího
+     */
+    public List<HotKeyDTO> getHotKeys(KeyType type, int limit) {
+        return trackers.get(type).top(limit).stream()
+                .map(entry -> HotKeyDTO.builder()
+                        .type(type.name())
+                        .key(String.valueOf(entry.getKey()))
+                        .estimatedCount((long) entry.getValue())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Identifikátory nejčastěji čtených faktur nebo osob.
+     *
+     * @param type  INVOICE nebo PERSON
+     * @param limit maximální počet klíčů
+     * @return identifikátory od nejčastějšího
+     */
+    public List<Integer> getHotIds(KeyType type, int limit) {
+        if (type == KeyType.ICO) {
+            throw new IllegalArgumentException("IČO nejsou číselné identifikátory");
+        }
+        return trackers.get(type).top(limit).stream()
+                .map(entry -> (Integer) entry.getKey())
+                .toList();
+    }
+
+    /**
+     * Zestárnutí všech čítačů (vydělení dvěma).
+     */
+    public void decay() {
+        trackers.values().forEach(HeavyHitters::halve);
+    }
+
+    /**
+     * Sketch jednoho druhu klíčů s množinou nejčastějších klíčů.
+     */
+    private static class HeavyHitters {
+
+        private final CountMinSketch sketch;
+
+        private final int capacity;
+
+        /**
+         * Nejčastější klíče. Na běžné cestě se množina pouze čte,
+         * mění se jen při přijetí nového klíče.
+         */
+        private final Set<Object> top = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Nejnižší odhad četnosti v zaplněné množině – klíče s nižším
+         * odhadem do ní nemohou vstoupit (0, dokud množina není plná).
+         */
+        private volatile int threshold;
+
+        HeavyHitters(int sketchWidth, int capacity) {
+            this.sketch = new CountMinSketch(sketchWidth);
+            this.capacity = capacity;
+        }
+
+        void record(Object key) {
+
+            int estimate = sketch.increment(key.hashCode());
+            if (estimate > threshold && !top.contains(key)) {
+                admit(key, estimate);
+            }
+        }
+
+        /**
+         * Přijetí nového klíče do množiny místo klíče s nejnižší
+         * četností, pokud ho nový klíč převyšuje. Práh se zároveň
+         * posune na minimum množiny po této změně.
+         */
+        private synchronized void admit(Object key, int estimate) {
+
+            if (top.contains(key)) {
+                return;
+            }
+            if (top.size() < capacity) {
+                top.add(key);
+                return;
+            }
+
+            Object minKey = null;
+            int min = Integer.MAX_VALUE;
+            int secondMin = Integer.MAX_VALUE;
+            for (Object candidate : top) {
+                int count = sketch.estimate(candidate.hashCode());
+                if (count < min) {
+                    secondMin = min;
+                    min = count;
+                    minKey = candidate;
+                } else if (count < secondMin) {
+                    secondMin = count;
+                }
+            }
+
+            if (estimate > min) {
+                top.remove(minKey);
+                top.add(key);
+                // Nové minimum je nižší z druhého nejmenšího a přijatého klíče
+                threshold = Math.min(secondMin, estimate);
+            } else {
+                threshold = min;
+            }
+        }
+
+        List<Map.Entry<Object, Integer>> top(int limit) {
+            return top.stream()
+                    .map(key -> Map.entry(key, sketch.estimate(key.hashCode())))
+                    .filter(entry -> entry.getValue() > 0)
+                    .sorted(Map.Entry.<Object, Integer>comparingByValue(Comparator.reverseOrder()))
+                    .limit(limit)
+                    .toList();
+        }
+
+        synchronized void halve() {
+            sketch.halve();
+            top.removeIf(key -> sketch.estimate(key.hashCode()) == 0);
+            threshold >>>= 1;
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package cz.itnetwork.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import cz.itnetwork.dto.Invoice.InvoiceDTO;
+import cz.itnetwork.dto.Person.PersonDTO;
+import cz.itnetwork.dto.Person.PersonReadDTO;
+import cz.itnetwork.logging.Tracer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache hotových (serializovaných) JSON odpovědí detailu faktury a osoby.
+ *
+ * Při zásahu se přeskakuje dotaz do databáze, mapování MapStruct
+ * i serializace Jacksonem – do odpovědi se zapíší přímo uložené bajty,
+ * volitelně již zkomprimované gzipem.
+ *
+ * Velikost cache je omezena celkovým objemem uložených bajtů,
+ * nikoliv počtem záznamů.
+ *
+ * Záznamy jsou zneplatněny při každém zápisu faktury nebo osoby.
+ * Odpověď načtená souběžně se zápisem se do cache neuloží – každé
+ * zneplatnění zvýší verzi cache a záznam se uloží jen tehdy, pokud
+ * se verze během jeho načítání nezměnila.
+ *
+ * Zápis osoby neprochází uložené faktury: zvýší generaci osoby
+ * a uložené detaily faktur, které byly serializovány se starší generací
+ * prodávajícího nebo kupujícího, se zahodí až při příštím čtení.
+ *
+ * Každé čtení detailu se započítá do HotKeyTracker. Nejčastěji čtené
+ * záznamy lze připíchnout (viz HotKeyCacheWarmer) – mají nulovou váhu,
+ * a proto nejsou vytlačovány kvůli objemu cache; zneplatnění zápisem
+ * se na ně vztahuje beze změny.
+ */
+@Component
+public class ResponseBodyCache {
+
+    /**
+     * Odhad režie jednoho záznamu (klíč, obálka, pole) v bajtech.
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /**
+     * Menší odpovědi se nekomprimují – úspora by byla zanedbatelná.
+     */
+    private static final int GZIP_MIN_SIZE = 1024;
+
+    /**
+     * Počet generací osob (mocnina dvou). Osoby se do nich rozdělují
+     * podle ID; sdílená generace způsobí nanejvýš zbytečný výpadek.
+     */
+    private static final int PERSON_GENERATIONS = 4096;
+
+    private final ObjectMapper objectMapper;
+
+    private final Tracer tracer;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    private final boolean gzipEnabled;
+
+    private final Cache<Key, CachedBody> cache;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLongArray personGenerations = new AtomicLongArray(PERSON_GENERATIONS);
+
+    /**
+     * Připíchnuté klíče (nahrazuje se celá množina).
+     */
+    private volatile Set<Key> pinned = Set.of();
+
+    public ResponseBodyCache(ObjectMapper objectMapper,
+                             Tracer tracer,
+                             HotKeyTracker hotKeyTracker,
+                             @Value("${cache.response.max-bytes:33554432}") long maxBytes,
+                             @Value("${cache.response.gzip:true}") boolean gzipEnabled) {
+        this.objectMapper = objectMapper;
+        this.tracer = tracer;
+        this.hotKeyTracker = hotKeyTracker;
+        this.gzipEnabled = gzipEnabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, CachedBody body) -> pinned.contains(key) ? 0 : body.weight())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Serializovaný detail faktury.
+     *
+     * @param id     identifikátor faktury
+     * @param loader načtení faktury při výpadku cache
+     * @return uložené nebo nově serializované tělo odpovědi
+     */
+    public CachedBody invoice(Integer id, Supplier<InvoiceDTO> loader) {
+        hotKeyTracker.recordInvoice(id);
+        return loadInvoice(id, loader);
+    }
+
+    /**
+     * Serializovaný detail osoby.
+     *
+     * @param id     identifikátor osoby
+     * @param loader načtení osoby při výpadku cache
+     * @return uložené nebo nově serializované tělo odpovědi
+     */
+    public CachedBody person(Integer id, Supplier<PersonDTO> loader) {
+        hotKeyTracker.recordPerson(id);
+        return loadPerson(id, loader);
+    }
+
+    /**
+     * Předehřátí detailu faktury bez započítání přístupu.
+     *
+     * @param id     identifikátor faktury
+     * @param loader načtení faktury, pokud v cache chybí
+     */
+    public void warmInvoice(Integer id, Supplier<InvoiceDTO> loader) {
+        loadInvoice(id, loader);
+    }
+
+    /**
+     * Předehřátí detailu osoby bez započítání přístupu.
+     *
+     * @param id     identifikátor osoby
+     * @param loader načtení osoby, pokud v cache chybí
+     */
+    public void warmPerson(Integer id, Supplier<PersonDTO> loader) {
+        loadPerson(id, loader);
+    }
+
+    /**
+     * Zda je detail faktury uložen v cache.
+     *
+     * @param id identifikátor faktury
+     * @return true, pokud je odpověď uložena
+     */
+    public boolean containsInvoice(Integer id) {
+        return cache.asMap().containsKey(new Key(Type.INVOICE, id));
+    }
+
+    /**
+     * Zda je detail osoby uložen v cache.
+     *
+     * @param id identifikátor osoby
+     * @return true, pokud je odpověď uložena
+     */
+    public boolean containsPerson(Integer id) {
+        return cache.asMap().containsKey(new Key(Type.PERSON, id));
+    }
+
+    /**
+     * Připíchnutí detailů faktur a osob. Nahrazuje dříve připíchnuté
+     * záznamy; záznamy, které připíchnutí ztratily, opět podléhají
+     * vytlačování.
+     *
+     * @param invoiceIds identifikátory faktur
+     * @param personIds  identifikátory osob
+     */
+    public void pin(Collection<Integer> invoiceIds, Collection<Integer> personIds) {
+
+        Set<Key> next = new HashSet<>();
+        invoiceIds.forEach(id -> next.add(new Key(Type.INVOICE, id)));
+        personIds.forEach(id -> next.add(new Key(Type.PERSON, id)));
+
+        Set<Key> previous = pinned;
+        pinned = Set.copyOf(next);
+
+        // Přepočet váhy záznamů, u kterých se připíchnutí změnilo
+        Set<Key> changed = new HashSet<>(previous);
+        changed.addAll(next);
+        changed.removeIf(key -> previous.contains(key) && next.contains(key));
+        changed.forEach(key -> cache.asMap().computeIfPresent(key, (k, body) -> body));
+    }
+
+    /**
+     * Počet připíchnutých klíčů.
+     *
+     * @return počet klíčů (uložených i dosud neuložených)
+     */
+    public int pinnedCount() {
+        return pinned.size();
+    }
+
+    /**
+     * Zneplatnění detailu faktury – ihned a znovu po potvrzení transakce.
+     *
+     * @param id identifikátor faktury
+     */
+    public void evictInvoice(Integer id) {
+        Key key = new Key(Type.INVOICE, id);
+        invalidate(() -> cache.invalidate(key));
+    }
+
+    /**
+     * Zneplatnění detailu osoby a všech faktur, ve kterých osoba vystupuje
+     * jako prodávající nebo kupující – faktury zneplatní zvýšení generace
+     * osoby bez procházení cache.
+     *
+     * @param id identifikátor osoby
+     */
+    public void evictPerson(Integer id) {
+        Key key = new Key(Type.PERSON, id);
+        invalidate(() -> {
+            personGenerations.incrementAndGet(generationSlot(id));
+            cache.invalidate(key);
+        });
+    }
+
+    /**
+     * Zneplatnění všech uložených odpovědí.
+     */
+    public void evictAll() {
+        invalidate(cache::invalidateAll);
+    }
+
+    /**
+     * Statistiky cache: zásahy, výpadky a vytlačené záznamy.
+     *
+     * @return aktuální statistiky
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Přibližný počet uložených odpovědí.
+     *
+     * @return počet záznamů
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Celkový objem bajtů aktuálně uložených v cache.
+     *
+     * @return součet vah záznamů
+     */
+    public long weightedSize() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    private CachedBody loadInvoice(Integer id, Supplier<InvoiceDTO> loader) {
+        return getOrLoad(new Key(Type.INVOICE, id), () -> {
+            InvoiceDTO dto = loader.get();
+            return serialize(dto, personId(dto.getSeller()), personId(dto.getBuyer()));
+        });
+    }
+
+    private CachedBody loadPerson(Integer id, Supplier<PersonDTO> loader) {
+        return getOrLoad(new Key(Type.PERSON, id), () -> serialize(loader.get(), id, id));
+    }
+
+    private CachedBody getOrLoad(Key key, Supplier<CachedBody> loader) {
+
+        CachedBody cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (isCurrent(cached)) {
+                return cached;
+            }
+            // Osoba faktury se od serializace změnila
+            cache.asMap().remove(key, cached);
+        }
+
+        long loadVersion = version.get();
+        CachedBody loaded = loader.get();
+
+        if (version.get() == loadVersion) {
+            cache.put(key, loaded);
+            // Zápis mohl proběhnout mezi kontrolou verze a vložením
+            if (version.get() != loadVersion) {
+                cache.invalidate(key);
+            }
+        }
+
+        return loaded;
+    }
+
+    private boolean isCurrent(CachedBody body) {
+        return body.firstPersonGeneration() == generation(body.firstPersonId())
+                && body.secondPersonGeneration() == generation(body.secondPersonId());
+    }
+
+    private long generation(Integer personId) {
+        return personId != null ? personGenerations.get(generationSlot(personId)) : 0;
+    }
+
+    private static int generationSlot(Integer personId) {
+        return personId & (PERSON_GENERATIONS - 1);
+    }
+
+    private void invalidate(Runnable eviction) {
+
+        version.incrementAndGet();
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private CachedBody serialize(Object dto, Integer firstPersonId, Integer secondPersonId) {
+        try (Tracer.Scope span = tracer.startSpan("ResponseBodyCache.serialize")) {
+            byte[] json = objectMapper.writeValueAsBytes(dto);
+            byte[] gzip = gzipEnabled && json.length >= GZIP_MIN_SIZE ? gzip(json) : null;
+            return new CachedBody(json, gzip,
+                    firstPersonId, generation(firstPersonId),
+                    secondPersonId, generation(secondPersonId));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializace odpovědi selhala", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static Integer personId(PersonReadDTO person) {
+        return person != null && person.getId() != null ? person.getId().intValue() : null;
+    }
+
+    private enum Type {
+        INVOICE,
+        PERSON
+    }
+
+    private record Key(Type type, Integer id) {
+    }
+
+    /**
+     * Serializované tělo odpovědi včetně ID a generací osob, na kterých závisí.
+     *
+     * @param json                   JSON odpovědi
+     * @param gzip                   JSON zkomprimovaný gzipem, nebo null
+     * @param firstPersonId          ID první závislé osoby (prodávající / osoba sama)
+     * @param firstPersonGeneration  generace první osoby při serializaci
+     * @param secondPersonId         ID druhé závislé osoby (kupující / osoba sama)
+     * @param secondPersonGeneration generace druhé osoby při serializaci
+     */
+    public record CachedBody(byte[] json, byte[] gzip,
+                             Integer firstPersonId, long firstPersonGeneration,
+                             Integer secondPersonId, long secondPersonGeneration) {
+
+        int weight() {
+            return ENTRY_OVERHEAD + json.length + (gzip != null ? gzip.length : 0);
+        }
+
+        /**
+         * Sestavení HTTP odpovědi – gzip varianta se použije,
+         * pokud ji klient podporuje a je k dispozici.
+         *
+         * @param acceptEncoding hodnota hlavičky Accept-Encoding
+         * @return odpověď s tělem zapsaným přímo z cache
+         */
+        public ResponseEntity<byte[]> toResponse(String acceptEncoding) {
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+            if (gzip != null && acceptsGzip(acceptEncoding)) {
+                return response
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .body(gzip);
+            }
+
+            return response.body(json);
+        }
+
+        /**
+         * Zda klient přijímá gzip podle Accept-Encoding (RFC 9110):
+         * gzip, x-gzip nebo * s nenulovou vahou q. Explicitně uvedený
+         * gzip má přednost před *, takže "gzip;q=0, *" gzip odmítá.
+         */
+        static boolean acceptsGzip(String acceptEncoding) {
+
+            if (acceptEncoding == null) {
+                return false;
+            }
+
+            Boolean wildcard = null;
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                boolean accepted = quality(parts) > 0;
+
+                if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                    return accepted;
+                }
+                if (name.equals("*")) {
+                    wildcard = accepted;
+                }
+            }
+            return Boolean.TRUE.equals(wildcard);
+        }
+
+        private static double quality(String[] parameters) {
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.length() > 2 && parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package cz.itnetwork.cache;
+
+import cz.itnetwork.dto.admin.CacheRegionStatisticsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.DomainDataRegion;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.Region;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Komponenta poskytující statistiky second-level cache Hibernate.
+ *
+ * Pro každý region (entity i query cache) vrací počet zásahů,
+ * výpadků, vložení a z nich vypočtenou úspěšnost cache.
+ */
+@Component
+public class SecondLevelCacheStatistics {
+
+    private final Statistics statistics;
+
+    private final CacheImplementor cache;
+
+    public SecondLevelCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        SessionFactoryImplementor sessionFactory =
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.statistics = sessionFactory.getStatistics();
+        this.cache = sessionFactory.getCache();
+    }
+
+    /**
+     * Statistiky všech regionů second-level cache a query cache.
+     *
+     * @return seznam statistik jednotlivých regionů
+     */
+    public List<CacheRegionStatisticsDTO> getRegionStatistics() {
+
+        List<CacheRegionStatisticsDTO> result = new ArrayList<>();
+
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            Region region = cache.getRegion(name);
+            if (region instanceof DomainDataRegion) {
+                result.add(toDto(name, "entity", statistics.getDomainDataRegionStatistics(name)));
+            } else if (region instanceof QueryResultsRegion) {
+                result.add(toDto(name, "query", statistics.getQueryRegionStatistics(name)));
+            }
+        }
+
+        return result;
+    }
+
+    private static CacheRegionStatisticsDTO toDto(String region,
+                                                  String type,
+                                                  CacheRegionStatistics stats) {
+
+        long hits = stats.getHitCount();
+        long misses = stats.getMissCount();
+        long lookups = hits + misses;
+
+        return CacheRegionStatisticsDTO.builder()
+                .region(region)
+                .type(type)
+                .hitCount(hits)
+                .missCount(misses)
+                .putCount(stats.getPutCount())
+                .hitRatio(lookups == 0 ? 0.0 : (double) hits / lookups)
+                .build();
+    }
+}
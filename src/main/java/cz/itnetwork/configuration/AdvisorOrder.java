@@ -0,0 +1,27 @@
+package cz.itnetwork.configuration;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Pořadí advisorů aplikace – menší hodnota obaluje volání zvenku.
+ *
+ * Všechny advisory leží vně transakčního interceptoru (ten má nejnižší
+ * prioritu): span služby tak zahrnuje zahájení a potvrzení transakce
+ * a druh zátěže i lhůta platí už při získání spojení. Na controlleru
+ * je span vně lhůty, aby zahrnul i její nastavení.
+ */
+final class AdvisorOrder {
+
+    static final int CONTROLLER_TRACING = Ordered.HIGHEST_PRECEDENCE;
+
+    static final int STATEMENT_TIMEOUT = CONTROLLER_TRACING + 1;
+
+    static final int SERVICE_TRACING = CONTROLLER_TRACING + 2;
+
+    static final int REPORTING_QUERY = CONTROLLER_TRACING + 3;
+
+    static final int MAPPER_TRACING = CONTROLLER_TRACING + 4;
+
+    private AdvisorOrder() {
+    }
+}
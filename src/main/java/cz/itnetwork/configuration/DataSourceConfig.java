@@ -0,0 +1,143 @@
+package cz.itnetwork.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import cz.itnetwork.datasource.ConnectionPoolMetrics;
+import cz.itnetwork.datasource.QueryCancellationExceptionOverride;
+import cz.itnetwork.datasource.ReportingQuery;
+import cz.itnetwork.datasource.StatementTimeoutDataSource;
+import cz.itnetwork.datasource.Workload;
+import cz.itnetwork.datasource.WorkloadRoutingDataSource;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Oddělené connection pooly pro interaktivní (OLTP) a reportovací zátěž.
+ *
+ * Oba pooly se připojují ke stejné databázi (spring.datasource.*).
+ * OLTP pool se nastavuje vlastnostmi spring.datasource.hikari.*,
+ * reportovací pool vlastnostmi datasource.reporting.hikari.*. Hibernate
+ * i ostatní komponenty používají směrující DataSource, který spojení
+ * vydá z reportovacího poolu jen pro metody s anotací ReportingQuery.
+ * Reporty tak čekají ve frontě svého poolu a spojení interaktivních
+ * požadavků nikdy nevyčerpají.
+ *
+ * Každý pool má vlastní časový limit SQL příkazů, jeho doby čekání
+ * na spojení sleduje ConnectionPoolMetrics.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Pool interaktivních požadavků.
+     *
+     * @param properties připojení k databázi
+     * @return pool nastavený vlastnostmi spring.datasource.hikari.*
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource oltpDataSource(DataSourceProperties properties) {
+        return pool(properties, Workload.OLTP);
+    }
+
+    /**
+     * Pool reportovacích dotazů.
+     *
+     * @param properties připojení k databázi
+     * @return pool nastavený vlastnostmi datasource.reporting.hikari.*
+     */
+    @Bean
+    @ConfigurationProperties("datasource.reporting.hikari")
+    public HikariDataSource reportingDataSource(DataSourceProperties properties) {
+        return pool(properties, Workload.REPORTING);
+    }
+
+    /**
+     * Směrující DataSource používaný Hibernatem.
+     *
+     * @param oltpDataSource            pool interaktivních požadavků
+     * @param reportingDataSource       pool reportovacích dotazů
+     * @param metrics                   metriky poolů
+     * @param oltpStatementTimeout      limit SQL příkazu OLTP poolu (0 bez limitu)
+     * @param reportingStatementTimeout limit SQL příkazu reportovacího poolu (0 bez limitu)
+     * @return DataSource volící pool podle druhu zátěže
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("oltpDataSource") HikariDataSource oltpDataSource,
+                                 @Qualifier("reportingDataSource") HikariDataSource reportingDataSource,
+                                 ConnectionPoolMetrics metrics,
+                                 @Value("${datasource.oltp.statement-timeout:5s}") Duration oltpStatementTimeout,
+                                 @Value("${datasource.reporting.statement-timeout:60s}") Duration reportingStatementTimeout) {
+
+        DataSource oltp = withStatementTimeout(oltpDataSource, oltpStatementTimeout, metrics);
+        DataSource reporting = withStatementTimeout(reportingDataSource, reportingStatementTimeout, metrics);
+
+        WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource();
+        dataSource.setTargetDataSources(Map.of(Workload.OLTP, oltp, Workload.REPORTING, reporting));
+        dataSource.setDefaultTargetDataSource(oltp);
+        dataSource.setLenientFallback(false);
+        return dataSource;
+    }
+
+    /**
+     * Nastavení reportovací zátěže pro metody a třídy s anotací
+     * ReportingQuery (včetně metod rozhraní repository). Advisor leží vně
+     * transakce (viz AdvisorOrder), aby druh zátěže platil už při jejím zahájení.
+     *
+     * @return advisor reportovacích metod
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor reportingQueryAdvisor() {
+
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(ReportingQuery.class, true))
+                .union(new AnnotationMatchingPointcut(null, ReportingQuery.class, true));
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, (MethodInterceptor) invocation ->
+                WorkloadRoutingDataSource.proceed(Workload.REPORTING, invocation));
+        advisor.setOrder(AdvisorOrder.REPORTING_QUERY);
+        return advisor;
+    }
+
+    /**
+     * Pool se jménem podle zátěže. Spojení se předávají s vypnutým
+     * auto-commitem (předpoklad nastavení provider_disables_autocommit),
+     * vlastnosti poolu mohou výchozí hodnoty přepsat. Zrušený příkaz
+     * spojení z poolu nevyřadí.
+     */
+    private static HikariDataSource pool(DataSourceProperties properties, Workload workload) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(workload.getPoolName());
+        dataSource.setAutoCommit(false);
+        dataSource.setExceptionOverrideClassName(QueryCancellationExceptionOverride.class.getName());
+        return dataSource;
+    }
+
+    /**
+     * Obal poolu i bez limitu poolu (0) – lhůty endpointů a rušení
+     * příkazů (StatementCancellation) platí vždy.
+     */
+    private static DataSource withStatementTimeout(HikariDataSource pool, Duration timeout,
+                                                   ConnectionPoolMetrics metrics) {
+        metrics.register(pool, timeout.isZero() ? null : timeout);
+        return new StatementTimeoutDataSource(pool, timeout);
+    }
+}
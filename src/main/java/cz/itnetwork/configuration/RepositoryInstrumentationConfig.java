@@ -0,0 +1,66 @@
+package cz.itnetwork.configuration;
+
+import cz.itnetwork.logging.RepositoryInstrumentation;
+import cz.itnetwork.logging.SqlStatementCapture;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Konfigurace měření volání Spring Data repository.
+ *
+ * Do proxy každé repository je přidán interceptor, který volání předává
+ * komponentě RepositoryInstrumentation. Hibernate je navíc nastaven
+ * inspektor SQL, díky kterému lze u pomalých volání uvést vygenerované SQL.
+ */
+@Configuration
+@ConditionalOnProperty(name = "repository.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryInstrumentationConfig {
+
+    /**
+     * Registrace interceptoru do továren repository před jejich inicializací.
+     *
+     * Metoda je statická, protože BeanPostProcessor vzniká dříve než
+     * ostatní beany; instrumentace se proto získává až při prvním volání.
+     *
+     * @param instrumentation komponenta měřící volání (získaná líně)
+     * @return post-processor továren repository
+     */
+    @Bean
+    public static BeanPostProcessor repositoryInstrumentationPostProcessor(
+            ObjectProvider<RepositoryInstrumentation> instrumentation) {
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                                Class<?> repository = repositoryInformation.getRepositoryInterface();
+                                proxyFactory.addAdvice((MethodInterceptor) invocation ->
+                                        instrumentation.getObject().invoke(invocation, repository));
+                            }));
+                }
+
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Zachytávání SQL vygenerovaného Hibernatem během volání repository.
+     *
+     * @return úprava vlastností Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCaptureCustomizer() {
+        return properties -> properties.put(
+                "hibernate.session_factory.statement_inspector", new SqlStatementCapture());
+    }
+}
@@ -0,0 +1,62 @@
+package cz.itnetwork.configuration;
+
+import cz.itnetwork.datasource.ClientDisconnectValve;
+import cz.itnetwork.datasource.StatementCancellation;
+import cz.itnetwork.datasource.StatementTimeout;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * Konfigurace lhůt endpointů a rušení SQL příkazů (viz StatementCancellation).
+ *
+ * Kontext požadavku otevírá Tomcat valve, lhůtu nastavuje advisor
+ * metod s anotací StatementTimeout.
+ */
+@Configuration
+public class StatementCancellationConfig {
+
+    /**
+     * Lhůty metod a tříd s anotací StatementTimeout.
+     *
+     * Metoda je statická, protože advisory vznikají dříve než ostatní
+     * beany; komponenta rušení se proto získává až při prvním volání.
+     *
+     * @param statementCancellation komponenta rušení příkazů (získaná líně)
+     * @return advisor metod se lhůtou
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor statementTimeoutAdvisor(ObjectProvider<StatementCancellation> statementCancellation) {
+
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(StatementTimeout.class, true))
+                .union(new AnnotationMatchingPointcut(null, StatementTimeout.class, true));
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, (MethodInterceptor) invocation ->
+                statementCancellation.getObject().proceed(invocation));
+        advisor.setOrder(AdvisorOrder.STATEMENT_TIMEOUT);
+        return advisor;
+    }
+
+    /**
+     * Registrace valve, který otevírá kontext každého požadavku
+     * a hlásí mu neúspěšný zápis odpovědi (odpojení klienta).
+     *
+     * @param statementCancellation komponenta rušení příkazů
+     * @return úprava továrny Tomcatu
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> clientDisconnectValveCustomizer(
+            StatementCancellation statementCancellation) {
+        return factory -> factory.addContextValves(new ClientDisconnectValve(statementCancellation));
+    }
+}
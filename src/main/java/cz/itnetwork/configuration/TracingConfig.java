@@ -0,0 +1,141 @@
+package cz.itnetwork.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.itnetwork.logging.Tracer;
+import cz.itnetwork.logging.TracingMethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Konfigurace trasování požadavků (viz Tracer).
+ *
+ * Spany controllerů, služeb a MapStruct mapperů přidávají advisory,
+ * které aplikuje stejný mechanismus proxy jako transakce. Advisory leží
+ * vně transakce (viz AdvisorOrder), span služby proto zahrnuje i zahájení
+ * a potvrzení transakce. Serializaci JSON odpovědí měří obalený Jackson konvertor.
+ * Spany volání repository vytváří RepositoryInstrumentation.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig implements WebMvcConfigurer {
+
+    private static final String MAPPER_PACKAGE = "cz.itnetwork.dto.mapper";
+
+    private final Tracer tracer;
+
+    public TracingConfig(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Spany metod REST controllerů.
+     *
+     * @param tracer komponenta trasování (získaná líně)
+     * @return advisor controllerů
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor controllerTracingAdvisor(ObjectProvider<Tracer> tracer) {
+        return advisor(new AnnotationMatchingPointcut(RestController.class, true), tracer, AdvisorOrder.CONTROLLER_TRACING);
+    }
+
+    /**
+     * Spany metod aplikačních služeb.
+     *
+     * @param tracer komponenta trasování (získaná líně)
+     * @return advisor služeb
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceTracingAdvisor(ObjectProvider<Tracer> tracer) {
+        return advisor(new AnnotationMatchingPointcut(Service.class, true), tracer, AdvisorOrder.SERVICE_TRACING);
+    }
+
+    /**
+     * Spany MapStruct mapperů (vygenerované implementace jsou beany
+     * s anotací Component v balíčku mapperů).
+     *
+     * @param tracer komponenta trasování (získaná líně)
+     * @return advisor mapperů
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor mapperTracingAdvisor(ObjectProvider<Tracer> tracer) {
+        ClassFilter mappers = type -> MAPPER_PACKAGE.equals(type.getPackageName())
+                && type.isAnnotationPresent(Component.class);
+        return advisor(new ComposablePointcut(mappers), tracer, AdvisorOrder.MAPPER_TRACING);
+    }
+
+    /**
+     * Nahrazení Jackson konvertoru variantou, která měří zápis odpovědi.
+     *
+     * @param converters konvertory zpráv Spring MVC
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter ->
+                converter.getClass() == MappingJackson2HttpMessageConverter.class
+                        ? new TracingJsonConverter(((MappingJackson2HttpMessageConverter) converter).getObjectMapper(), tracer)
+                        : converter);
+    }
+
+    /**
+     * Advisory vznikají dříve než ostatní beany; komponenta trasování
+     * se proto získává až při prvním volání, aby ji zpracovaly všechny
+     * BeanPostProcessory.
+     */
+    private static Advisor advisor(Pointcut pointcut, ObjectProvider<Tracer> tracer, int order) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new TracingMethodInterceptor(tracer));
+        advisor.setOrder(order);
+        return advisor;
+    }
+
+    /**
+     * Jackson konvertor se spanem kolem serializace těla odpovědi.
+     */
+    private static class TracingJsonConverter extends MappingJackson2HttpMessageConverter {
+
+        private final Tracer tracer;
+
+        TracingJsonConverter(ObjectMapper objectMapper, Tracer tracer) {
+            super(objectMapper);
+            this.tracer = tracer;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+
+            if (!tracer.isTracing()) {
+                super.writeInternal(object, type, outputMessage);
+                return;
+            }
+
+            try (Tracer.Scope span = tracer.startSpan("Jackson.write")) {
+                super.writeInternal(object, type, outputMessage);
+            }
+        }
+    }
+}
@@ -1,36 +1,47 @@
 package cz.itnetwork.controller;
 
 import cz.itnetwork.dto.user.*;
-import cz.itnetwork.entity.Role;
 import cz.itnetwork.entity.User;
 import cz.itnetwork.entity.repository.UserRepository;
 import cz.itnetwork.security.GoogleTokenVerifier;
 import cz.itnetwork.security.JwtUtil;
+import cz.itnetwork.security.PasswordHashingService;
+import cz.itnetwork.security.TokenRevocationService;
 import cz.itnetwork.service.User.UserService;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller zajišťující autentizační operace aplikace.
- * Obsahuje endpointy pro registraci, přihlášení a OAuth autentizaci.
+ * Obsahuje endpointy pro registraci, přihlášení, odhlášení a OAuth autentizaci.
+ *
+ * Hashování a ověřování hesel probíhá asynchronně na omezeném executoru,
+ * vlákno požadavku se po odeslání hesla k ověření uvolní.
  */
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
     private final GoogleTokenVerifier googleTokenVerifier;
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
 
     // ============================================
     //   1) KLASICKÁ REGISTRACE
@@ -43,36 +54,28 @@ public class AuthController {
      *            (email, heslo, jméno, příjmení, telefon)
      * @return ResponseEntity s informací o úspěchu registrace
      *         nebo chybovým stavem při neplatných datech či existujícím uživateli
+     * @throws RejectedExecutionException pokud je fronta hashování plná (HTTP 503)
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody UserAuthDTO dto) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody UserAuthDTO dto) {
 
         if (dto == null ||
                 dto.getEmail() == null || dto.getEmail().isBlank() ||
                 dto.getPassword() == null || dto.getPassword().isBlank()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("error", "Neplatná vstupní data"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Neplatná vstupní data")));
         }
 
         if (userRepository.existsByEmail(dto.getEmail())) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("error", "Uživatel s tímto emailem už existuje"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Uživatel s tímto emailem už existuje")));
         }
 
-        User user = User.builder()
-                .email(dto.getEmail())
-                .password(passwordEncoder.encode(dto.getPassword()))
-                .firstName(dto.getFirstName())
-                .lastName(dto.getLastName())
-                .phone(dto.getPhone())
-                .enabled(true)
-                .role(Role.ROLE_USER)
-                .oauthUser(false)
-                .build();
-
-        userRepository.save(user);
-
-        return ResponseEntity.ok(Map.of("message", "Registrace proběhla úspěšně"));
+        return passwordHashingService.encode(dto.getPassword())
+                .thenApply(passwordHash -> {
+                    userService.register(dto, passwordHash);
+                    return ResponseEntity.ok(Map.of("message", "Registrace proběhla úspěšně"));
+                });
     }
 
     // ============================================
@@ -86,31 +89,73 @@ public class AuthController {
      *            (email a heslo)
      * @return ResponseEntity obsahující JWT token a základní údaje o uživateli
      *         nebo chybový stav při neplatných přihlašovacích údajích
+     * @throws RejectedExecutionException pokud je fronta hashování plná (HTTP 503)
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginDTO dto) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginDTO dto) {
 
         if (dto == null ||
                 dto.getEmail() == null || dto.getEmail().isBlank() ||
                 dto.getPassword() == null || dto.getPassword().isBlank()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("error", "Neplatná vstupní data"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Neplatná vstupní data")));
         }
 
         User user = userRepository.findByEmail(dto.getEmail())
                 .orElse(null);
 
-        if (user == null || user.getPassword() == null ||
-                !passwordEncoder.matches(dto.getPassword(), user.getPassword())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Neplatný email nebo heslo"));
+        if (user == null || user.getPassword() == null) {
+            return CompletableFuture.completedFuture(invalidCredentials());
         }
 
+        return passwordHashingService.matches(dto.getPassword(), user.getPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        return invalidCredentials();
+                    }
+                    rehashIfNeeded(user, dto.getPassword());
+                    return loginResponse(user);
+                });
+    }
+
+    private static ResponseEntity<?> invalidCredentials() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("error", "Neplatný email nebo heslo"));
+    }
+
+    /**
+     * Přehashování hesla, pokud byl uložený hash vytvořen s jiným
+     * cost faktorem, než je aktuálně nakonfigurovaný.
+     *
+     * Probíhá na pozadí a nezdržuje odpověď. Pokud je fronta hashování
+     * plná, přehashování se provede při některém z dalších přihlášení.
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
+
+        try {
+            passwordHashingService.encode(rawPassword)
+                    .thenAccept(passwordHash -> userService.updatePasswordHash(user.getId(), passwordHash))
+                    .exceptionally(e -> {
+                        log.warn("Přehashování hesla uživatele {} selhalo: {}", user.getId(), e.getMessage());
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            log.debug("Přehashování hesla uživatele {} odloženo, fronta je plná", user.getId());
+        }
+    }
+
+    private ResponseEntity<?> loginResponse(User user) {
+
         UserDetails userDetails =
                 org.springframework.security.core.userdetails.User
                         .withUsername(user.getEmail())
                         .password(user.getPassword())
                         .roles(user.getRole().name().replace("ROLE_", ""))
+                        .disabled(!Boolean.TRUE.equals(user.getEnabled()))
                         .build();
 
         String token = jwtUtil.generateToken(userDetails);
@@ -164,6 +209,7 @@ public class AuthController {
                         .withUsername(user.getEmail())
                         .password("")
                         .roles(user.getRole().name().replace("ROLE_", ""))
+                        .disabled(!Boolean.TRUE.equals(user.getEnabled()))
                         .build();
 
         String token = jwtUtil.generateToken(userDetails);
@@ -179,4 +225,31 @@ public class AuthController {
                 )
         );
     }
+
+    // ============================================
+    //   4) ODHLÁŠENÍ
+    // ============================================
+
+    /**
+     * Odhlášení uživatele – odvolání JWT tokenu z hlavičky Authorization.
+     *
+     * Neplatný nebo chybějící token není třeba odvolávat,
+     * odpověď je proto vždy 204.
+     *
+     * @param header hodnota hlavičky Authorization ("Bearer <token>")
+     * @return prázdná odpověď
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String header) {
+
+        if (header != null && header.startsWith("Bearer ")) {
+            try {
+                tokenRevocationService.revokeToken(jwtUtil.parseToken(header.substring(7)));
+            } catch (JwtException | IllegalArgumentException e) {
+                // Neplatný token už k ničemu neopravňuje
+            }
+        }
+
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,10 +1,17 @@
 package cz.itnetwork.controller;
 
+import cz.itnetwork.cache.ResponseBodyCache;
+import cz.itnetwork.datasource.StatementTimeout;
 import cz.itnetwork.dto.Invoice.InvoiceDTO;
 import cz.itnetwork.dto.Invoice.InvoiceStatisticsDTO;
 import cz.itnetwork.service.Invoice.InvoiceService;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -20,6 +27,7 @@ import java.util.List;
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
+    private final ResponseBodyCache responseBodyCache;
 
     /**
      * Načtení seznamu faktur s možností filtrování.
@@ -57,12 +65,29 @@ public class InvoiceController {
         return invoiceService.getAll(buyerName, sellerName, minPrice, maxPrice, limit);
     }
 
+    /**
+     * Načtení detailu faktury.
+     *
+     * Odpověď je zapsána přímo z cache serializovaných odpovědí,
+     * při výpadku se faktura načte, serializuje a uloží do cache.
+     *
+     * @param id             identifikátor faktury
+     * @param acceptEncoding podporovaná kódování odpovědi klienta
+     * @return JSON detail faktury (případně zkomprimovaný gzipem)
+     */
     @GetMapping("/{id}")
-    public InvoiceDTO getById(@PathVariable Integer id) {
+    @ApiResponse(responseCode = "200",
+            content = @Content(schema = @Schema(implementation = InvoiceDTO.class)))
+    public ResponseEntity<byte[]> getById(
+            @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("Neplatné ID faktury");
         }
-        return invoiceService.getById(id);
+        return responseBodyCache
+                .invoice(id, () -> invoiceService.getById(id))
+                .toResponse(acceptEncoding);
     }
 
     @PostMapping
@@ -95,6 +120,7 @@ public class InvoiceController {
     }
 
     @GetMapping("/statistics")
+    @StatementTimeout("${datasource.endpoint-timeout.statistics:10s}")
     public InvoiceStatisticsDTO getInvoiceStatistics() {
         return invoiceService.getInvoiceStatistics();
     }
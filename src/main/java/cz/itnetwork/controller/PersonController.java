@@ -1,11 +1,18 @@
 package cz.itnetwork.controller;
 
+import cz.itnetwork.cache.ResponseBodyCache;
+import cz.itnetwork.datasource.StatementTimeout;
 import cz.itnetwork.dto.Invoice.InvoiceReadDTO;
 import cz.itnetwork.dto.Person.PersonDTO;
 import cz.itnetwork.dto.Person.PersonStatisticsDTO;
 import cz.itnetwork.service.Person.PersonService;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -20,6 +27,7 @@ import java.util.List;
 public class PersonController {
 
     private final PersonService personService;
+    private final ResponseBodyCache responseBodyCache;
 
     /**
      * Načtení seznamu všech osob evidovaných v systému.
@@ -34,18 +42,28 @@ public class PersonController {
     /**
      * Načtení detailu konkrétní osoby podle jejího identifikátoru.
      *
-     * @param id identifikátor osoby
-     * @return datový přenosový objekt reprezentující osobu
+     * Odpověď je zapsána přímo z cache serializovaných odpovědí.
+     *
+     * @param id             identifikátor osoby
+     * @param acceptEncoding podporovaná kódování odpovědi klienta
+     * @return JSON detail osoby (případně zkomprimovaný gzipem)
      */
     @GetMapping("/{id}")
-    public PersonDTO getById(@PathVariable Integer id) {
+    @ApiResponse(responseCode = "200",
+            content = @Content(schema = @Schema(implementation = PersonDTO.class)))
+    public ResponseEntity<byte[]> getById(
+            @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
 
         // Validace identifikátoru – ochrana proti neplatným hodnotám
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("Neplatné ID osoby");
         }
 
-        return personService.getById(id);
+        return responseBodyCache
+                .person(id, () -> personService.getById(id))
+                .toResponse(acceptEncoding);
     }
 
     /**
@@ -141,6 +159,7 @@ public class PersonController {
      * @return seznam statistických dat o osobách
      */
     @GetMapping("/statistics")
+    @StatementTimeout("${datasource.endpoint-timeout.statistics:10s}")
     public List<PersonStatisticsDTO> getPersonStatistics() {
         return personService.getPersonStatistics();
     }
@@ -154,6 +173,7 @@ public class PersonController {
      * @return seznam odpovídajících osob
      */
     @GetMapping("/search")
+    @StatementTimeout("${datasource.endpoint-timeout.search:2s}")
     public List<PersonDTO> searchPersons(@RequestParam String query) {
 
         if (query == null || query.isBlank()) {
@@ -0,0 +1,91 @@
+package cz.itnetwork.controller.admin;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import cz.itnetwork.cache.HotKeyTracker;
+import cz.itnetwork.cache.ResponseBodyCache;
+import cz.itnetwork.cache.SecondLevelCacheStatistics;
+import cz.itnetwork.dto.admin.CacheRegionStatisticsDTO;
+import cz.itnetwork.dto.admin.HotKeyDTO;
+import cz.itnetwork.dto.admin.ResponseCacheStatisticsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Administrátorský REST controller pro sledování cache.
+ * Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+public class CacheStatisticsController {
+
+    private final SecondLevelCacheStatistics secondLevelCacheStatistics;
+    private final ResponseBodyCache responseBodyCache;
+    private final HotKeyTracker hotKeyTracker;
+
+    /**
+     * Úspěšnost jednotlivých regionů second-level cache Hibernate.
+     *
+     * @return statistiky regionů
+     */
+    @GetMapping("/regions")
+    public List<CacheRegionStatisticsDTO> getRegionStatistics() {
+        return secondLevelCacheStatistics.getRegionStatistics();
+    }
+
+    /**
+     * Obsazenost a úspěšnost cache serializovaných odpovědí.
+     *
+     * @return statistiky cache odpovědí
+     */
+    @GetMapping("/responses")
+    public ResponseCacheStatisticsDTO getResponseCacheStatistics() {
+
+        CacheStats stats = responseBodyCache.stats();
+
+        return ResponseCacheStatisticsDTO.builder()
+                .entries(responseBodyCache.estimatedSize())
+                .weightedBytes(responseBodyCache.weightedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .evictionCount(stats.evictionCount())
+                .hitRatio(stats.hitRate())
+                .pinnedKeys(responseBodyCache.pinnedCount())
+                .build();
+    }
+
+    /**
+     * Nejčastěji čtené faktury, osoby nebo IČO podle odhadu
+     * count-min sketche.
+     *
+     * @param type  druh klíče (INVOICE, PERSON nebo ICO)
+     * @param limit maximální počet klíčů
+     * @return klíče seřazené od nejčastějšího
+     */
+    @GetMapping("/hot-keys")
+    public List<HotKeyDTO> getHotKeys(
+            @RequestParam(defaultValue = "INVOICE") HotKeyTracker.KeyType type,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit musí být kladný");
+        }
+
+        List<HotKeyDTO> hotKeys = hotKeyTracker.getHotKeys(type, limit);
+
+        for (HotKeyDTO hotKey : hotKeys) {
+            if (type == HotKeyTracker.KeyType.INVOICE) {
+                hotKey.setCached(responseBodyCache.containsInvoice(Integer.valueOf(hotKey.getKey())));
+            } else if (type == HotKeyTracker.KeyType.PERSON) {
+                hotKey.setCached(responseBodyCache.containsPerson(Integer.valueOf(hotKey.getKey())));
+            }
+        }
+
+        return hotKeys;
+    }
+}
@@ -0,0 +1,48 @@
+package cz.itnetwork.controller.admin;
+
+import cz.itnetwork.datasource.ConnectionPoolMetrics;
+import cz.itnetwork.datasource.StatementCancellation;
+import cz.itnetwork.dto.admin.ConnectionPoolStatisticsDTO;
+import cz.itnetwork.dto.admin.StatementCancellationStatisticsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Administrátorský REST controller pro sledování connection poolů
+ * interaktivní a reportovací zátěže a rušení SQL příkazů.
+ * Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/datasource")
+@RequiredArgsConstructor
+public class ConnectionPoolController {
+
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+
+    private final StatementCancellation statementCancellation;
+
+    /**
+     * Stav poolů a doby čekání na spojení.
+     *
+     * @return statistiky jednotlivých poolů
+     */
+    @GetMapping("/pools")
+    public List<ConnectionPoolStatisticsDTO> getPools() {
+        return connectionPoolMetrics.getStatistics();
+    }
+
+    /**
+     * Počty SQL příkazů zrušených po uplynutí lhůty endpointu
+     * nebo po odpojení klienta.
+     *
+     * @return statistiky rušení příkazů
+     */
+    @GetMapping("/cancellations")
+    public StatementCancellationStatisticsDTO getCancellations() {
+        return statementCancellation.getStatistics();
+    }
+}
@@ -0,0 +1,31 @@
+package cz.itnetwork.controller.admin;
+
+import cz.itnetwork.dto.admin.EventLogStatisticsDTO;
+import cz.itnetwork.logging.AsyncEventLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Administrátorský REST controller pro sledování asynchronního logu
+ * požadavků a SQL. Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/event-log")
+@RequiredArgsConstructor
+public class EventLogController {
+
+    private final AsyncEventLog asyncEventLog;
+
+    /**
+     * Zaplnění bufferu, počet zapsaných a zahozených záznamů
+     * a vzorkovací frekvence.
+     *
+     * @return statistiky logu
+     */
+    @GetMapping
+    public EventLogStatisticsDTO getStatistics() {
+        return asyncEventLog.getStatistics();
+    }
+}
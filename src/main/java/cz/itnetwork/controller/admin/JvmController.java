@@ -0,0 +1,49 @@
+package cz.itnetwork.controller.admin;
+
+import cz.itnetwork.dto.admin.JvmMemoryDTO;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+
+/**
+ * Administrátorský REST controller pro sledování haldy a garbage collectoru
+ * (např. zátěžovým testem před a po měření). Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/jvm")
+public class JvmController {
+
+    /**
+     * Aktuální obsazení haldy a kumulativní počet a doba běhů GC.
+     *
+     * @return stav paměti JVM
+     */
+    @GetMapping("/memory")
+    public JvmMemoryDTO getMemory() {
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+
+        long collections = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // Hodnota -1 znamená, že collector údaj neposkytuje
+            collections += Math.max(collector.getCollectionCount(), 0);
+            gcTime += Math.max(collector.getCollectionTime(), 0);
+        }
+
+        return JvmMemoryDTO.builder()
+                .heapUsedBytes(heap.getUsed())
+                .heapCommittedBytes(heap.getCommitted())
+                .heapMaxBytes(heap.getMax())
+                .nonHeapUsedBytes(memory.getNonHeapMemoryUsage().getUsed())
+                .gcCollections(collections)
+                .gcTimeMillis(gcTime)
+                .build();
+    }
+}
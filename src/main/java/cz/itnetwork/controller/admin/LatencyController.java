@@ -0,0 +1,40 @@
+package cz.itnetwork.controller.admin;
+
+import cz.itnetwork.dto.admin.RouteLatencyDTO;
+import cz.itnetwork.logging.RouteLatencyHistograms;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Administrátorský REST controller pro sledování latence jednotlivých endpointů.
+ * Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/latency")
+@RequiredArgsConstructor
+public class LatencyController {
+
+    private final RouteLatencyHistograms routeLatencyHistograms;
+
+    /**
+     * Percentily doby zpracování podle cesty, metody a třídy stavového kódu.
+     *
+     * @param window délka klouzavého okna (např. 1m, 5m nebo PT30S)
+     * @return statistiky latence
+     */
+    @GetMapping
+    public List<RouteLatencyDTO> getLatency(@RequestParam(defaultValue = "1m") String window) {
+        Duration duration = DurationStyle.detectAndParse(window);
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Neplatná délka okna");
+        }
+        return routeLatencyHistograms.snapshot(duration);
+    }
+}
@@ -0,0 +1,31 @@
+package cz.itnetwork.controller.admin;
+
+import cz.itnetwork.dto.admin.LoadSheddingStatusDTO;
+import cz.itnetwork.loadshedding.LoadShedder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Administrátorský REST controller pro sledování adaptivního odmítání
+ * požadavků. Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/load-shedding")
+@RequiredArgsConstructor
+public class LoadSheddingController {
+
+    private final LoadShedder loadShedder;
+
+    /**
+     * Limity souběžnosti, pozorované čekání na spojení a počty
+     * přijatých a odmítnutých požadavků podle tříd.
+     *
+     * @return stav řízení zátěže
+     */
+    @GetMapping
+    public LoadSheddingStatusDTO getStatus() {
+        return loadShedder.getStatus();
+    }
+}
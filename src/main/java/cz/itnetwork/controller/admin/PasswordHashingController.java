@@ -0,0 +1,40 @@
+package cz.itnetwork.controller.admin;
+
+import cz.itnetwork.dto.admin.PasswordHashingStatisticsDTO;
+import cz.itnetwork.security.PasswordHashingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Administrátorský REST controller pro sledování executoru hashování hesel.
+ * Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/password-hashing")
+@RequiredArgsConstructor
+public class PasswordHashingController {
+
+    private final PasswordHashingService passwordHashingService;
+
+    /**
+     * Vytížení executoru: hloubka fronty, odmítnuté požadavky a latence hashování.
+     *
+     * @return statistiky executoru
+     */
+    @GetMapping
+    public PasswordHashingStatisticsDTO getStatistics() {
+        return PasswordHashingStatisticsDTO.builder()
+                .poolSize(passwordHashingService.getPoolSize())
+                .activeThreads(passwordHashingService.getActiveCount())
+                .queueDepth(passwordHashingService.getQueueDepth())
+                .queueCapacity(passwordHashingService.getQueueCapacity())
+                .completedCount(passwordHashingService.getCompletedCount())
+                .rejectedCount(passwordHashingService.getRejectedCount())
+                .averageHashMillis(passwordHashingService.getAverageHashMillis())
+                .maxHashMillis(passwordHashingService.getMaxHashMillis())
+                .averageQueueWaitMillis(passwordHashingService.getAverageQueueWaitMillis())
+                .build();
+    }
+}
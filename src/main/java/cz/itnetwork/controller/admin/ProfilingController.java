@@ -0,0 +1,101 @@
+package cz.itnetwork.controller.admin;
+
+import cz.itnetwork.dto.admin.FlightRecordingDTO;
+import cz.itnetwork.profiling.FlightRecordingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Administrátorský REST controller pro profilování aplikace
+ * pomocí Java Flight Recorderu. Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/profiling/recordings")
+@RequiredArgsConstructor
+public class ProfilingController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    /**
+     * Spuštění časově omezeného záznamu JFR.
+     *
+     * @param duration doba záznamu (např. 30s, 2m nebo PT30S)
+     * @param profile  nastavení JFR – "default" (nízká režie) nebo "profile"
+     * @return spuštěný záznam, nebo HTTP 409, pokud již jiný záznam běží
+     */
+    @PostMapping
+    public ResponseEntity<?> start(@RequestParam(defaultValue = "30s") String duration,
+                                   @RequestParam(defaultValue = "profile") String profile) {
+
+        Duration parsed = DurationStyle.detectAndParse(duration);
+        Optional<FlightRecordingDTO> recording = flightRecordingService.start(parsed, profile);
+
+        if (recording.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Jiný záznam JFR právě běží"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(recording.get());
+    }
+
+    /**
+     * Uchovávané záznamy od nejnovějšího.
+     *
+     * @return záznamy bez souhrnu
+     */
+    @GetMapping
+    public List<FlightRecordingDTO> getAll() {
+        return flightRecordingService.getAll();
+    }
+
+    /**
+     * Stav záznamu a po jeho dokončení souhrn: nejvytíženější metody,
+     * místa alokací, čekání na zámky a pauzy GC.
+     *
+     * @param id identifikátor záznamu
+     * @return záznam
+     */
+    @GetMapping("/{id}")
+    public FlightRecordingDTO get(@PathVariable long id) {
+        return flightRecordingService.get(id);
+    }
+
+    /**
+     * Stažení souboru .jfr dokončeného záznamu
+     * (např. pro JDK Mission Control nebo příkaz jfr).
+     *
+     * @param id identifikátor záznamu
+     * @return soubor záznamu, HTTP 409, pokud záznam ještě běží,
+     * nebo HTTP 404, pokud záznam neexistuje nebo byl vyřazen
+     */
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> download(@PathVariable long id) {
+
+        Optional<FlightRecordingService.RecordingDownload> file = flightRecordingService.openFile(id);
+        if (file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        // Soubor je už otevřený – proud po zápisu zavře konvertor odpovědi
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(file.get().size())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(file.get().fileName())
+                        .build()
+                        .toString())
+                .body(new InputStreamResource(file.get().stream()));
+    }
+}
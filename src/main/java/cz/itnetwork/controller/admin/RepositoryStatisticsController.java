@@ -0,0 +1,44 @@
+package cz.itnetwork.controller.admin;
+
+import cz.itnetwork.dto.admin.RepositoryMethodStatisticsDTO;
+import cz.itnetwork.dto.admin.SlowQueryDTO;
+import cz.itnetwork.logging.RepositoryInstrumentation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Administrátorský REST controller pro sledování dotazů do databáze.
+ * Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/repositories")
+@RequiredArgsConstructor
+public class RepositoryStatisticsController {
+
+    private final RepositoryInstrumentation repositoryInstrumentation;
+
+    /**
+     * Počet volání, doba trvání a počet řádků jednotlivých metod repository
+     * včetně endpointů, ze kterých byly volány.
+     *
+     * @return statistiky metod repository
+     */
+    @GetMapping
+    public List<RepositoryMethodStatisticsDTO> getMethodStatistics() {
+        return repositoryInstrumentation.getMethodStatistics();
+    }
+
+    /**
+     * Poslední pomalá volání s parametry, SQL a případně plánem dotazu.
+     *
+     * @return pomalé dotazy od nejnovějšího
+     */
+    @GetMapping("/slow")
+    public List<SlowQueryDTO> getSlowQueries() {
+        return repositoryInstrumentation.getSlowQueries();
+    }
+}
@@ -0,0 +1,36 @@
+package cz.itnetwork.controller.admin;
+
+import cz.itnetwork.dto.admin.ThreadingStatusDTO;
+import cz.itnetwork.profiling.VirtualThreadPinningMonitor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Administrátorský REST controller pro sledování režimu vláken
+ * a přišpendlení virtuálních vláken. Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/threads")
+@RequiredArgsConstructor
+public class ThreadingController {
+
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    /**
+     * Režim vláken (platformová / virtuální) a místa, na kterých
+     * virtuální vlákna blokovala přišpendlená k nosnému vláknu.
+     *
+     * @param limit maximální počet míst
+     * @return stav vláken s místy seřazenými podle celkové doby přišpendlení
+     */
+    @GetMapping
+    public ThreadingStatusDTO getStatus(@RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Neplatný počet míst");
+        }
+        return pinningMonitor.getStatus(limit);
+    }
+}
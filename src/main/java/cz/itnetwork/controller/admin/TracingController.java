@@ -0,0 +1,40 @@
+package cz.itnetwork.controller.admin;
+
+import cz.itnetwork.dto.admin.TraceDTO;
+import cz.itnetwork.logging.Tracer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Administrátorský REST controller pro prohlížení zaznamenaných tras
+ * požadavků. Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/traces")
+@RequiredArgsConstructor
+public class TracingController {
+
+    private final Tracer tracer;
+
+    /**
+     * Nejpomalejší z nedávno zaznamenaných tras jako vodopád spanů
+     * (controller, služba, mapper, repository, serializace).
+     *
+     * @param limit maximální počet tras
+     * @param route volitelný filtr podle názvu trasy (např. /api/invoices)
+     * @return trasy seřazené od nejpomalejší
+     */
+    @GetMapping
+    public List<TraceDTO> getSlowestTraces(@RequestParam(defaultValue = "10") int limit,
+                                           @RequestParam(required = false) String route) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Neplatný počet tras");
+        }
+        return tracer.getSlowestTraces(limit, route);
+    }
+}
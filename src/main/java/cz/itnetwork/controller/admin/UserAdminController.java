@@ -0,0 +1,49 @@
+package cz.itnetwork.controller.admin;
+
+import cz.itnetwork.entity.Role;
+import cz.itnetwork.service.User.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Administrátorský REST controller pro správu přístupu uživatelů.
+ * Přístupný pouze uživatelům s rolí ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+public class UserAdminController {
+
+    private final UserService userService;
+
+    /**
+     * Aktivace nebo deaktivace uživatelského účtu.
+     *
+     * @param id      identifikátor uživatele
+     * @param enabled true pro aktivní účet, false pro deaktivovaný
+     */
+    @PutMapping("/{id}/enabled")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void setEnabled(@PathVariable Integer id, @RequestParam boolean enabled) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Neplatné ID uživatele");
+        }
+        userService.setEnabled(id, enabled);
+    }
+
+    /**
+     * Změna role uživatele.
+     *
+     * @param id   identifikátor uživatele
+     * @param role nová role uživatele
+     */
+    @PutMapping("/{id}/role")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void changeRole(@PathVariable Integer id, @RequestParam Role role) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Neplatné ID uživatele");
+        }
+        userService.changeRole(id, role);
+    }
+}
@@ -7,10 +7,12 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.webjars.NotFoundException;
 
+import java.util.NoSuchElementException;
+
 @ControllerAdvice
 public class EntityNotFoundExceptionAdvice {
 
-    @ExceptionHandler({NotFoundException.class, EntityNotFoundException.class})
+    @ExceptionHandler({NotFoundException.class, EntityNotFoundException.class, NoSuchElementException.class})
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public void handleEntityNotFoundException() {
     }
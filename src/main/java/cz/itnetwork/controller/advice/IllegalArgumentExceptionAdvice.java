@@ -0,0 +1,25 @@
+package cz.itnetwork.controller.advice;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.Map;
+
+/**
+ * Neplatný vstup klienta (např. neexistující nebo skrytá osoba faktury,
+ * neplatná doba či limit v administrátorských endpointech) se hlásí
+ * jako 400 se zprávou výjimky.
+ */
+@ControllerAdvice
+public class IllegalArgumentExceptionAdvice {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException e) {
+        String message = e.getMessage() != null ? e.getMessage() : "Neplatný požadavek";
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", message));
+    }
+
+}
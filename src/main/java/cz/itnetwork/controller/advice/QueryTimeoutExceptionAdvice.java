@@ -0,0 +1,26 @@
+package cz.itnetwork.controller.advice;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.Map;
+
+/**
+ * Dotaz zrušený po překročení časového limitu (limit poolu nebo lhůta
+ * endpointu) se klientovi hlásí jako 503 s doporučenou prodlevou.
+ */
+@ControllerAdvice
+public class QueryTimeoutExceptionAdvice {
+
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<Map<String, String>> handleQueryTimeoutException() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", "Dotaz nestihl doběhnout v časovém limitu, zkuste to prosím znovu"));
+    }
+
+}
@@ -0,0 +1,26 @@
+package cz.itnetwork.controller.advice;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Přetížený executor (např. plná fronta hashování hesel)
+ * se klientovi hlásí okamžitě jako 503 s doporučenou prodlevou.
+ */
+@ControllerAdvice
+public class RejectedExecutionExceptionAdvice {
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> handleRejectedExecutionException() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Služba je dočasně přetížena, zkuste to prosím znovu"));
+    }
+
+}
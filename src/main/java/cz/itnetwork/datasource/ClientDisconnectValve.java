@@ -0,0 +1,159 @@
+package cz.itnetwork.datasource;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.apache.catalina.connector.ClientAbortException;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+/**
+ * Tomcat valve otevírající kontext StatementCancellation pro každý
+ * požadavek na /api/**.
+ *
+ * Odpojení klienta se zjišťuje na vlákně požadavku: odpověď se aplikaci
+ * předá obalená a selže-li zápis do jejího výstupního proudu
+ * (ClientAbortException), kontext se označí jako odpojený a další příkazy
+ * požadavku se odmítnou.
+ *
+ * Dotaz, který právě běží, se po odpojení klienta nezruší. Blokující
+ * konektor Tomcatu během synchronního zpracování ze spojení nečte
+ * a o jeho uzavření nedává žádné podporované upozornění (ani
+ * AsyncListener, který se o něm dozví také až při zápisu). Dotazovat se
+ * na stav soketu z jiného vlákna Coyote nepodporuje a klienta, který
+ * posílá další požadavek (HTTP pipelining) nebo zavřel jen svou stranu
+ * spojení, by nešlo odlišit od odpojeného. Běžící dotaz tak omezuje jen
+ * lhůta endpointu (StatementTimeout).
+ *
+ * Cesta se porovnává dekódovaná a bez kontextové cesty aplikace,
+ * stejně jako v LoadSheddingFilter.
+ */
+public class ClientDisconnectValve extends ValveBase {
+
+    private static final String API_PATH = "/api/";
+
+    private final StatementCancellation statementCancellation;
+
+    public ClientDisconnectValve(StatementCancellation statementCancellation) {
+        super(true);
+        this.statementCancellation = statementCancellation;
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+
+        if (!UrlPathHelper.defaultInstance.getPathWithinApplication(request).startsWith(API_PATH)) {
+            getNext().invoke(request, response);
+            return;
+        }
+
+        StatementCancellation.Context context = statementCancellation.open();
+        try {
+            response.setResponse(new DisconnectAwareResponse(response.getResponse(), context));
+            getNext().invoke(request, response);
+        } finally {
+            statementCancellation.close(context);
+        }
+    }
+
+    /**
+     * Odpověď, jejíž výstupní proud hlásí neúspěšný zápis kontextu požadavku.
+     */
+    private static class DisconnectAwareResponse extends HttpServletResponseWrapper {
+
+        private final StatementCancellation.Context context;
+
+        private ServletOutputStream outputStream;
+
+        DisconnectAwareResponse(HttpServletResponse response, StatementCancellation.Context context) {
+            super(response);
+            this.context = context;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new DisconnectAwareOutputStream(super.getOutputStream(), context);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            try {
+                super.flushBuffer();
+            } catch (ClientAbortException e) {
+                context.clientDisconnected();
+                throw e;
+            }
+        }
+    }
+
+    private static class DisconnectAwareOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        private final StatementCancellation.Context context;
+
+        DisconnectAwareOutputStream(ServletOutputStream delegate, StatementCancellation.Context context) {
+            this.delegate = delegate;
+            this.context = context;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            try {
+                delegate.write(b);
+            } catch (ClientAbortException e) {
+                context.clientDisconnected();
+                throw e;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                delegate.write(b, off, len);
+            } catch (ClientAbortException e) {
+                context.clientDisconnected();
+                throw e;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            try {
+                delegate.flush();
+            } catch (ClientAbortException e) {
+                context.clientDisconnected();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } catch (ClientAbortException e) {
+                context.clientDisconnected();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
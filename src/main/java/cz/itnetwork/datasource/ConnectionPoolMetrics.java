@@ -0,0 +1,176 @@
+package cz.itnetwork.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import cz.itnetwork.dto.admin.ConnectionPoolStatisticsDTO;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metriky connection poolů jednotlivých druhů zátěže.
+ *
+ * HikariCP předává každé vydání spojení s dobou čekání na něj, dobu
+ * držení spojení a vypršení čekání (connection-timeout). Doby čekání
+ * se ukládají do histogramu v mikrosekundách, aktuální stav poolu
+ * (aktivní, volná a čekající vlákna) se čte z MXBeanu poolu.
+ */
+@Component
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<String, PoolMetrics> pools = new ConcurrentSkipListMap<>();
+
+    /**
+     * Zařazení poolu do sledování. Volá se před prvním vydáním
+     * spojení, kdy pool ještě není spuštěn.
+     *
+     * @param dataSource       pool
+     * @param statementTimeout časový limit příkazů poolu (null bez limitu)
+     */
+    public void register(HikariDataSource dataSource, Duration statementTimeout) {
+        pools.put(dataSource.getPoolName(), new PoolMetrics(dataSource, statementTimeout));
+        dataSource.setMetricsTrackerFactory(this);
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolMetrics metrics = pools.get(poolName);
+        if (metrics == null) {
+            throw new IllegalStateException("Pool " + poolName + " není zařazen do sledování");
+        }
+        return metrics;
+    }
+
+    /**
+     * Souhrnné počty vydaných spojení a doby čekání na ně od startu
+     * poolu; rozdíl dvou hodnot dává průměrné čekání za interval.
+     *
+     * @param workload druh zátěže (pool)
+     * @return součty čekání a počet vláken, která právě čekají
+     */
+    public WaitTotals getWaitTotals(Workload workload) {
+        PoolMetrics metrics = pools.get(workload.getPoolName());
+        return metrics != null ? metrics.waitTotals() : new WaitTotals(0, 0, 0);
+    }
+
+    /**
+     * @return stav a doby čekání všech sledovaných poolů
+     */
+    public List<ConnectionPoolStatisticsDTO> getStatistics() {
+        return pools.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .toList();
+    }
+
+    /**
+     * Součty čekání na spojení jednoho poolu.
+     *
+     * @param acquisitions   počet vydaných spojení
+     * @param waitNanos      celková doba čekání na ně
+     * @param pendingThreads vlákna, která právě čekají
+     */
+    public record WaitTotals(long acquisitions, long waitNanos, int pendingThreads) {
+    }
+
+    /**
+     * Metriky jednoho poolu.
+     */
+    private static class PoolMetrics implements IMetricsTracker {
+
+        private final HikariDataSource dataSource;
+
+        private final Duration statementTimeout;
+
+        private final Histogram waitMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+        private final LongAdder acquisitions = new LongAdder();
+
+        private final LongAdder waitNanos = new LongAdder();
+
+        private final LongAdder timeouts = new LongAdder();
+
+        private final LongAdder usageCount = new LongAdder();
+
+        private final LongAdder usageMillis = new LongAdder();
+
+        private final AtomicLong maxUsageMillis = new AtomicLong();
+
+        private final LongAdder connectionsCreated = new LongAdder();
+
+        PoolMetrics(HikariDataSource dataSource, Duration statementTimeout) {
+            this.dataSource = dataSource;
+            this.statementTimeout = statementTimeout;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquisitions.increment();
+            waitNanos.add(elapsedAcquiredNanos);
+            waitMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedAcquiredNanos), HIGHEST_TRACKABLE_MICROS));
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageCount.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+            maxUsageMillis.accumulateAndGet(elapsedBorrowedMillis, Math::max);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            connectionsCreated.increment();
+        }
+
+        WaitTotals waitTotals() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return new WaitTotals(acquisitions.sum(), waitNanos.sum(),
+                    pool != null ? pool.getThreadsAwaitingConnection() : 0);
+        }
+
+        ConnectionPoolStatisticsDTO toDto(String poolName) {
+
+            Histogram waits = waitMicros.copy();
+            long used = usageCount.sum();
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+
+            return ConnectionPoolStatisticsDTO.builder()
+                    .pool(poolName)
+                    .maximumPoolSize(dataSource.getMaximumPoolSize())
+                    .activeConnections(pool != null ? pool.getActiveConnections() : 0)
+                    .idleConnections(pool != null ? pool.getIdleConnections() : 0)
+                    .pendingThreads(pool != null ? pool.getThreadsAwaitingConnection() : 0)
+                    .connectionTimeoutMillis(dataSource.getConnectionTimeout())
+                    .statementTimeoutMillis(statementTimeout != null ? statementTimeout.toMillis() : null)
+                    .acquisitions(waits.getTotalCount())
+                    .timeouts(timeouts.sum())
+                    .connectionsCreated(connectionsCreated.sum())
+                    .waitMeanMillis(waits.getTotalCount() > 0 ? waits.getMean() / 1000.0 : 0.0)
+                    .waitP50Millis(waits.getValueAtPercentile(50) / 1000.0)
+                    .waitP99Millis(waits.getValueAtPercentile(99) / 1000.0)
+                    .waitMaxMillis(waits.getMaxValue() / 1000.0)
+                    .usageMeanMillis(used > 0 ? (double) usageMillis.sum() / used : 0.0)
+                    .usageMaxMillis(maxUsageMillis.get())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package cz.itnetwork.datasource;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+
+import java.sql.SQLException;
+
+/**
+ * Rozhodnutí HikariCP o vyřazení spojení po chybě SQL.
+ *
+ * HikariCP spojení vyřadí po každé SQLTimeoutException, kterou některé
+ * ovladače (např. H2) hlásí i zrušený příkaz. Příkaz zrušený časovým
+ * limitem nebo StatementCancellation (SQLSTATE 57014) spojení nepoškodí,
+ * transakci lze vrátit a spojení se vrátí do poolu.
+ */
+public class QueryCancellationExceptionOverride implements SQLExceptionOverride {
+
+    private static final String QUERY_CANCELED = "57014";
+
+    @java.lang.Override
+    public Override adjudicate(SQLException exception) {
+        return QUERY_CANCELED.equals(exception.getSQLState()) ? Override.DO_NOT_EVICT : Override.CONTINUE_EVICT;
+    }
+}
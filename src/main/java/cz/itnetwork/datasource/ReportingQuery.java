@@ -0,0 +1,23 @@
+package cz.itnetwork.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Označení metody služby nebo repository (případně celé třídy), jejíž
+ * dotazy patří do reportovací zátěže a mají běžet na vlastním
+ * connection poolu (viz WorkloadRoutingDataSource).
+ *
+ * Pool se volí v okamžiku, kdy si transakce vyžádá spojení. Metoda
+ * volaná uvnitř transakce, která už spojení drží, proto použije spojení
+ * této transakce – anotace patří na metodu služby, která transakci
+ * zahajuje, a na repository metody volané i mimo ni.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ReportingQuery {
+}
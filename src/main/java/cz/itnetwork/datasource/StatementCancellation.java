@@ -0,0 +1,316 @@
+package cz.itnetwork.datasource;
+
+import cz.itnetwork.dto.admin.StatementCancellationStatisticsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rušení rozpracovaných SQL příkazů požadavků, jejichž výsledek už
+ * nikdo nepřevezme.
+ *
+ * Každý požadavek na /api/** má kontext (viz ClientDisconnectValve),
+ * do kterého StatementTimeoutDataSource ukládá naposledy vytvořený
+ * příkaz. Samostatné vlákno kontexty periodicky prochází a příkaz, který
+ * právě běží, zruší (Statement.cancel), pokud uplynula lhůta endpointu
+ * (StatementTimeout). Zrušený dotaz uvolní spojení do poolu hned, ne až
+ * po svém doběhnutí; další příkazy zrušeného požadavku se odmítnou již
+ * při vytvoření.
+ *
+ * Odpojení klienta kontrolní vlákno nezjišťuje – ohlásí jej vlákno
+ * požadavku, jakmile selže zápis odpovědi (viz ClientDisconnectValve),
+ * a další příkazy požadavku se odmítnou. Dotaz, který právě běží,
+ * odpojení klienta nezruší.
+ */
+@Component
+public class StatementCancellation {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementCancellation.class);
+
+    private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Důvod zrušení příkazů požadavku.
+     */
+    public enum Reason {
+        DEADLINE, CLIENT_DISCONNECTED
+    }
+
+    private final Environment environment;
+
+    private final Set<Context> active = ConcurrentHashMap.newKeySet();
+
+    private final Map<Method, Duration> timeouts = new ConcurrentHashMap<>();
+
+    private final LongAdder deadlineCancellations = new LongAdder();
+
+    private final LongAdder disconnectedRequests = new LongAdder();
+
+    private final LongAdder rejectedStatements = new LongAdder();
+
+    @Value("${datasource.cancellation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${datasource.cancellation.check-interval:100ms}")
+    private Duration checkInterval;
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "statement-cancellation");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public StatementCancellation(Environment environment) {
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::check,
+                    checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * @return kontext požadavku zpracovávaného aktuálním vláknem, nebo null
+     */
+    public static Context current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Otevření kontextu požadavku na aktuálním vlákně.
+     *
+     * @return kontext, který je nutné uzavřít metodou close
+     */
+    public Context open() {
+        Context context = new Context();
+        CURRENT.set(context);
+        if (enabled) {
+            active.add(context);
+        }
+        return context;
+    }
+
+    /**
+     * Uzavření kontextu po dokončení požadavku. Po návratu už
+     * kontrolní vlákno příkazy požadavku nezruší.
+     *
+     * @param context kontext požadavku
+     */
+    public void close(Context context) {
+        active.remove(context);
+        context.close();
+        CURRENT.remove();
+    }
+
+    /**
+     * Provedení metody s anotací StatementTimeout. Lhůta se počítá
+     * od otevření kontextu požadavku; vnořená lhůta ji může jen zkrátit.
+     *
+     * @param invocation volání metody
+     * @return výsledek volání
+     * @throws Throwable výjimka volané metody
+     */
+    public Object proceed(MethodInvocation invocation) throws Throwable {
+
+        Context context = CURRENT.get();
+        boolean opened = context == null;
+        if (opened) {
+            context = open();
+        }
+
+        long previous = context.deadlineNanos;
+        long deadline = context.startNanos + timeout(invocation).toNanos();
+        if (previous == 0 || deadline - previous < 0) {
+            context.deadlineNanos = deadline;
+        }
+
+        try {
+            return invocation.proceed();
+        } finally {
+            if (opened) {
+                close(context);
+            } else {
+                context.deadlineNanos = previous;
+            }
+        }
+    }
+
+    /**
+     * @return počty zrušených a odmítnutých příkazů
+     */
+    public StatementCancellationStatisticsDTO getStatistics() {
+        return StatementCancellationStatisticsDTO.builder()
+                .enabled(enabled)
+                .checkIntervalMillis(checkInterval.toMillis())
+                .activeRequests(active.size())
+                .deadlineCancellations(deadlineCancellations.sum())
+                .disconnectedRequests(disconnectedRequests.sum())
+                .rejectedStatements(rejectedStatements.sum())
+                .build();
+    }
+
+    private Duration timeout(MethodInvocation invocation) {
+        return timeouts.computeIfAbsent(invocation.getMethod(), method -> {
+            Class<?> type = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : method.getDeclaringClass();
+            StatementTimeout annotation = AnnotatedElementUtils.findMergedAnnotation(
+                    AopUtils.getMostSpecificMethod(method, type), StatementTimeout.class);
+            if (annotation == null) {
+                annotation = AnnotatedElementUtils.findMergedAnnotation(type, StatementTimeout.class);
+            }
+            return DurationStyle.detectAndParse(environment.resolveRequiredPlaceholders(annotation.value()));
+        });
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        for (Context context : active) {
+            try {
+                if (context.check(now)) {
+                    deadlineCancellations.increment();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Kontrola rozpracovaného SQL příkazu selhala: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stav jednoho požadavku – lhůta, rozpracovaný příkaz a důvod zrušení.
+     */
+    public final class Context {
+
+        private final long startNanos = System.nanoTime();
+
+        /**
+         * Konec lhůty (System.nanoTime), 0 bez lhůty.
+         */
+        private volatile long deadlineNanos;
+
+        private volatile Statement statement;
+
+        private volatile Reason cancelled;
+
+        private boolean closed;
+
+        private Context() {
+        }
+
+        /**
+         * Zbývající čas do konce lhůty.
+         *
+         * @return nanosekundy do konce lhůty, nebo Long.MAX_VALUE bez lhůty
+         */
+        long remainingNanos() {
+            long deadline = deadlineNanos;
+            return deadline != 0 ? deadline - System.nanoTime() : Long.MAX_VALUE;
+        }
+
+        /**
+         * Zaevidování nově vytvořeného příkazu jako rozpracovaného.
+         *
+         * @param created vytvořený příkaz
+         * @throws SQLTimeoutException pokud byl požadavek zrušen nebo lhůta uplynula
+         */
+        void register(Statement created) throws SQLException {
+
+            Reason reason = cancelled;
+            if (reason == null && remainingNanos() <= 0) {
+                reason = Reason.DEADLINE;
+            }
+
+            if (reason != null) {
+                rejectedStatements.increment();
+                created.close();
+                throw new SQLTimeoutException(reason == Reason.DEADLINE
+                        ? "Vypršela lhůta databázových operací požadavku"
+                        : "Klient ukončil spojení, dotaz nebyl proveden", "57014");
+            }
+
+            statement = created;
+        }
+
+        /**
+         * Ohlášení odpojení klienta vláknem požadavku (neúspěšný zápis
+         * odpovědi). Další příkazy požadavku se odmítnou.
+         */
+        public synchronized void clientDisconnected() {
+
+            if (closed || cancelled != null) {
+                return;
+            }
+
+            cancelled = Reason.CLIENT_DISCONNECTED;
+            disconnectedRequests.increment();
+        }
+
+        /**
+         * Zrušení rozpracovaného příkazu po uplynutí lhůty.
+         *
+         * @return true, pokud byl příkaz zrušen
+         */
+        private synchronized boolean check(long now) {
+
+            Statement running = statement;
+            if (closed || cancelled != null || running == null || isClosed(running)) {
+                return false;
+            }
+
+            long deadline = deadlineNanos;
+            if (deadline == 0 || now - deadline < 0) {
+                return false;
+            }
+
+            cancelled = Reason.DEADLINE;
+            try {
+                running.cancel();
+                log.info("Zrušen rozpracovaný SQL příkaz požadavku po uplynutí lhůty");
+            } catch (SQLException e) {
+                log.warn("SQL příkaz se nepodařilo zrušit: {}", e.getMessage());
+            }
+            return true;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            statement = null;
+        }
+
+        private boolean isClosed(Statement running) {
+            try {
+                return running.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+    }
+}
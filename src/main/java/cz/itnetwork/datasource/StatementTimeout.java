@@ -0,0 +1,28 @@
+package cz.itnetwork.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Časový limit databázové práce endpointu (metody controlleru).
+ *
+ * Od začátku požadavku běží lhůta dané délky. Každý SQL příkaz dostane
+ * časový limit nejvýše do jejího konce, po jejím uplynutí
+ * StatementCancellation rozpracovaný příkaz zruší a další příkazy
+ * požadavku se už neprovedou. Limit poolu (datasource.*.statement-timeout)
+ * platí i nadále, uplatní se kratší z obou.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface StatementTimeout {
+
+    /**
+     * Délka lhůty (např. "10s"), může obsahovat zástupné symboly
+     * vlastností, např. "${datasource.endpoint-timeout.statistics:10s}".
+     */
+    String value();
+}
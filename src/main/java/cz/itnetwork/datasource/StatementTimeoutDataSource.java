@@ -0,0 +1,114 @@
+package cz.itnetwork.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Obal poolu, který každému vytvořenému příkazu (Statement,
+ * PreparedStatement, CallableStatement) nastaví časový limit.
+ *
+ * Limit vynucuje ovladač JDBC (PostgreSQL i H2 při jeho překročení
+ * příkaz na serveru zruší) a má přesnost na celé sekundy. Dotaz,
+ * kterému Hibernate nastaví vlastní limit (hint jakarta.persistence.query.timeout),
+ * použije ten.
+ *
+ * Běží-li příkaz v rámci požadavku se lhůtou (StatementTimeout), limit
+ * se zkrátí na zbývající čas lhůty a příkaz se zaeviduje v kontextu
+ * požadavku, aby jej StatementCancellation mohl zrušit.
+ */
+public class StatementTimeoutDataSource extends DelegatingDataSource {
+
+    private final int timeoutSeconds;
+
+    /**
+     * @param target  obalovaný pool
+     * @param timeout časový limit příkazu (zaokrouhlený nahoru na sekundy, 0 bez limitu)
+     */
+    public StatementTimeoutDataSource(DataSource target, Duration timeout) {
+        super(target);
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Časový limit příkazu nesmí být záporný");
+        }
+        this.timeoutSeconds = toSeconds(timeout.toNanos());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                StatementTimeoutDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> invoke(proxy, connection, method, args));
+    }
+
+    private Object invoke(Object proxy, Connection connection, Method method, Object[] args) throws Throwable {
+
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                break;
+        }
+
+        Object result;
+        try {
+            result = method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+
+        if (result instanceof Statement statement && isStatementFactory(method)) {
+            configure(statement);
+        }
+        return result;
+    }
+
+    private void configure(Statement statement) throws SQLException {
+
+        int timeout = timeoutSeconds;
+
+        StatementCancellation.Context context = StatementCancellation.current();
+        if (context != null) {
+            context.register(statement);
+            long remainingNanos = context.remainingNanos();
+            if (remainingNanos != Long.MAX_VALUE) {
+                int remaining = toSeconds(remainingNanos);
+                timeout = timeout > 0 ? Math.min(timeout, remaining) : remaining;
+            }
+        }
+
+        if (timeout > 0) {
+            statement.setQueryTimeout(timeout);
+        }
+    }
+
+    private static int toSeconds(long nanos) {
+        if (nanos <= 0) {
+            return 0;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L));
+    }
+
+    private static boolean isStatementFactory(Method method) {
+        String name = method.getName();
+        return name.equals("createStatement") || name.equals("prepareStatement") || name.equals("prepareCall");
+    }
+}
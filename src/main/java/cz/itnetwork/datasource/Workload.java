@@ -0,0 +1,30 @@
+package cz.itnetwork.datasource;
+
+/**
+ * Druh databázové zátěže, podle kterého se volí connection pool.
+ */
+public enum Workload {
+
+    /**
+     * Interaktivní dotazy a zápisy (detaily, přehledy, CRUD operace).
+     */
+    OLTP("oltp"),
+
+    /**
+     * Agregační a reportovací dotazy (statistiky, obraty).
+     */
+    REPORTING("reporting");
+
+    private final String poolName;
+
+    Workload(String poolName) {
+        this.poolName = poolName;
+    }
+
+    /**
+     * @return název connection poolu dané zátěže
+     */
+    public String getPoolName() {
+        return poolName;
+    }
+}
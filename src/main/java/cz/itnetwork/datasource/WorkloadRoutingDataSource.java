@@ -0,0 +1,54 @@
+package cz.itnetwork.datasource;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DataSource, který spojení vydává z poolu podle druhu zátěže
+ * aktuálního vlákna (výchozí je OLTP).
+ *
+ * Druh zátěže nastavuje advisor metod s anotací ReportingQuery před
+ * zahájením transakce, takže transakce reportu získá spojení
+ * z reportovacího poolu a nemůže vyčerpat spojení interaktivních požadavků.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @return druh zátěže aktuálního vlákna
+     */
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.OLTP;
+    }
+
+    /**
+     * Provedení volání metody s daným druhem zátěže; po jeho skončení
+     * se obnoví předchozí druh (vnořená volání).
+     *
+     * @param workload   druh zátěže
+     * @param invocation volání metody
+     * @return výsledek volání
+     * @throws Throwable výjimka volané metody
+     */
+    public static Object proceed(Workload workload, MethodInvocation invocation) throws Throwable {
+
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        try {
+            return invocation.proceed();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return current();
+    }
+}
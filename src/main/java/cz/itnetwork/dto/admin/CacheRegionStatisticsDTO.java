@@ -0,0 +1,23 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheRegionStatisticsDTO {
+
+    private String region;
+
+    private String type;
+
+    private Long hitCount;
+
+    private Long missCount;
+
+    private Long putCount;
+
+    private Double hitRatio;
+}
@@ -0,0 +1,52 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConnectionPoolStatisticsDTO {
+
+    private String pool;
+
+    private Integer maximumPoolSize;
+
+    private Integer activeConnections;
+
+    private Integer idleConnections;
+
+    /**
+     * Vlákna, která právě čekají na volné spojení.
+     */
+    private Integer pendingThreads;
+
+    private Long connectionTimeoutMillis;
+
+    /**
+     * Časový limit SQL příkazů poolu (null bez limitu).
+     */
+    private Long statementTimeoutMillis;
+
+    private Long acquisitions;
+
+    /**
+     * Požadavky na spojení, které nebyly obslouženy do connection-timeout.
+     */
+    private Long timeouts;
+
+    private Long connectionsCreated;
+
+    private Double waitMeanMillis;
+
+    private Double waitP50Millis;
+
+    private Double waitP99Millis;
+
+    private Double waitMaxMillis;
+
+    private Double usageMeanMillis;
+
+    private Long usageMaxMillis;
+}
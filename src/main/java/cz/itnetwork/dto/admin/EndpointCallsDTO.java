@@ -0,0 +1,17 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EndpointCallsDTO {
+
+    private String endpoint;
+
+    private Long count;
+
+    private Double averageMillis;
+}
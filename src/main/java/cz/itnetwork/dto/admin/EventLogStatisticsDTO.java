@@ -0,0 +1,25 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventLogStatisticsDTO {
+
+    private Boolean enabled;
+
+    private Integer capacity;
+
+    private Integer queued;
+
+    private Long written;
+
+    private Long dropped;
+
+    private Double accessSampleRate;
+
+    private Double sqlSampleRate;
+}
@@ -0,0 +1,29 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightRecordingDTO {
+
+    private Long id;
+
+    private String profile;
+
+    private String state;
+
+    private Instant startedAt;
+
+    private Long durationSeconds;
+
+    private Long fileSizeBytes;
+
+    private String error;
+
+    private ProfileSummaryDTO summary;
+}
@@ -0,0 +1,23 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GcPauseDTO {
+
+    private Instant timestamp;
+
+    private String collector;
+
+    private String cause;
+
+    private Double longestPauseMillis;
+
+    private Double totalPauseMillis;
+}
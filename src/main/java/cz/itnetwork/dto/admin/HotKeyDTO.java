@@ -0,0 +1,22 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotKeyDTO {
+
+    private String type;
+
+    private String key;
+
+    private Long estimatedCount;
+
+    /**
+     * Zda je detail uložen v cache odpovědí (u IČO null).
+     */
+    private Boolean cached;
+}
@@ -0,0 +1,17 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotMethodDTO {
+
+    private String method;
+
+    private Long value;
+
+    private Double percent;
+}
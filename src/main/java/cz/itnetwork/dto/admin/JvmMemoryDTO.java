@@ -0,0 +1,32 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JvmMemoryDTO {
+
+    private Long heapUsedBytes;
+
+    private Long heapCommittedBytes;
+
+    /**
+     * Maximální velikost haldy (-1, pokud není omezena).
+     */
+    private Long heapMaxBytes;
+
+    private Long nonHeapUsedBytes;
+
+    /**
+     * Počet běhů všech garbage collectorů od startu aplikace.
+     */
+    private Long gcCollections;
+
+    /**
+     * Celková doba běhu garbage collectorů od startu aplikace.
+     */
+    private Long gcTimeMillis;
+}
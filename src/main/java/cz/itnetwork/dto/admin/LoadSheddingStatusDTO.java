@@ -0,0 +1,28 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoadSheddingStatusDTO {
+
+    private Boolean enabled;
+
+    /**
+     * Cílová průměrná doba čekání na spojení z poolu.
+     */
+    private Long targetWaitMillis;
+
+    private Long intervalMillis;
+
+    private Integer minLimit;
+
+    private Integer maxLimit;
+
+    private List<RouteClassAdmissionDTO> routeClasses;
+}
@@ -0,0 +1,23 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LockContentionDTO {
+
+    private String type;
+
+    private String lockClass;
+
+    private String method;
+
+    private Long count;
+
+    private Double totalMillis;
+
+    private Double maxMillis;
+}
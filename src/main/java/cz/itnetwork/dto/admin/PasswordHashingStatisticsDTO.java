@@ -0,0 +1,29 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PasswordHashingStatisticsDTO {
+
+    private Integer poolSize;
+
+    private Integer activeThreads;
+
+    private Integer queueDepth;
+
+    private Integer queueCapacity;
+
+    private Long completedCount;
+
+    private Long rejectedCount;
+
+    private Double averageHashMillis;
+
+    private Double maxHashMillis;
+
+    private Double averageQueueWaitMillis;
+}
@@ -0,0 +1,27 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PinnedThreadSiteDTO {
+
+    private String library;
+
+    private String blockingMethod;
+
+    private String applicationMethod;
+
+    private Long count;
+
+    private Double totalMillis;
+
+    private Double maxMillis;
+
+    private Instant lastSeen;
+}
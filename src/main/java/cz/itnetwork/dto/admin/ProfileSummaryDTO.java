@@ -0,0 +1,33 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileSummaryDTO {
+
+    private Long executionSamples;
+
+    private List<HotMethodDTO> topCpuMethods;
+
+    private List<HotMethodDTO> topApplicationMethods;
+
+    private Long allocationSamples;
+
+    private List<HotMethodDTO> topAllocationSites;
+
+    private List<LockContentionDTO> lockContention;
+
+    private Long gcPauseCount;
+
+    private Double gcPauseTotalMillis;
+
+    private Double gcPauseMaxMillis;
+
+    private List<GcPauseDTO> longestGcPauses;
+}
@@ -0,0 +1,29 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RepositoryMethodStatisticsDTO {
+
+    private String method;
+
+    private Long count;
+
+    private Long errorCount;
+
+    private Long rowCount;
+
+    private Double totalMillis;
+
+    private Double averageMillis;
+
+    private Double maxMillis;
+
+    private List<EndpointCallsDTO> endpoints;
+}
@@ -0,0 +1,25 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseCacheStatisticsDTO {
+
+    private Long entries;
+
+    private Long weightedBytes;
+
+    private Long hitCount;
+
+    private Long missCount;
+
+    private Long evictionCount;
+
+    private Double hitRatio;
+
+    private Integer pinnedKeys;
+}
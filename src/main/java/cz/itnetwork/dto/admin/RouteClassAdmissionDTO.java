@@ -0,0 +1,34 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RouteClassAdmissionDTO {
+
+    private String routeClass;
+
+    private Boolean sheddable;
+
+    private String pool;
+
+    /**
+     * Průměrné čekání na spojení za poslední interval (horší z OLTP poolu
+     * a poolu třídy).
+     */
+    private Double observedWaitMillis;
+
+    /**
+     * Aktuální limit souběžnosti (null u tříd, které se neodmítají).
+     */
+    private Integer limit;
+
+    private Integer inFlight;
+
+    private Long admitted;
+
+    private Long rejected;
+}
@@ -0,0 +1,29 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RouteLatencyDTO {
+
+    private String route;
+
+    private String method;
+
+    private String statusClass;
+
+    private Long windowSeconds;
+
+    private Long count;
+
+    private Double p50Millis;
+
+    private Double p90Millis;
+
+    private Double p99Millis;
+
+    private Double maxMillis;
+}
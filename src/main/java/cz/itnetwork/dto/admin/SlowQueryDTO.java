@@ -0,0 +1,30 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlowQueryDTO {
+
+    private Instant timestamp;
+
+    private String method;
+
+    private String endpoint;
+
+    private Double durationMillis;
+
+    private Long rowCount;
+
+    private List<String> parameters;
+
+    private List<String> sql;
+
+    private String plan;
+}
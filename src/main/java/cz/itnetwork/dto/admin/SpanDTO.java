@@ -0,0 +1,25 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpanDTO {
+
+    private String name;
+
+    private Integer depth;
+
+    private String thread;
+
+    private Integer count;
+
+    private Double offsetMillis;
+
+    private Double durationMillis;
+
+    private String waterfall;
+}
@@ -0,0 +1,36 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementCancellationStatisticsDTO {
+
+    private Boolean enabled;
+
+    private Long checkIntervalMillis;
+
+    /**
+     * Právě zpracovávané požadavky s otevřeným kontextem.
+     */
+    private Integer activeRequests;
+
+    /**
+     * Rozpracované příkazy zrušené po uplynutí lhůty endpointu.
+     */
+    private Long deadlineCancellations;
+
+    /**
+     * Požadavky, u kterých selhal zápis odpovědi (klient se odpojil);
+     * jejich další příkazy se odmítají, běžící dotaz se neruší.
+     */
+    private Long disconnectedRequests;
+
+    /**
+     * Příkazy odmítnuté při vytvoření (lhůta uplynula nebo požadavek byl zrušen).
+     */
+    private Long rejectedStatements;
+}
@@ -0,0 +1,33 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ThreadingStatusDTO {
+
+    private String javaVersion;
+
+    /**
+     * Zda požadavky a asynchronní práce běží na virtuálních vláknech.
+     */
+    private Boolean virtualThreads;
+
+    private Boolean pinningMonitorActive;
+
+    private Long pinningThresholdMillis;
+
+    private Long pinnedEvents;
+
+    /**
+     * Události nad limit sledovaných míst, započítané jen do celkového počtu.
+     */
+    private Long untrackedEvents;
+
+    private List<PinnedThreadSiteDTO> sites;
+}
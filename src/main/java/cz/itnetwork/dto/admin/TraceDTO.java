@@ -0,0 +1,28 @@
+package cz.itnetwork.dto.admin;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TraceDTO {
+
+    private Long id;
+
+    private String name;
+
+    private Instant startedAt;
+
+    private Double durationMillis;
+
+    private Integer spanCount;
+
+    private Integer droppedSpans;
+
+    private List<SpanDTO> spans;
+}
@@ -4,6 +4,8 @@ import cz.itnetwork.dto.Invoice.InvoiceDTO;
 import cz.itnetwork.dto.Invoice.InvoiceReadDTO;
 import cz.itnetwork.entity.Invoice;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 /**
  * MapStruct mapper zodpovědný za převod mezi entitou Invoice
@@ -18,11 +20,29 @@ public interface InvoiceMapper {
     /**
      * Převod datového přenosového objektu faktury na entitu.
      *
+     * Prodávající a kupující nejsou z DTO přebírány – služba je
+     * dosazuje jako reference podle jejich ID.
+     *
      * @param source vstupní datový přenosový objekt typu InvoiceDTO
      * @return entita Invoice vytvořená z DTO
      */
+    @Mapping(target = "seller", ignore = true)
+    @Mapping(target = "buyer", ignore = true)
     Invoice toEntity(InvoiceDTO source);
 
+    /**
+     * Přenesení údajů z DTO do existující entity faktury.
+     *
+     * Identifikátor a vazby na osoby zůstávají beze změny.
+     *
+     * @param source vstupní datový přenosový objekt typu InvoiceDTO
+     * @param target entita Invoice, do které se údaje zapisují
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "seller", ignore = true)
+    @Mapping(target = "buyer", ignore = true)
+    void updateEntity(InvoiceDTO source, @MappingTarget Invoice target);
+
     /**
      * Převod entity faktury na datový přenosový objekt.
      *
@@ -11,9 +11,22 @@ import java.time.LocalDate;
 /**
  * Entita reprezentující fakturu uloženou v databázi.
  * Odpovídá tabulce "invoices" a obsahuje perzistentní stav faktury.
+ *
+ * Vazby na prodávajícího a kupujícího jsou načítány líně.
+ * Které vazby se načtou spolu s fakturou, určují pojmenované
+ * entity grafy deklarované u jednotlivých repository metod.
  */
 @Entity
 @Table(name = "invoices")
+@NamedEntityGraph(
+        name = Invoice.GRAPH_DETAIL,
+        attributeNodes = {
+                @NamedAttributeNode("seller"),
+                @NamedAttributeNode("buyer")
+        }
+)
+@NamedEntityGraph(name = Invoice.GRAPH_LIST)
+@NamedEntityGraph(name = Invoice.GRAPH_SOFT_DELETE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,6 +34,22 @@ import java.time.LocalDate;
 @Builder
 public class Invoice {
 
+    /**
+     * Detail faktury – načítá prodávajícího i kupujícího.
+     */
+    public static final String GRAPH_DETAIL = "Invoice.detail";
+
+    /**
+     * Přehled faktur – načítá pouze faktury. Osoby se dohledávají
+     * v second-level cache, chybějící po dávkách.
+     */
+    public static final String GRAPH_LIST = "Invoice.list";
+
+    /**
+     * Logické smazání – načítá pouze samotnou fakturu bez vazeb.
+     */
+    public static final String GRAPH_SOFT_DELETE = "Invoice.softDelete";
+
     /**
      * Primární klíč faktury.
      */
@@ -77,7 +106,7 @@ public class Invoice {
      * Prodávající osoba (vztah N:1).
      */
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seller_id", nullable = false)
     private Person seller;
 
@@ -85,7 +114,7 @@ public class Invoice {
      * Kupující osoba (vztah N:1).
      */
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "buyer_id", nullable = false)
     private Person buyer;
 
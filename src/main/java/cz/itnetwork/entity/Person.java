@@ -4,15 +4,25 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entita reprezentující osobu (fyzickou nebo právnickou),
  * která může v systému vystupovat jako prodávající nebo kupující.
  *
  * Odpovídá databázové tabulce "persons" a uchovává perzistentní data osoby.
+ *
+ * Osoby jsou uloženy v second-level cache (region "persons"),
+ * líné proxy osob z faktur se tak obvykle inicializují bez dotazu
+ * do databáze. Chybějící záznamy se načítají po dávkách.
  */
 @Entity
 @Table(name = "persons")
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Person.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,6 +30,16 @@ import lombok.*;
 @Builder
 public class Person {
 
+    /**
+     * Region second-level cache pro entity osob.
+     */
+    public static final String CACHE_REGION = "persons";
+
+    /**
+     * Region query cache pro vyhledání ID osob podle IČO.
+     */
+    public static final String ICO_CACHE_REGION = "person-by-ico";
+
     /**
      * Primární klíč osoby.
      */
@@ -0,0 +1,69 @@
+package cz.itnetwork.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Entita reprezentující odvolání JWT tokenů.
+ *
+ * Záznam odvolává buď jeden konkrétní token (podle jeho ID – claim "jti"),
+ * nebo všechny tokeny uživatele vydané do určitého okamžiku
+ * (např. při deaktivaci účtu).
+ *
+ * Po vypršení platnosti všech dotčených tokenů lze záznam smazat.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_token_id", columnList = "tokenId"),
+        @Index(name = "idx_revoked_tokens_subject", columnList = "subject"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revokedAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    /**
+     * Primární klíč záznamu.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID odvolaného tokenu (claim "jti").
+     * Null u odvolání všech tokenů uživatele.
+     */
+    private String tokenId;
+
+    /**
+     * Email uživatele, jehož tokeny jsou odvolány.
+     * Null u odvolání jednoho tokenu.
+     */
+    private String subject;
+
+    /**
+     * Tokeny uživatele vydané nejpozději v tomto okamžiku jsou neplatné.
+     */
+    private Instant revokedBefore;
+
+    /**
+     * Okamžik odvolání – slouží k průběžnému načítání nových záznamů.
+     */
+    @NotNull
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+    /**
+     * Okamžik, po kterém už jsou všechny dotčené tokeny expirované
+     * a záznam je možné smazat.
+     */
+    @NotNull
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -1,18 +1,48 @@
 package cz.itnetwork.entity.repository;
 
+import cz.itnetwork.datasource.ReportingQuery;
 import cz.itnetwork.entity.Invoice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Repository rozhraní zodpovědné za přístup k datům entity Invoice.
+ *
+ * Vazby faktury na osoby jsou mapovány líně, proto každá metoda
+ * vracející entity deklaruje entity graf odpovídající svému použití.
+ */
 public interface InvoiceRepository
         extends JpaRepository<Invoice, Integer>, JpaSpecificationExecutor<Invoice> {
 
-    List<Invoice> findBySeller_IdentificationNumber(String identificationNumber);
+    /**
+     * Načtení detailu faktury včetně prodávajícího a kupujícího.
+     *
+     * @param id identifikátor faktury
+     * @return Optional obsahující fakturu, pokud existuje
+     */
+    @EntityGraph(Invoice.GRAPH_DETAIL)
+    Optional<Invoice> findDetailById(Integer id);
+
+    /**
+     * Načtení faktury pro logické smazání – bez vazeb na osoby.
+     *
+     * @param id identifikátor faktury
+     * @return Optional obsahující fakturu, pokud existuje
+     */
+    @EntityGraph(Invoice.GRAPH_SOFT_DELETE)
+    Optional<Invoice> findForSoftDeleteById(Integer id);
+
+    @EntityGraph(Invoice.GRAPH_LIST)
+    List<Invoice> findBySeller_IdIn(Collection<Integer> sellerIds);
 
-    List<Invoice> findByBuyer_IdentificationNumber(String identificationNumber);
+    @EntityGraph(Invoice.GRAPH_LIST)
+    List<Invoice> findByBuyer_IdIn(Collection<Integer> buyerIds);
 
     @Query(value = """
         SELECT TO_CHAR(issued, 'YYYY-MM') AS month,
@@ -25,12 +55,13 @@ public interface InvoiceRepository
         ORDER BY TO_CHAR(issued, 'YYYY-MM')
         """,
             nativeQuery = true)
+    @ReportingQuery
     List<Object[]> getMonthlyTurnoverRaw(Integer sellerId, Integer buyerId);
 
     @Query(value = """
         SELECT
             COALESCE(SUM(CASE
-                WHEN DATE_PART('year', issued) = DATE_PART('year', CURRENT_DATE)
+                WHEN EXTRACT(YEAR FROM issued) = EXTRACT(YEAR FROM CURRENT_DATE)
                 THEN price ELSE 0 END), 0) AS currentYearSum,
             COALESCE(SUM(price), 0) AS allTimeSum,
             COUNT(*) AS invoicesCount
@@ -38,6 +69,7 @@ public interface InvoiceRepository
         WHERE hidden = false OR hidden IS NULL
         """,
             nativeQuery = true)
+    @ReportingQuery
     List<Object[]> getInvoiceStatisticsRaw();
 
     /**
@@ -45,14 +77,13 @@ public interface InvoiceRepository
      *
      * Optimalizovaný JPQL dotaz:
      * - filtrování probíhá v databázi
-     * - buyer a seller jsou načteni pomocí JOIN FETCH
+     * - buyer a seller jsou dohledáni v second-level cache (entity graf přehledu)
      * - eliminuje N+1 SELECT problém
      */
+    @EntityGraph(Invoice.GRAPH_LIST)
     @Query("""
     SELECT i
     FROM Invoice i
-    JOIN FETCH i.seller
-    JOIN FETCH i.buyer
     WHERE (i.hidden = false OR i.hidden IS NULL)
       AND (:buyerId IS NULL OR i.buyer.id = :buyerId)
       AND (:sellerId IS NULL OR i.seller.id = :sellerId)
@@ -1,10 +1,15 @@
 package cz.itnetwork.entity.repository;
 
+import cz.itnetwork.datasource.ReportingQuery;
 import cz.itnetwork.entity.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +26,27 @@ public interface PersonRepository extends JpaRepository<Person, Integer> {
 
     Optional<Person> findFirstByNameIgnoreCaseContaining(String name);
 
+    /**
+     * Vyhledání ID osob podle identifikačního čísla (IČO).
+     *
+     * Výsledek je uložen v query cache; Hibernate jej zneplatní
+     * při jakékoliv změně tabulky persons.
+     *
+     * @param identificationNumber identifikační číslo osoby
+     * @return seznam ID osob s daným IČO
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Person.ICO_CACHE_REGION)
+    })
+    @Query("""
+        SELECT p.id
+        FROM Person p
+        WHERE p.identificationNumber = :identificationNumber
+        """)
+    List<Integer> findIdsByIdentificationNumber(
+            @Param("identificationNumber") String identificationNumber);
+
     /**
      * Načtení všech aktivních (viditelných) osob.
      *
@@ -37,15 +63,22 @@ public interface PersonRepository extends JpaRepository<Person, Integer> {
     List<Person> findAllVisible();
 
     /**
-     * Zjištění existence aktivní osoby podle jejího ID.
+     * Zjištění počtu aktivních osob mezi zadanými ID.
      *
      * Slouží zejména k validačním kontrolám při vytváření faktur,
-     * aby nebylo možné použít skrytou osobu.
+     * aby nebylo možné použít skrytou osobu. Prodávající i kupující
+     * jsou ověřeni jediným dotazem.
      *
-     * @param id identifikátor osoby
-     * @return true, pokud existuje aktivní osoba
+     * @param ids identifikátory osob
+     * @return počet existujících aktivních osob
      */
-    boolean existsByIdAndHiddenFalse(Integer id);
+    @Query("""
+        SELECT COUNT(p)
+        FROM Person p
+        WHERE p.id IN :ids
+          AND (p.hidden = false OR p.hidden IS NULL)
+        """)
+    long countVisibleByIdIn(@Param("ids") Collection<Integer> ids);
 
     /**
      * Získání statistických údajů o osobách na základě vystavených faktur.
@@ -72,6 +105,7 @@ public interface PersonRepository extends JpaRepository<Person, Integer> {
         GROUP BY p.id, p.name
         ORDER BY revenue DESC
         """)
+    @ReportingQuery
     List<Object[]> getPersonStatisticsRaw();
 
     @Query("""
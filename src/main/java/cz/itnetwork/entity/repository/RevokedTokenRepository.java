@@ -0,0 +1,59 @@
+package cz.itnetwork.entity.repository;
+
+import cz.itnetwork.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository rozhraní zodpovědné za přístup k odvolaným JWT tokenům.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    /**
+     * Záznamy, které ještě nevypršely a byly odvolány po daném okamžiku.
+     *
+     * @param revokedAfter okamžik, od kterého se záznamy načítají
+     * @param now          aktuální čas
+     * @return seznam záznamů
+     */
+    @Transactional(readOnly = true)
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(Instant revokedAfter, Instant now);
+
+    /**
+     * Ověření odvolání konkrétního tokenu.
+     *
+     * @param tokenId ID tokenu (claim "jti")
+     * @return true, pokud je token odvolán
+     */
+    @Transactional(readOnly = true)
+    boolean existsByTokenId(String tokenId);
+
+    /**
+     * Nejpozdější okamžik, do kterého jsou odvolány všechny tokeny uživatele.
+     *
+     * @param subject email uživatele
+     * @return okamžik odvolání, nebo null pokud tokeny uživatele odvolány nejsou
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT MAX(r.revokedBefore) FROM RevokedToken r WHERE r.subject = :subject")
+    Instant findLatestRevokedBefore(@Param("subject") String subject);
+
+    /**
+     * Smazání záznamů, jejichž tokeny už jsou expirované.
+     *
+     * @param now aktuální čas
+     * @return počet smazaných záznamů
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,123 @@
+package cz.itnetwork.loadshedding;
+
+import cz.itnetwork.dto.admin.RouteClassAdmissionDTO;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Počet rozpracovaných požadavků jedné třídy a její adaptivní limit
+ * souběžnosti.
+ *
+ * Limit se mění gradientem – poměrem cílové a pozorované doby čekání
+ * na spojení z poolu. Při překročení cíle se limit okamžitě vynásobí
+ * gradientem (nejvýše na polovinu za interval). Bez tlaku a při
+ * využití alespoň poloviny limitu roste vyhlazeně o rezervu úměrnou
+ * odmocnině limitu, nevyužitý limit neroste.
+ *
+ * Přijetí požadavku je jedna CAS operace nad počtem rozpracovaných
+ * požadavků; limit mění pouze vlákno periodické aktualizace.
+ */
+final class AdmissionLimit {
+
+    /**
+     * Nejmenší gradient – limit klesá nejvýše na polovinu za interval.
+     */
+    private static final double MIN_GRADIENT = 0.5;
+
+    /**
+     * Podíl rezervy, o který limit za interval vzroste.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    private final RouteClass routeClass;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Nejvyšší počet rozpracovaných požadavků od poslední aktualizace.
+     */
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private final LongAdder admitted = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+
+    private volatile long observedWaitNanos;
+
+    AdmissionLimit(RouteClass routeClass, int initialLimit) {
+        this.routeClass = routeClass;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Přijetí požadavku, pokud počet rozpracovaných nedosáhl limitu
+     * (požadavky bez možnosti odmítnutí se přijímají vždy).
+     *
+     * @return true, pokud byl požadavek přijat a je nutné volat release
+     */
+    boolean tryAcquire() {
+
+        int current;
+        do {
+            current = inFlight.get();
+            if (routeClass.isSheddable() && current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        peakInFlight.accumulateAndGet(current + 1, Math::max);
+        admitted.increment();
+        return true;
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Přepočet limitu podle doby čekání na spojení za uplynulý interval.
+     *
+     * @param waitNanos   pozorovaná průměrná doba čekání
+     * @param targetNanos cílová doba čekání
+     * @param minLimit    nejnižší limit
+     * @param maxLimit    nejvyšší limit
+     */
+    void update(long waitNanos, long targetNanos, int minLimit, int maxLimit) {
+
+        observedWaitNanos = waitNanos;
+        int peak = peakInFlight.getAndSet(inFlight.get());
+
+        if (!routeClass.isSheddable()) {
+            return;
+        }
+
+        double current = limit;
+        double next = current;
+
+        if (waitNanos > targetNanos) {
+            next = current * Math.max(MIN_GRADIENT, (double) targetNanos / waitNanos);
+        } else if (peak >= current / 2) {
+            next = current + SMOOTHING * Math.sqrt(current);
+        }
+
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    RouteClassAdmissionDTO toDto() {
+        return RouteClassAdmissionDTO.builder()
+                .routeClass(routeClass.name())
+                .sheddable(routeClass.isSheddable())
+                .pool(routeClass.getWorkload().getPoolName())
+                .observedWaitMillis(observedWaitNanos / (double) TimeUnit.MILLISECONDS.toNanos(1))
+                .limit(routeClass.isSheddable() ? (int) limit : null)
+                .inFlight(inFlight.get())
+                .admitted(admitted.sum())
+                .rejected(rejected.sum())
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package cz.itnetwork.loadshedding;
+
+import cz.itnetwork.datasource.ConnectionPoolMetrics;
+import cz.itnetwork.datasource.Workload;
+import cz.itnetwork.dto.admin.LoadSheddingStatusDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptivní odmítání požadavků s nízkou prioritou při přetížení databáze.
+ *
+ * Signálem přetížení je průměrná doba čekání na spojení z connection
+ * poolu za poslední interval. Pro každou třídu s nízkou prioritou se bere
+ * horší z hodnot OLTP poolu (chráněné čtení a zápisy faktur) a poolu,
+ * ze kterého třída sama čerpá. Překročí-li čekání cíl, limit souběžnosti
+ * třídy se sníží a požadavky nad limitem odmítne LoadSheddingFilter
+ * stavem 503 s hlavičkou Retry-After dřív, než obsadí vlákno čekající
+ * na spojení.
+ *
+ * Třídy se určují podle vzorů cest (load-shedding.routes.*), požadavky
+ * na /api/invoices/** mimo tyto vzory nejsou nikdy odmítnuty.
+ */
+@Component
+public class LoadShedder {
+
+    private static final String INVOICES_PATH = "/api/invoices";
+
+    private static final String INVOICES_PREFIX = INVOICES_PATH + "/";
+
+    private final ConnectionPoolMetrics poolMetrics;
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<RouteClass, String[]> routes = new EnumMap<>(RouteClass.class);
+
+    private final Map<RouteClass, AdmissionLimit> limits = new EnumMap<>(RouteClass.class);
+
+    /**
+     * Součty čekání poolů z předchozí aktualizace (mění je jen vlákno aktualizace).
+     */
+    private final Map<Workload, ConnectionPoolMetrics.WaitTotals> previousTotals = new EnumMap<>(Workload.class);
+
+    private final boolean enabled;
+
+    private final Duration targetWait;
+
+    private final Duration interval;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long retryAfterSeconds;
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "load-shedding");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public LoadShedder(ConnectionPoolMetrics poolMetrics,
+                       @Value("${load-shedding.enabled:true}") boolean enabled,
+                       @Value("${load-shedding.target-wait:20ms}") Duration targetWait,
+                       @Value("${load-shedding.interval:500ms}") Duration interval,
+                       @Value("${load-shedding.initial-limit:20}") int initialLimit,
+                       @Value("${load-shedding.min-limit:1}") int minLimit,
+                       @Value("${load-shedding.max-limit:200}") int maxLimit,
+                       @Value("${load-shedding.retry-after:2s}") Duration retryAfter,
+                       @Value("${load-shedding.routes.statistics:/api/*/statistics}") String[] statisticsRoutes,
+                       @Value("${load-shedding.routes.search:/api/persons/search}") String[] searchRoutes,
+                       @Value("${load-shedding.routes.export:/api/**/export/**}") String[] exportRoutes) {
+
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Neplatné meze limitu souběžnosti");
+        }
+
+        this.poolMetrics = poolMetrics;
+        this.enabled = enabled;
+        this.targetWait = targetWait;
+        this.interval = interval;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        routes.put(RouteClass.STATISTICS, statisticsRoutes);
+        routes.put(RouteClass.SEARCH, searchRoutes);
+        routes.put(RouteClass.EXPORT, exportRoutes);
+
+        for (RouteClass routeClass : RouteClass.values()) {
+            limits.put(routeClass, new AdmissionLimit(routeClass, initialLimit));
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            scheduler.scheduleAtFixedRate(this::update,
+                    interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Zařazení požadavku do třídy podle cesty.
+     *
+     * @param path dekódovaná cesta požadavku v rámci aplikace (např. /api/persons/statistics)
+     * @return třída požadavku
+     */
+    public RouteClass classify(String path) {
+
+        for (Map.Entry<RouteClass, String[]> entry : routes.entrySet()) {
+            for (String pattern : entry.getValue()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return entry.getKey();
+                }
+            }
+        }
+
+        return path.equals(INVOICES_PATH) || path.startsWith(INVOICES_PREFIX) ? RouteClass.INVOICES : RouteClass.OTHER;
+    }
+
+    /**
+     * Přijetí požadavku dané třídy.
+     *
+     * @param routeClass třída požadavku
+     * @return true, pokud byl požadavek přijat (po jeho dokončení je nutné volat release)
+     */
+    public boolean tryAcquire(RouteClass routeClass) {
+        return limits.get(routeClass).tryAcquire();
+    }
+
+    /**
+     * Dokončení přijatého požadavku.
+     *
+     * @param routeClass třída požadavku
+     */
+    public void release(RouteClass routeClass) {
+        limits.get(routeClass).release();
+    }
+
+    /**
+     * @return doporučená prodleva před opakováním odmítnutého požadavku
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * @return cíl, limity a počty požadavků jednotlivých tříd
+     */
+    public LoadSheddingStatusDTO getStatus() {
+        return LoadSheddingStatusDTO.builder()
+                .enabled(enabled)
+                .targetWaitMillis(targetWait.toMillis())
+                .intervalMillis(interval.toMillis())
+                .minLimit(minLimit)
+                .maxLimit(maxLimit)
+                .routeClasses(limits.values().stream().map(AdmissionLimit::toDto).toList())
+                .build();
+    }
+
+    private void update() {
+
+        Map<Workload, Long> waits = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            ConnectionPoolMetrics.WaitTotals current = poolMetrics.getWaitTotals(workload);
+            ConnectionPoolMetrics.WaitTotals previous = previousTotals.put(workload, current);
+            waits.put(workload, meanWaitNanos(previous, current));
+        }
+
+        long targetNanos = targetWait.toNanos();
+        for (Map.Entry<RouteClass, AdmissionLimit> entry : limits.entrySet()) {
+            long wait = Math.max(waits.get(Workload.OLTP), waits.get(entry.getKey().getWorkload()));
+            entry.getValue().update(wait, targetNanos, minLimit, maxLimit);
+        }
+    }
+
+    /**
+     * Průměrné čekání na spojení za interval. Pokud za interval žádné
+     * spojení vydáno nebylo, ale vlákna na spojení čekají, pool je
+     * zahlcený a čekání se odhadne délkou intervalu.
+     */
+    private long meanWaitNanos(ConnectionPoolMetrics.WaitTotals previous, ConnectionPoolMetrics.WaitTotals current) {
+
+        long acquisitions = current.acquisitions() - (previous != null ? previous.acquisitions() : 0);
+        if (acquisitions > 0) {
+            return (current.waitNanos() - (previous != null ? previous.waitNanos() : 0)) / acquisitions;
+        }
+        return current.pendingThreads() > 0 ? interval.toNanos() : 0;
+    }
+}
@@ -0,0 +1,82 @@
+package cz.itnetwork.loadshedding;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Filtr přijímající požadavky na /api/** podle limitů LoadShedder.
+ *
+ * Běží hned za filtrem trasování, ještě před bezpečnostními filtry –
+ * odmítnutý požadavek tak nestojí ověření tokenu ani spojení z poolu.
+ * Počet rozpracovaných požadavků se uvolní po dokončení prvního
+ * dispatche (požadavky s nízkou prioritou jsou synchronní).
+ *
+ * Požadavek se zařazuje podle dekódované cesty bez kontextové cesty
+ * a zdvojených lomítek – stejně, jak ji namapuje Spring MVC. Zakódované
+ * znaky (/api/%70ersons/statistics) ani "//" tak limit neobejdou.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH = "/api/";
+
+    private static final byte[] SERVICE_UNAVAILABLE_BODY =
+            "{\"error\":\"Služba je dočasně přetížena, zkuste to prosím znovu\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final LoadShedder loadShedder;
+
+    public LoadSheddingFilter(LoadShedder loadShedder) {
+        this.loadShedder = loadShedder;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !loadShedder.isEnabled() || !path(request).startsWith(API_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RouteClass routeClass = loadShedder.classify(path(request));
+
+        if (!loadShedder.tryAcquire(routeClass)) {
+            reject(response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            loadShedder.release(routeClass);
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(loadShedder.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(SERVICE_UNAVAILABLE_BODY.length);
+        response.getOutputStream().write(SERVICE_UNAVAILABLE_BODY);
+    }
+}
@@ -0,0 +1,42 @@
+package cz.itnetwork.loadshedding;
+
+import cz.itnetwork.datasource.Workload;
+
+/**
+ * Třída požadavků z pohledu řízení zátěže.
+ *
+ * Požadavky s nízkou prioritou (statistiky, vyhledávání, exporty) mají
+ * adaptivní limit souběžnosti a při přetížení databáze se odmítají.
+ * Čtení a zápisy faktur i ostatní požadavky se pouze počítají.
+ */
+public enum RouteClass {
+
+    STATISTICS(true, Workload.REPORTING),
+    SEARCH(true, Workload.OLTP),
+    EXPORT(true, Workload.OLTP),
+    INVOICES(false, Workload.OLTP),
+    OTHER(false, Workload.OLTP);
+
+    private final boolean sheddable;
+
+    private final Workload workload;
+
+    RouteClass(boolean sheddable, Workload workload) {
+        this.sheddable = sheddable;
+        this.workload = workload;
+    }
+
+    /**
+     * @return zda lze požadavky této třídy při přetížení odmítnout
+     */
+    public boolean isSheddable() {
+        return sheddable;
+    }
+
+    /**
+     * @return connection pool, ze kterého požadavky třídy čerpají spojení
+     */
+    public Workload getWorkload() {
+        return workload;
+    }
+}
@@ -0,0 +1,398 @@
+package cz.itnetwork.logging;
+
+import cz.itnetwork.dto.admin.EventLogStatisticsDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronní vzorkovaný log HTTP požadavků a volání repository
+ * (náhrada za spring.jpa.show-sql).
+ *
+ * Vlákno požadavku o záznamu pouze rozhodne a vloží ho do omezeného
+ * kruhového bufferu bez zámků (EventRing); formátování a zápis do loggeru
+ * provádí samostatné vlákno, které buffer vyprazdňuje v krátkém intervalu.
+ * Pokud je buffer plný, záznam se zahodí a započítá – vlákno požadavku
+ * nikdy nečeká na zapisovač ani na jiná vlákna požadavků.
+ *
+ * Pomalé a chybové záznamy se zapisují vždy, ostatní podle vzorkovací
+ * frekvence své kategorie. Každý záznam je jeden řádek ve tvaru
+ * klíč=hodnota, např.:
+ *
+ * ts=2024-05-01T10:00:00.123Z type=access reason=slow method=GET route=/api/invoices status=200 duration_ms=812.4
+ *
+ * Záznamy požadavků jdou do loggeru cz.itnetwork.access, záznamy SQL
+ * do loggeru cz.itnetwork.sql.
+ */
+@Component
+public class AsyncEventLog {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("cz.itnetwork.access");
+
+    private static final Logger sqlLog = LoggerFactory.getLogger("cz.itnetwork.sql");
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncEventLog.class);
+
+    /**
+     * Maximální počet záznamů zapsaných v jedné dávce.
+     */
+    private static final int BATCH_SIZE = 256;
+
+    /**
+     * Prodleva zapisovače, když je buffer prázdný. Vlákna požadavků
+     * zapisovač nebudí, aby se nemusela synchronizovat s jeho vláknem.
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Maximální délka SQL v jednom záznamu.
+     */
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    /**
+     * Důvod zápisu záznamu.
+     */
+    private enum Reason {
+        SLOW, ERROR, SAMPLED;
+
+        private final String text = name().toLowerCase();
+    }
+
+    private final boolean enabled;
+
+    private final Category accessCategory;
+
+    private final Category sqlCategory;
+
+    private final EventRing<Event> buffer;
+
+    private final LongAdder written = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Počet zahozených záznamů, o kterých už byl zapsán řádek do logu
+     * (pouze vlákno zapisovače).
+     */
+    private long reportedDrops;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-log-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AsyncEventLog(@Value("${event-log.enabled:true}") boolean enabled,
+                         @Value("${event-log.capacity:8192}") int capacity,
+                         @Value("${event-log.access.slow-threshold:500ms}") Duration accessSlowThreshold,
+                         @Value("${event-log.access.sample-rate:0.01}") double accessSampleRate,
+                         @Value("${event-log.sql.slow-threshold:200ms}") Duration sqlSlowThreshold,
+                         @Value("${event-log.sql.sample-rate:0.001}") double sqlSampleRate) {
+
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Kapacita bufferu logu musí být alespoň 2");
+        }
+
+        this.enabled = enabled;
+        this.accessCategory = new Category(accessSlowThreshold, accessSampleRate);
+        this.sqlCategory = new Category(sqlSlowThreshold, sqlSampleRate);
+        this.buffer = new EventRing<>(capacity);
+
+        if (enabled) {
+            writer.execute(this::drain);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        writer.shutdownNow();
+        writer.awaitTermination(1, TimeUnit.SECONDS);
+
+        // Dopsání záznamů, které zůstaly v bufferu
+        List<Event> remaining = new ArrayList<>();
+        buffer.drainTo(remaining, buffer.capacity());
+        write(remaining);
+    }
+
+    /**
+     * Záznam dokončeného HTTP požadavku.
+     *
+     * @param method        HTTP metoda
+     * @param route         šablona cesty
+     * @param status        stavový kód odpovědi
+     * @param durationNanos doba zpracování v nanosekundách
+     * @param error         neošetřená výjimka, nebo null
+     */
+    public void access(String method, String route, int status, long durationNanos, Exception error) {
+
+        Reason reason = enabled ? accessCategory.reason(durationNanos, status >= 500 || error != null) : null;
+        if (reason == null) {
+            return;
+        }
+
+        offer(new AccessEvent(System.currentTimeMillis(), reason, method, route, status, durationNanos,
+                error != null ? error.getClass().getSimpleName() : null));
+    }
+
+    /**
+     * Záznam volání repository včetně vygenerovaného SQL.
+     *
+     * @param repositoryMethod rozhraní a metoda repository
+     * @param endpoint         endpoint, ze kterého bylo volání provedeno
+     * @param durationNanos    doba volání v nanosekundách
+     * @param rows             počet vrácených řádků
+     * @param failed           zda volání skončilo výjimkou
+     * @param statements       vygenerované SQL příkazy (zkopírují se jen
+     *                         v případě, že se volání zaznamená)
+     */
+    void sql(String repositoryMethod, String endpoint, long durationNanos, long rows,
+             boolean failed, List<String> statements) {
+
+        Reason reason = enabled ? sqlCategory.reason(durationNanos, failed) : null;
+        if (reason == null) {
+            return;
+        }
+
+        offer(new SqlEvent(System.currentTimeMillis(), reason, repositoryMethod, endpoint,
+                durationNanos, rows, List.copyOf(statements)));
+    }
+
+    /**
+     * Stav bufferu a počty zapsaných a zahozených záznamů.
+     *
+     * @return statistiky logu
+     */
+    public EventLogStatisticsDTO getStatistics() {
+        return EventLogStatisticsDTO.builder()
+                .enabled(enabled)
+                .capacity(buffer.capacity())
+                .queued(buffer.size())
+                .written(written.sum())
+                .dropped(dropped.sum())
+                .accessSampleRate(accessCategory.sampleRate)
+                .sqlSampleRate(sqlCategory.sampleRate)
+                .build();
+    }
+
+    private void offer(Event event) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Smyčka zapisovače – zapisuje nahromaděné záznamy po dávkách,
+     * při prázdném bufferu krátce počká.
+     */
+    private void drain() {
+
+        List<Event> batch = new ArrayList<>(BATCH_SIZE);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            if (buffer.drainTo(batch, BATCH_SIZE) == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Event> batch) {
+
+        StringBuilder line = new StringBuilder(256);
+
+        for (Event event : batch) {
+            line.setLength(0);
+            line.append("ts=").append(Instant.ofEpochMilli(event.timestampMillis));
+            event.format(line);
+
+            Logger logger = event instanceof SqlEvent ? sqlLog : accessLog;
+            if (event.reason == Reason.ERROR) {
+                logger.warn(line.toString());
+            } else {
+                logger.info(line.toString());
+            }
+        }
+        written.add(batch.size());
+
+        long totalDrops = dropped.sum();
+        if (totalDrops > reportedDrops) {
+            log.warn("type=drop dropped={} total={}", totalDrops - reportedDrops, totalDrops);
+            reportedDrops = totalDrops;
+        }
+    }
+
+    /**
+     * Připojení dvojice klíč=hodnota; hodnoty s mezerami nebo uvozovkami
+     * jsou uzavřeny do uvozovek, konce řádků nahrazeny mezerou.
+     */
+    private static void append(StringBuilder line, String key, String value) {
+
+        line.append(' ').append(key).append('=');
+
+        if (value == null) {
+            line.append('-');
+            return;
+        }
+
+        boolean quote = value.isEmpty() || value.indexOf(' ') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\t') >= 0;
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+
+        line.append('"');
+        boolean whitespace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                // Víceřádkové SQL se sloučí na jeden řádek
+                if (!whitespace) {
+                    line.append(' ');
+                }
+                whitespace = true;
+                continue;
+            }
+            whitespace = false;
+            if (c == '"' || c == '\\') {
+                line.append('\\');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static String millis(long nanos) {
+        return String.valueOf(Math.round(nanos / 100_000.0) / 10.0);
+    }
+
+    /**
+     * Nastavení vzorkování jedné kategorie záznamů.
+     */
+    private static class Category {
+
+        private final long slowThresholdNanos;
+
+        private final double sampleRate;
+
+        Category(Duration slowThreshold, double sampleRate) {
+            if (sampleRate < 0 || sampleRate > 1) {
+                throw new IllegalArgumentException("Vzorkovací frekvence musí být v intervalu 0 až 1");
+            }
+            this.slowThresholdNanos = slowThreshold.toNanos();
+            this.sampleRate = sampleRate;
+        }
+
+        Reason reason(long durationNanos, boolean failed) {
+            if (failed) {
+                return Reason.ERROR;
+            }
+            if (durationNanos >= slowThresholdNanos) {
+                return Reason.SLOW;
+            }
+            if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                return Reason.SAMPLED;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Záznam v bufferu. Formátuje se až na vlákně zapisovače.
+     */
+    private abstract static class Event {
+
+        final long timestampMillis;
+
+        final Reason reason;
+
+        Event(long timestampMillis, Reason reason) {
+            this.timestampMillis = timestampMillis;
+            this.reason = reason;
+        }
+
+        abstract void format(StringBuilder line);
+    }
+
+    private static class AccessEvent extends Event {
+
+        private final String method;
+        private final String route;
+        private final int status;
+        private final long durationNanos;
+        private final String error;
+
+        AccessEvent(long timestampMillis, Reason reason, String method, String route,
+                    int status, long durationNanos, String error) {
+            super(timestampMillis, reason);
+            this.method = method;
+            this.route = route;
+            this.status = status;
+            this.durationNanos = durationNanos;
+            this.error = error;
+        }
+
+        @Override
+        void format(StringBuilder line) {
+            append(line, "type", "access");
+            append(line, "reason", reason.text);
+            append(line, "method", method);
+            append(line, "route", route);
+            line.append(" status=").append(status);
+            append(line, "duration_ms", millis(durationNanos));
+            if (error != null) {
+                append(line, "error", error);
+            }
+        }
+    }
+
+    private static class SqlEvent extends Event {
+
+        private final String repositoryMethod;
+        private final String endpoint;
+        private final long durationNanos;
+        private final long rows;
+        private final List<String> statements;
+
+        SqlEvent(long timestampMillis, Reason reason, String repositoryMethod, String endpoint,
+                 long durationNanos, long rows, List<String> statements) {
+            super(timestampMillis, reason);
+            this.repositoryMethod = repositoryMethod;
+            this.endpoint = endpoint;
+            this.durationNanos = durationNanos;
+            this.rows = rows;
+            this.statements = statements;
+        }
+
+        @Override
+        void format(StringBuilder line) {
+            append(line, "type", "sql");
+            append(line, "reason", reason.text);
+            append(line, "repository", repositoryMethod);
+            append(line, "endpoint", endpoint);
+            append(line, "duration_ms", millis(durationNanos));
+            line.append(" rows=").append(rows);
+            line.append(" statements=").append(statements.size());
+
+            String sql = String.join("; ", statements);
+            append(line, "sql", sql.length() > MAX_SQL_LENGTH
+                    ? sql.substring(0, MAX_SQL_LENGTH) + "..."
+                    : sql);
+        }
+    }
+}
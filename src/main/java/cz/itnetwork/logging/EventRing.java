@@ -0,0 +1,130 @@
+package cz.itnetwork.logging;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Omezený kruhový buffer pro mnoho zapisujících vláken a jedno čtoucí
+ * (MPSC) bez zámků.
+ *
+ * Každá pozice má pořadové číslo, podle kterého zapisující vlákno pozná,
+ * zda je volná, a čtoucí vlákno, zda je již zapsaná. Zapisující vlákno
+ * si pozici zarezervuje jedinou operací compare-and-set; při plném
+ * bufferu vrátí false a nikdy nečeká na čtoucí vlákno ani na jiné
+ * zapisující.
+ *
+ * @param <E> typ záznamu
+ */
+final class EventRing<E> {
+
+    private final int capacity;
+
+    private final AtomicReferenceArray<E> items;
+
+    /**
+     * Pořadové číslo pozice: rovná se indexu zápisu, je-li pozice volná,
+     * indexu zápisu + 1, je-li zapsaná a dosud nepřečtená.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * Index příštího zápisu.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Index příštího čtení (mění jen čtoucí vlákno).
+     */
+    private volatile long head;
+
+    EventRing(int capacity) {
+
+        // S jedinou pozicí by nešlo rozlišit plný buffer od prázdného
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Kapacita bufferu musí být alespoň 2");
+        }
+
+        this.capacity = capacity;
+        this.items = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Vložení záznamu; lze volat z libovolného vlákna.
+     *
+     * @param item záznam
+     * @return false, pokud je buffer plný
+     */
+    boolean offer(E item) {
+
+        long position = tail.get();
+        while (true) {
+            int index = index(position);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items.set(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // Pozice ještě nebyla přečtena – buffer je plný
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Přesun zapsaných záznamů do seznamu; volá pouze čtoucí vlákno.
+     *
+     * @param target   cílový seznam
+     * @param maxItems maximální počet přesunutých záznamů
+     * @return počet přesunutých záznamů
+     */
+    int drainTo(List<? super E> target, int maxItems) {
+
+        long position = head;
+        int drained = 0;
+
+        while (drained < maxItems) {
+            int index = index(position);
+            if (sequences.get(index) != position + 1) {
+                // Pozice ještě není zapsaná (nebo je buffer prázdný)
+                break;
+            }
+            target.add(items.get(index));
+            items.set(index, null);
+            sequences.set(index, position + capacity);
+            position++;
+            drained++;
+        }
+
+        head = position;
+        return drained;
+    }
+
+    /**
+     * @return přibližný počet záznamů v bufferu
+     */
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    private int index(long position) {
+        return (int) (position % capacity);
+    }
+}
@@ -0,0 +1,451 @@
+package cz.itnetwork.logging;
+
+import cz.itnetwork.dto.admin.EndpointCallsDTO;
+import cz.itnetwork.dto.admin.RepositoryMethodStatisticsDTO;
+import cz.itnetwork.dto.admin.SlowQueryDTO;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Měření volání metod Spring Data repository.
+ *
+ * Pro každou metodu eviduje počet volání, dobu trvání, počet vrácených
+ * řádků a endpointy, ze kterých byla volána. Volání delší než nastavený
+ * práh se ukládají do omezeného kruhového bufferu pomalých dotazů
+ * včetně parametrů, vygenerovaného SQL a volitelně plánu dotazu
+ * (EXPLAIN, pouze PostgreSQL 16+).
+ *
+ * Plán dotazu se zjišťuje asynchronně na samostatném vlákně,
+ * volání repository tím není zdrženo. Volání se zároveň předávají
+ * vzorkovanému logu SQL (viz AsyncEventLog) a v rámci zaznamenávané
+ * trasy tvoří span (viz Tracer).
+ */
+@Component
+public class RepositoryInstrumentation {
+
+    private static final String BACKGROUND_ENDPOINT = "(background)";
+
+    private static final String UNMAPPED_ENDPOINT = "(unmapped)";
+
+    /**
+     * Maximální délka textové podoby jednoho parametru.
+     */
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    /**
+     * Maximální počet prvků kolekce zobrazených v parametru.
+     */
+    private static final int MAX_COLLECTION_ITEMS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AsyncEventLog eventLog;
+
+    private final Tracer tracer;
+
+    private final long slowThresholdNanos;
+
+    private final boolean explainEnabled;
+
+    /**
+     * Statistiky podle rozhraní repository a metody. Zděděné metody
+     * (např. save) jsou sdílené mezi repository, proto dvouúrovňová mapa.
+     */
+    private final Map<Class<?>, Map<Method, MethodStats>> repositories = new ConcurrentHashMap<>();
+
+    private final AtomicReferenceArray<SlowQuery> slowQueries;
+
+    private final AtomicLong slowQuerySequence = new AtomicLong();
+
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16),
+            runnable -> {
+                Thread thread = new Thread(runnable, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    public RepositoryInstrumentation(JdbcTemplate jdbcTemplate,
+                                     AsyncEventLog eventLog,
+                                     Tracer tracer,
+                                     @Value("${repository.slow-query.threshold:200ms}") Duration slowThreshold,
+                                     @Value("${repository.slow-query.capacity:100}") int capacity,
+                                     @Value("${repository.slow-query.explain:false}") boolean explainEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventLog = eventLog;
+        this.tracer = tracer;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.explainEnabled = explainEnabled;
+        this.slowQueries = new AtomicReferenceArray<>(capacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    /**
+     * Provedení a změření volání metody repository.
+     *
+     * @param invocation volání metody repository
+     * @param repository rozhraní repository
+     * @return výsledek volání
+     * @throws Throwable výjimka vyhozená repository
+     */
+    public Object invoke(MethodInvocation invocation, Class<?> repository) throws Throwable {
+
+        Map<Method, MethodStats> methods = repositories.get(repository);
+        if (methods == null) {
+            methods = repositories.computeIfAbsent(repository, key -> new ConcurrentHashMap<>());
+        }
+
+        MethodStats stats = methods.get(invocation.getMethod());
+        if (stats == null) {
+            stats = methods.computeIfAbsent(invocation.getMethod(),
+                    method -> new MethodStats(repository.getSimpleName() + "." + method.getName()));
+        }
+
+        boolean capturing = SqlStatementCapture.begin();
+        Tracer.Scope span = tracer.startSpan(stats.name);
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+
+        } finally {
+            long duration = System.nanoTime() - start;
+            span.close();
+            long rows = failed ? 0 : rowCount(result);
+            String endpoint = currentEndpoint();
+
+            stats.record(endpoint, duration, rows, failed);
+
+            if (duration >= slowThresholdNanos) {
+                recordSlowQuery(stats.name, endpoint, duration, rows, invocation.getArguments(),
+                        List.copyOf(SqlStatementCapture.captured()));
+            }
+            eventLog.sql(stats.name, endpoint, duration, rows, failed, SqlStatementCapture.captured());
+            if (capturing) {
+                SqlStatementCapture.end();
+            }
+        }
+    }
+
+    /**
+     * Statistiky všech dosud volaných metod, seřazené podle celkového času.
+     *
+     * @return statistiky metod repository
+     */
+    public List<RepositoryMethodStatisticsDTO> getMethodStatistics() {
+        return repositories.values().stream()
+                .flatMap(methods -> methods.values().stream())
+                .map(MethodStats::toDto)
+                .sorted(Comparator.comparing(RepositoryMethodStatisticsDTO::getTotalMillis).reversed())
+                .toList();
+    }
+
+    /**
+     * Zachycené pomalé dotazy, od nejnovějšího.
+     *
+     * @return pomalé dotazy
+     */
+    public List<SlowQueryDTO> getSlowQueries() {
+
+        List<SlowQueryDTO> result = new ArrayList<>();
+        long last = slowQuerySequence.get();
+        int capacity = slowQueries.length();
+
+        for (long n = last; n > 0 && n > last - capacity; n--) {
+            SlowQuery query = slowQueries.get((int) (n % capacity));
+            if (query != null && query.sequence == n) {
+                result.add(query.toDto());
+            }
+        }
+
+        return result;
+    }
+
+    private void recordSlowQuery(String method, String endpoint, long durationNanos, long rows,
+                                 Object[] arguments, List<String> sql) {
+
+        long sequence = slowQuerySequence.incrementAndGet();
+        SlowQuery query = new SlowQuery(sequence, Instant.now(), method, endpoint,
+                durationNanos, rows, renderArguments(arguments), sql);
+
+        slowQueries.set((int) (sequence % slowQueries.length()), query);
+
+        if (explainEnabled && !sql.isEmpty() && isSelect(sql.get(0))) {
+            explainExecutor.execute(() -> query.plan = explain(sql.get(0)));
+        }
+    }
+
+    /**
+     * Obecný plán dotazu bez hodnot parametrů (PostgreSQL 16+).
+     */
+    private String explain(String sql) {
+        try {
+            return jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + toNumberedParameters(sql), String.class)
+                    .stream()
+                    .collect(Collectors.joining("\n"));
+        } catch (Exception e) {
+            return "EXPLAIN selhal: " + e.getMessage();
+        }
+    }
+
+    private static boolean isSelect(String sql) {
+        String start = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return start.startsWith("select") || start.startsWith("with");
+    }
+
+    /**
+     * Převod JDBC parametrů "?" na číslované parametry PostgreSQL "$1, $2, ..."
+     * (mimo řetězcové literály), které EXPLAIN (GENERIC_PLAN) vyžaduje.
+     */
+    static String toNumberedParameters(String sql) {
+
+        StringBuilder result = new StringBuilder(sql.length() + 16);
+        boolean inLiteral = false;
+        int parameter = 0;
+
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                result.append('$').append(++parameter);
+            } else {
+                result.append(c);
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Endpoint, ze kterého bylo volání provedeno (metoda a šablona cesty).
+     *
+     * Volání mimo namapovaný handler (filtry, chybové stránky) spadají do
+     * jediné skupiny – surová URI ani metoda se jako klíč nepoužívají,
+     * aby počet sledovaných endpointů nebyl řízen klientem.
+     */
+    private static String currentEndpoint() {
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return BACKGROUND_ENDPOINT;
+        }
+
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        if (pattern == null) {
+            return UNMAPPED_ENDPOINT;
+        }
+        return request.getMethod() + " " + pattern;
+    }
+
+    private static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result.getClass().isArray()) {
+            return Array.getLength(result);
+        }
+        return 1;
+    }
+
+    private static List<String> renderArguments(Object[] arguments) {
+
+        List<String> rendered = new ArrayList<>(arguments.length);
+
+        for (Object argument : arguments) {
+            String text;
+            if (argument instanceof Collection<?> collection) {
+                text = collection.stream()
+                        .limit(MAX_COLLECTION_ITEMS)
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(", ", "[",
+                                collection.size() > MAX_COLLECTION_ITEMS
+                                        ? ", ... (" + collection.size() + ")]"
+                                        : "]"));
+            } else {
+                text = String.valueOf(argument);
+            }
+            rendered.add(text.length() > MAX_PARAMETER_LENGTH
+                    ? text.substring(0, MAX_PARAMETER_LENGTH) + "..."
+                    : text);
+        }
+
+        return rendered;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Souhrnné statistiky jedné metody repository.
+     */
+    private static class MethodStats {
+
+        private final String name;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder rows = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+        MethodStats(String name) {
+            this.name = name;
+        }
+
+        void record(String endpoint, long durationNanos, long rowCount, boolean failed) {
+
+            count.increment();
+            totalNanos.add(durationNanos);
+            rows.add(rowCount);
+            maxNanos.accumulateAndGet(durationNanos, Math::max);
+            if (failed) {
+                errors.increment();
+            }
+
+            EndpointStats endpointStats = endpoints.get(endpoint);
+            if (endpointStats == null) {
+                endpointStats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+            }
+            endpointStats.count.increment();
+            endpointStats.totalNanos.add(durationNanos);
+        }
+
+        RepositoryMethodStatisticsDTO toDto() {
+
+            long calls = count.sum();
+            long total = totalNanos.sum();
+
+            List<EndpointCallsDTO> callers = endpoints.entrySet().stream()
+                    .map(entry -> {
+                        long endpointCalls = entry.getValue().count.sum();
+                        return EndpointCallsDTO.builder()
+                                .endpoint(entry.getKey())
+                                .count(endpointCalls)
+                                .averageMillis(endpointCalls == 0 ? 0
+                                        : millis(entry.getValue().totalNanos.sum()) / endpointCalls)
+                                .build();
+                    })
+                    .sorted(Comparator.comparing(EndpointCallsDTO::getCount).reversed())
+                    .toList();
+
+            return RepositoryMethodStatisticsDTO.builder()
+                    .method(name)
+                    .count(calls)
+                    .errorCount(errors.sum())
+                    .rowCount(rows.sum())
+                    .totalMillis(millis(total))
+                    .averageMillis(calls == 0 ? 0 : millis(total) / calls)
+                    .maxMillis(millis(maxNanos.get()))
+                    .endpoints(callers)
+                    .build();
+        }
+    }
+
+    private static class EndpointStats {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+    }
+
+    /**
+     * Záznam pomalého volání. Plán dotazu je doplněn asynchronně.
+     */
+    private static class SlowQuery {
+
+        private final long sequence;
+        private final Instant timestamp;
+        private final String method;
+        private final String endpoint;
+        private final long durationNanos;
+        private final long rows;
+        private final List<String> parameters;
+        private final List<String> sql;
+
+        private volatile String plan;
+
+        SlowQuery(long sequence, Instant timestamp, String method, String endpoint,
+                  long durationNanos, long rows, List<String> parameters, List<String> sql) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.method = method;
+            this.endpoint = endpoint;
+            this.durationNanos = durationNanos;
+            this.rows = rows;
+            this.parameters = parameters;
+            this.sql = sql;
+        }
+
+        SlowQueryDTO toDto() {
+            return SlowQueryDTO.builder()
+                    .timestamp(timestamp)
+                    .method(method)
+                    .endpoint(endpoint)
+                    .durationMillis(millis(durationNanos))
+                    .rowCount(rows)
+                    .parameters(parameters)
+                    .sql(sql)
+                    .plan(plan)
+                    .build();
+        }
+    }
+}
@@ -1,24 +1,41 @@
 package cz.itnetwork.logging;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
 /**
  * Interceptor sloužící k měření doby zpracování HTTP požadavku.
  *
- * Slouží k logování odezvy backendu na jednotlivé API volání.
+ * Doba zpracování se zaznamenává do histogramů podle šablony cesty,
+ * HTTP metody a třídy stavového kódu (viz RouteLatencyHistograms)
+ * a předává se vzorkovanému logu požadavků (viz AsyncEventLog).
+ *
+ * Čas zahájení je držen ve slotu vlákna, takže měření synchronního
+ * požadavku nic nealokuje. U asynchronního zpracování (např. přihlášení)
+ * se čas při uvolnění vlákna přenese do atributu požadavku a měří se
+ * celá doba až do dokončení odpovědi.
  */
 @Component
-public class RequestTimingInterceptor implements HandlerInterceptor {
+public class RequestTimingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START_TIME = RequestTimingInterceptor.class.getName() + ".startTime";
+
+    private static final String UNMATCHED_ROUTE = "(unmatched)";
+
+    private static final ThreadLocal<long[]> START = ThreadLocal.withInitial(() -> new long[1]);
 
-    private static final Logger log =
-            LoggerFactory.getLogger(RequestTimingInterceptor.class);
+    private final RouteLatencyHistograms histograms;
 
-    private static final String START_TIME = "startTime";
+    private final AsyncEventLog eventLog;
+
+    public RequestTimingInterceptor(RouteLatencyHistograms histograms, AsyncEventLog eventLog) {
+        this.histograms = histograms;
+        this.eventLog = eventLog;
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request,
@@ -26,29 +43,53 @@ public class RequestTimingInterceptor implements HandlerInterceptor {
                              Object handler) {
 
         // Uložení času zahájení zpracování požadavku
-        request.setAttribute(START_TIME, System.currentTimeMillis());
+        Object asyncStart = request.getDispatcherType() == DispatcherType.ASYNC
+                ? request.getAttribute(START_TIME)
+                : null;
+
+        START.get()[0] = asyncStart instanceof Long start ? start : System.nanoTime();
         return true;
     }
 
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request,
+                                               HttpServletResponse response,
+                                               Object handler) {
+
+        // Vlákno se uvolní – zpracování dokončí asynchronní dispatch
+        request.setAttribute(START_TIME, START.get()[0]);
+    }
+
     @Override
     public void afterCompletion(HttpServletRequest request,
                                 HttpServletResponse response,
                                 Object handler,
                                 Exception ex) {
 
-        Long startTime = (Long) request.getAttribute(START_TIME);
-        if (startTime == null) {
-            return;
-        }
+        long duration = System.nanoTime() - START.get()[0];
 
-        long duration = System.currentTimeMillis() - startTime;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern instanceof String matched ? matched : UNMATCHED_ROUTE;
 
-        log.info(
-                "Request [{} {}] completed in {} ms (status {})",
-                request.getMethod(),
-                request.getRequestURI(),
-                duration,
-                response.getStatus()
-        );
+        int status = status(response, ex);
+
+        histograms.record(route, request.getMethod(), status, duration);
+        eventLog.access(request.getMethod(), route, status, duration, ex);
+    }
+
+    /**
+     * Stavový kód, se kterým požadavek skutečně skončí.
+     *
+     * Výjimku, kterou nezpracoval žádný handler (@ControllerAdvice), předá
+     * DispatcherServlet kontejneru a ten odpoví chybou 500; odpověď ale
+     * v afterCompletion ještě nese původní stav (typicky 200). Chybový stav
+     * nastavený dříve (sendError) se ponechá.
+     */
+    private static int status(HttpServletResponse response, Exception ex) {
+        int status = response.getStatus();
+        if (ex != null && status < HttpServletResponse.SC_BAD_REQUEST) {
+            return HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        }
+        return status;
     }
 }
@@ -0,0 +1,265 @@
+package cz.itnetwork.logging;
+
+import cz.itnetwork.dto.admin.RouteLatencyDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.PackedHistogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Histogramy doby zpracování požadavků podle šablony cesty
+ * (např. /api/invoices/{id}), HTTP metody a třídy stavového kódu.
+ *
+ * Zápis do histogramu (HdrHistogram Recorder) je bezzámkový
+ * a nealokuje. Periodicky se z každého recorderu odebere intervalový
+ * histogram a uloží se do kruhové historie, ze které se počítají
+ * percentily za klouzavá okna (např. poslední minuta, posledních 5 minut).
+ *
+ * Hodnoty jsou zaznamenávány v mikrosekundách, delší doby než
+ * HIGHEST_TRACKABLE_MICROS se zaznamenají jako maximum.
+ */
+@Component
+public class RouteLatencyHistograms {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS", "OTHER"};
+
+    /**
+     * Třídy stavových kódů 1xx–5xx (index 0 pro neplatný kód).
+     */
+    private static final int STATUS_CLASSES = 6;
+
+    /**
+     * Délka jednoho intervalu historie.
+     */
+    @Value("${metrics.latency.interval:10s}")
+    private Duration interval;
+
+    /**
+     * Celková délka uchovávané historie (nejdelší dostupné okno).
+     */
+    @Value("${metrics.latency.history:5m}")
+    private Duration history;
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService roller =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "latency-histogram-roll");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private int slots;
+
+    /**
+     * Index posledního uzavřeného intervalu (roste neomezeně).
+     */
+    private volatile long completedIntervals;
+
+    @PostConstruct
+    void init() {
+        slots = (int) Math.max(1, history.toMillis() / interval.toMillis());
+        roller.scheduleAtFixedRate(this::roll,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        roller.shutdownNow();
+    }
+
+    /**
+     * Zaznamenání doby zpracování požadavku.
+     *
+     * @param route         šablona cesty
+     * @param method        HTTP metoda
+     * @param status        stavový kód odpovědi
+     * @param durationNanos doba zpracování v nanosekundách
+     */
+    public void record(String route, String method, int status, long durationNanos) {
+
+        Route metrics = routes.get(route);
+        if (metrics == null) {
+            metrics = routes.computeIfAbsent(route, key -> new Route());
+        }
+
+        int statusClass = status >= 100 && status < 600 ? status / 100 : 0;
+        Series series = metrics.series(methodIndex(method) * STATUS_CLASSES + statusClass, slots);
+
+        long micros = Math.min(Math.max(durationNanos / 1000, 1), HIGHEST_TRACKABLE_MICROS);
+        series.recorder.recordValue(micros);
+    }
+
+    /**
+     * Percentily za klouzavé okno pro všechny sledované kombinace
+     * cesty, metody a třídy stavového kódu.
+     *
+     * Okno je zaokrouhleno na celé intervaly a omezeno délkou historie.
+     * Zahrnuje pouze uzavřené intervaly.
+     *
+     * @param window požadovaná délka okna
+     * @return statistiky seřazené podle cesty
+     */
+    public List<RouteLatencyDTO> snapshot(Duration window) {
+
+        int count = (int) Math.min(slots,
+                Math.max(1, (window.toMillis() + interval.toMillis() - 1) / interval.toMillis()));
+        long last = completedIntervals;
+        Duration effectiveWindow = interval.multipliedBy(count);
+
+        List<RouteLatencyDTO> result = new ArrayList<>();
+
+        routes.forEach((route, metrics) -> {
+            for (int i = 0; i < metrics.series.length(); i++) {
+
+                Series series = metrics.series.get(i);
+                if (series == null) {
+                    continue;
+                }
+
+                Histogram merged = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+                for (long n = Math.max(1, last - count + 1); n <= last; n++) {
+                    Interval slot = series.history.get((int) (n % slots));
+                    if (slot != null && slot.number() == n) {
+                        merged.add(slot.histogram());
+                    }
+                }
+
+                if (merged.getTotalCount() == 0) {
+                    continue;
+                }
+
+                result.add(RouteLatencyDTO.builder()
+                        .route(route)
+                        .method(METHODS[i / STATUS_CLASSES])
+                        .statusClass(i % STATUS_CLASSES == 0 ? "unknown" : (i % STATUS_CLASSES) + "xx")
+                        .windowSeconds(effectiveWindow.toSeconds())
+                        .count(merged.getTotalCount())
+                        .p50Millis(millis(merged.getValueAtPercentile(50)))
+                        .p90Millis(millis(merged.getValueAtPercentile(90)))
+                        .p99Millis(millis(merged.getValueAtPercentile(99)))
+                        .maxMillis(millis(merged.getMaxValue()))
+                        .build());
+            }
+        });
+
+        result.sort(Comparator.comparing(RouteLatencyDTO::getRoute)
+                .thenComparing(RouteLatencyDTO::getMethod)
+                .thenComparing(RouteLatencyDTO::getStatusClass));
+        return result;
+    }
+
+    /**
+     * Uzavření intervalu – intervalové histogramy všech recorderů
+     * se uloží (v kompaktní podobě) do kruhové historie.
+     */
+    private void roll() {
+
+        long next = completedIntervals + 1;
+
+        routes.values().forEach(metrics -> {
+            for (int i = 0; i < metrics.series.length(); i++) {
+                Series series = metrics.series.get(i);
+                if (series != null) {
+                    series.roll(next, slots);
+                }
+            }
+        });
+
+        completedIntervals = next;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static int methodIndex(String method) {
+        return switch (method) {
+            case "GET" -> 0;
+            case "POST" -> 1;
+            case "PUT" -> 2;
+            case "DELETE" -> 3;
+            case "PATCH" -> 4;
+            case "HEAD" -> 5;
+            case "OPTIONS" -> 6;
+            default -> 7;
+        };
+    }
+
+    /**
+     * Všechny řady jedné cesty, indexované metodou a třídou stavového kódu.
+     */
+    private static class Route {
+
+        private final AtomicReferenceArray<Series> series =
+                new AtomicReferenceArray<>(METHODS.length * STATUS_CLASSES);
+
+        Series series(int index, int slots) {
+            Series existing = series.get(index);
+            if (existing != null) {
+                return existing;
+            }
+            series.compareAndSet(index, null, new Series(slots));
+            return series.get(index);
+        }
+    }
+
+    /**
+     * Recorder jedné kombinace cesty, metody a třídy stavového kódu
+     * s kruhovou historií uzavřených intervalů.
+     */
+    private static class Series {
+
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+        private final AtomicReferenceArray<Interval> history;
+
+        private Histogram recycled;
+
+        Series(int slots) {
+            this.history = new AtomicReferenceArray<>(slots);
+        }
+
+        void roll(long intervalNumber, int slots) {
+
+            recycled = recorder.getIntervalHistogram(recycled);
+
+            if (recycled.getTotalCount() == 0) {
+                history.set((int) (intervalNumber % slots), null);
+                return;
+            }
+
+            // Kompaktní kopie – paměť úměrná počtu obsazených bucketů
+            Histogram packed = new PackedHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+            packed.add(recycled);
+            history.set((int) (intervalNumber % slots), new Interval(intervalNumber, packed));
+        }
+    }
+
+    /**
+     * Uzavřený interval historie.
+     *
+     * @param number    pořadové číslo intervalu
+     * @param histogram hodnoty zaznamenané během intervalu
+     */
+    private record Interval(long number, Histogram histogram) {
+    }
+}
@@ -0,0 +1,63 @@
+package cz.itnetwork.logging;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zachycení SQL příkazů, které Hibernate vygeneroval během volání
+ * metody repository.
+ *
+ * Zachytávání je aktivní jen mezi begin() a end() na daném vlákně;
+ * mimo ně inspektor SQL pouze propouští.
+ */
+public class SqlStatementCapture implements StatementInspector {
+
+    /**
+     * Maximální počet zachycených příkazů na jedno volání.
+     */
+    private static final int MAX_STATEMENTS = 5;
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null && captured.size() < MAX_STATEMENTS) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Zahájení zachytávání na aktuálním vlákně.
+     *
+     * @return true, pokud zachytávání zahájilo toto volání
+     *         (vnořené volání repository zachytává do seznamu vnějšího)
+     */
+    static boolean begin() {
+        if (CAPTURED.get() != null) {
+            return false;
+        }
+        CAPTURED.set(new ArrayList<>(2));
+        return true;
+    }
+
+    /**
+     * Dosud zachycené příkazy aktuálního vlákna.
+     *
+     * @return seznam SQL příkazů
+     */
+    static List<String> captured() {
+        List<String> captured = CAPTURED.get();
+        return captured != null ? captured : List.of();
+    }
+
+    /**
+     * Ukončení zachytávání na aktuálním vlákně.
+     */
+    static void end() {
+        CAPTURED.remove();
+    }
+}
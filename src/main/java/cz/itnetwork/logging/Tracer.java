@@ -0,0 +1,461 @@
+package cz.itnetwork.logging;
+
+import cz.itnetwork.dto.admin.SpanDTO;
+import cz.itnetwork.dto.admin.TraceDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Jednoduché trasování požadavků pomocí spanů uložených v paměti.
+ *
+ * Trasa začíná kořenovým spanem požadavku (viz TracingFilter), do kterého
+ * se vnořují spany controllerů, služeb, mapperů, volání repository
+ * a serializace JSON. Aktuální span je držen ve slotu vlákna; při předání
+ * práce jinému vláknu (platformovému i virtuálnímu) se kontext přenese
+ * obalením úlohy metodou wrap().
+ *
+ * O záznamu trasy se rozhoduje na jejím začátku podle vzorkovací
+ * frekvence. Bez aktivní trasy je otevření spanu jen čtení slotu vlákna.
+ *
+ * Po sobě jdoucí sourozenecké spany stejného názvu (např. mapování
+ * každé faktury seznamu) se slučují do jednoho záznamu s počtem volání.
+ * Počet záznamů jedné trasy je omezen, další spany se pouze započítají.
+ *
+ * Dokončené trasy se ukládají do omezeného kruhového bufferu,
+ * ze kterého se vybírají nejpomalejší.
+ */
+@Component
+public class Tracer {
+
+    private static final ThreadLocal<SpanRecord> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Maximální počet záznamů spanů jedné trasy.
+     */
+    private static final int MAX_SPANS = 500;
+
+    /**
+     * Šířka vykresleného vodopádu ve znacích.
+     */
+    private static final int WATERFALL_WIDTH = 50;
+
+    private final boolean enabled;
+
+    private final double sampleRate;
+
+    private final AtomicReferenceArray<Trace> traces;
+
+    private final AtomicLong traceSequence = new AtomicLong();
+
+    public Tracer(@Value("${tracing.enabled:true}") boolean enabled,
+                  @Value("${tracing.sample-rate:0.1}") double sampleRate,
+                  @Value("${tracing.capacity:200}") int capacity) {
+
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Vzorkovací frekvence musí být v intervalu 0 až 1");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Kapacita úložiště tras musí být kladná");
+        }
+
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.traces = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Zahájení nové trasy na aktuálním vlákně.
+     *
+     * @param name název kořenového spanu
+     * @return otevřený kořenový span, nebo neaktivní span,
+     *         pokud trasa nebyla vybrána vzorkováním
+     */
+    public Scope startTrace(String name) {
+
+        if (!enabled || CURRENT.get() != null
+                || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return Scope.NOOP;
+        }
+
+        long start = System.nanoTime();
+        Trace trace = new Trace(this, Instant.now(), start);
+        return open(trace.root(name, start), null, start);
+    }
+
+    /**
+     * Otevření spanu vnořeného do aktuálního spanu vlákna.
+     *
+     * @param name název spanu
+     * @return otevřený span, nebo neaktivní span, pokud vlákno
+     *         neprovádí zaznamenávanou trasu
+     */
+    public Scope startSpan(String name) {
+
+        SpanRecord parent = CURRENT.get();
+        if (parent == null) {
+            return Scope.NOOP;
+        }
+
+        long start = System.nanoTime();
+        SpanRecord record = parent.trace.child(parent, name, start);
+        return record != null ? open(record, parent, start) : Scope.NOOP;
+    }
+
+    /**
+     * Zda aktuální vlákno provádí zaznamenávanou trasu. Slouží k tomu,
+     * aby volající nesestavoval název spanu zbytečně.
+     *
+     * @return true, pokud je na vlákně aktivní span
+     */
+    public boolean isTracing() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Obalení úlohy tak, aby spany otevřené při jejím provedení
+     * (na libovolném vlákně) patřily do aktuální trasy.
+     *
+     * @param task úloha
+     * @param <T>  typ výsledku
+     * @return obalená úloha, nebo původní úloha bez aktivní trasy
+     */
+    public <T> Supplier<T> wrap(Supplier<T> task) {
+
+        SpanRecord captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+
+        return () -> {
+            SpanRecord previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Obalení úlohy bez výsledku, viz {@link #wrap(Supplier)}.
+     *
+     * @param task úloha
+     * @return obalená úloha, nebo původní úloha bez aktivní trasy
+     */
+    public Runnable wrap(Runnable task) {
+
+        SpanRecord captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+
+        return () -> {
+            SpanRecord previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Nejpomalejší z uložených tras, jako vodopád spanů.
+     *
+     * @param limit maximální počet tras
+     * @param route volitelný filtr – část názvu kořenového spanu
+     * @return trasy seřazené od nejpomalejší
+     */
+    public List<TraceDTO> getSlowestTraces(int limit, String route) {
+
+        List<Trace> stored = new ArrayList<>();
+        for (int i = 0; i < traces.length(); i++) {
+            Trace trace = traces.get(i);
+            if (trace != null && (route == null || trace.rootName().contains(route))) {
+                stored.add(trace);
+            }
+        }
+
+        return stored.stream()
+                .sorted(Comparator.comparingLong(Trace::durationNanos).reversed())
+                .limit(limit)
+                .map(Trace::toDto)
+                .toList();
+    }
+
+    private static Scope open(SpanRecord record, SpanRecord previous, long start) {
+        CURRENT.set(record);
+        return new Scope(record, previous, start);
+    }
+
+    private static void restore(SpanRecord previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    private void store(Trace trace) {
+        long sequence = traceSequence.incrementAndGet();
+        trace.id = sequence;
+        traces.set((int) (sequence % traces.length()), trace);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String threadName() {
+        Thread thread = Thread.currentThread();
+        String name = thread.getName();
+        // Virtuální vlákna obvykle nemají název
+        return name.isEmpty() ? "virtual-" + thread.getId() : name;
+    }
+
+    /**
+     * Otevřený span. Uzavírá se metodou close(), typicky v bloku
+     * try-with-resources.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private static final Scope NOOP = new Scope(null, null, 0);
+
+        private final SpanRecord record;
+
+        private final SpanRecord previous;
+
+        private final long startNanos;
+
+        private Scope(SpanRecord record, SpanRecord previous, long startNanos) {
+            this.record = record;
+            this.previous = previous;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Zda je span zaznamenáván.
+         *
+         * @return false pro neaktivní span
+         */
+        public boolean isRecording() {
+            return record != null;
+        }
+
+        /**
+         * Přejmenování spanu, např. kořenového spanu na šablonu cesty,
+         * která je známa až po zpracování požadavku.
+         *
+         * @param name nový název
+         */
+        public void rename(String name) {
+            if (record != null) {
+                synchronized (record.trace) {
+                    record.name = name;
+                }
+            }
+        }
+
+        /**
+         * Uvolnění spanu z aktuálního vlákna bez jeho uzavření
+         * (zpracování pokračuje na jiném vlákně).
+         */
+        public void detach() {
+            if (record != null) {
+                restore(previous);
+            }
+        }
+
+        /**
+         * Navázání dříve uvolněného spanu na aktuální vlákno.
+         */
+        public void attach() {
+            if (record != null) {
+                CURRENT.set(record);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (record == null) {
+                return;
+            }
+            record.trace.finish(record, startNanos, System.nanoTime());
+            restore(previous);
+        }
+    }
+
+    /**
+     * Jedna zaznamenávaná trasa.
+     */
+    private static class Trace {
+
+        private final Tracer tracer;
+
+        private final Instant startedAt;
+
+        private final long startNanos;
+
+        private final List<SpanRecord> spans = new ArrayList<>();
+
+        private int droppedSpans;
+
+        private long durationNanos;
+
+        private boolean completed;
+
+        private long id;
+
+        Trace(Tracer tracer, Instant startedAt, long startNanos) {
+            this.tracer = tracer;
+            this.startedAt = startedAt;
+            this.startNanos = startNanos;
+        }
+
+        synchronized SpanRecord root(String name, long start) {
+            SpanRecord root = new SpanRecord(this, null, name, start);
+            spans.add(root);
+            return root;
+        }
+
+        synchronized SpanRecord child(SpanRecord parent, String name, long start) {
+
+            if (completed) {
+                return null;
+            }
+
+            // Opakované volání téže operace se připojí k předchozímu záznamu
+            SpanRecord last = parent.lastChild;
+            if (last != null && last.active == 0 && last.name.equals(name)) {
+                last.count++;
+                last.active++;
+                return last;
+            }
+
+            if (spans.size() >= MAX_SPANS) {
+                droppedSpans++;
+                return null;
+            }
+
+            SpanRecord record = new SpanRecord(this, parent, name, start);
+            parent.lastChild = record;
+            spans.add(record);
+            return record;
+        }
+
+        void finish(SpanRecord record, long start, long end) {
+
+            boolean root;
+            synchronized (this) {
+                record.totalNanos += end - start;
+                record.endNanos = Math.max(record.endNanos, end);
+                record.active--;
+
+                root = record.parent == null;
+                if (root) {
+                    durationNanos = end - startNanos;
+                    completed = true;
+                }
+            }
+
+            if (root) {
+                tracer.store(this);
+            }
+        }
+
+        synchronized String rootName() {
+            return spans.get(0).name;
+        }
+
+        synchronized long durationNanos() {
+            return durationNanos;
+        }
+
+        synchronized TraceDTO toDto() {
+
+            double scale = durationNanos > 0 ? (double) WATERFALL_WIDTH / durationNanos : 0;
+            List<SpanDTO> spanDtos = new ArrayList<>(spans.size());
+
+            for (SpanRecord span : spans) {
+                long offset = span.startNanos - startNanos;
+                long end = span.active > 0 ? startNanos + durationNanos : span.endNanos;
+                spanDtos.add(SpanDTO.builder()
+                        .name(span.name)
+                        .depth(span.depth)
+                        .thread(span.thread)
+                        .count(span.count)
+                        .offsetMillis(millis(offset))
+                        .durationMillis(millis(span.totalNanos))
+                        .waterfall(waterfall(offset, end - span.startNanos, scale))
+                        .build());
+            }
+
+            return TraceDTO.builder()
+                    .id(id)
+                    .name(spans.get(0).name)
+                    .startedAt(startedAt)
+                    .durationMillis(millis(durationNanos))
+                    .spanCount(spans.size())
+                    .droppedSpans(droppedSpans)
+                    .spans(spanDtos)
+                    .build();
+        }
+
+        private static String waterfall(long offset, long length, double scale) {
+
+            int from = (int) Math.min(WATERFALL_WIDTH - 1, Math.round(offset * scale));
+            int width = (int) Math.max(1, Math.min(WATERFALL_WIDTH - from, Math.round(length * scale)));
+
+            return " ".repeat(from) + "█".repeat(width) + " ".repeat(WATERFALL_WIDTH - from - width);
+        }
+    }
+
+    /**
+     * Záznam spanu, případně několika sloučených volání téže operace.
+     * Všechna pole jsou chráněna zámkem trasy.
+     */
+    private static class SpanRecord {
+
+        private final Trace trace;
+
+        private final SpanRecord parent;
+
+        private final int depth;
+
+        private final String thread;
+
+        private final long startNanos;
+
+        private String name;
+
+        private long endNanos;
+
+        private long totalNanos;
+
+        private int count = 1;
+
+        private int active = 1;
+
+        private SpanRecord lastChild;
+
+        SpanRecord(Trace trace, SpanRecord parent, String name, long startNanos) {
+            this.trace = trace;
+            this.parent = parent;
+            this.depth = parent != null ? parent.depth + 1 : 0;
+            this.thread = threadName();
+            this.name = name;
+            this.startNanos = startNanos;
+        }
+    }
+}
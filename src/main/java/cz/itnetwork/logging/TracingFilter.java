@@ -0,0 +1,89 @@
+package cz.itnetwork.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Filtr zahajující trasu každého požadavku na /api/**.
+ *
+ * Kořenový span pokrývá celé zpracování včetně bezpečnostních filtrů
+ * a zápisu odpovědi. Po dokončení je přejmenován na metodu a šablonu
+ * cesty (např. "GET /api/invoices/{id}") a doplněn o stavový kód.
+ *
+ * Při asynchronním zpracování (např. přihlášení) se kořenový span
+ * uvolní z vlákna, uloží do atributu požadavku a uzavře až na konci
+ * asynchronního dispatche.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String ROOT_SPAN = TracingFilter.class.getName() + ".rootSpan";
+
+    private static final String API_PATH = "/api/";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PATH);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Tracer.Scope root;
+
+        if (isAsyncDispatch(request)) {
+            // Pokračování asynchronního zpracování na jiném vlákně
+            if (!(request.getAttribute(ROOT_SPAN) instanceof Tracer.Scope stored)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            root = stored;
+            root.attach();
+        } else {
+            root = tracer.startTrace(request.getMethod() + " " + request.getRequestURI());
+            if (!root.isRecording()) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.setAttribute(ROOT_SPAN, root);
+                root.detach();
+            } else {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                root.rename(request.getMethod() + " "
+                        + (pattern != null ? pattern : request.getRequestURI())
+                        + " " + response.getStatus());
+                root.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package cz.itnetwork.logging;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interceptor otevírající span kolem volání metody beanu
+ * (controlleru, služby nebo mapperu).
+ *
+ * Span se jmenuje podle třídy a metody, např. "InvoiceServiceImpl.getAll".
+ * Bez aktivní trasy se metoda pouze zavolá. Komponenta trasování se
+ * získává až při prvním volání (interceptor vzniká s advisorem dříve
+ * než ostatní beany).
+ */
+public class TracingMethodInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<Tracer> tracerProvider;
+
+    private volatile Tracer tracer;
+
+    private final Map<Method, String> spanNames = new ConcurrentHashMap<>();
+
+    public TracingMethodInterceptor(ObjectProvider<Tracer> tracerProvider) {
+        this.tracerProvider = tracerProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+
+        Tracer tracer = tracer();
+        if (!tracer.isTracing()) {
+            return invocation.proceed();
+        }
+
+        try (Tracer.Scope span = tracer.startSpan(spanName(invocation))) {
+            return invocation.proceed();
+        }
+    }
+
+    private Tracer tracer() {
+        Tracer resolved = tracer;
+        if (resolved == null) {
+            resolved = tracerProvider.getObject();
+            tracer = resolved;
+        }
+        return resolved;
+    }
+
+    private String spanName(MethodInvocation invocation) {
+
+        String name = spanNames.get(invocation.getMethod());
+        if (name == null) {
+            Class<?> targetClass = invocation.getThis() != null
+                    ? AopUtils.getTargetClass(invocation.getThis())
+                    : invocation.getMethod().getDeclaringClass();
+            name = spanNames.computeIfAbsent(invocation.getMethod(),
+                    method -> targetClass.getSimpleName() + "." + method.getName());
+        }
+        return name;
+    }
+}
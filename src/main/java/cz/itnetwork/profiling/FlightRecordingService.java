@@ -0,0 +1,555 @@
+package cz.itnetwork.profiling;
+
+import cz.itnetwork.dto.admin.FlightRecordingDTO;
+import cz.itnetwork.dto.admin.GcPauseDTO;
+import cz.itnetwork.dto.admin.HotMethodDTO;
+import cz.itnetwork.dto.admin.LockContentionDTO;
+import cz.itnetwork.dto.admin.ProfileSummaryDTO;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Profilování běžící aplikace pomocí Java Flight Recorderu.
+ *
+ * Záznam se spouští na pevně danou dobu (nejvýše profiling.jfr.max-duration)
+ * s vestavěným nastavením JFR ("default" s režií kolem 1 %, "profile"
+ * s podrobnějším vzorkováním). Najednou může běžet jediný záznam.
+ *
+ * Po skončení je záznam uložen do dočasného souboru a jednou průchodem
+ * vyhodnocen na souhrn:
+ * - nejčastější metody na vrcholu zásobníku (vzorky CPU) a nejčastější
+ *   metody aplikace v zásobníku,
+ * - místa s největším objemem alokací (vzorky alokací vážené bajty),
+ * - čekání na zámky monitorů a na LockSupport.park (nad prahem nastavení),
+ * - pauzy garbage collectoru.
+ *
+ * Uchovává se posledních několik dokončených záznamů; soubory starších
+ * záznamů jsou mazány.
+ */
+@Component
+public class FlightRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    private static final String APPLICATION_PACKAGE = "cz.itnetwork.";
+
+    /**
+     * Počet položek v jednotlivých žebříčcích souhrnu.
+     */
+    private static final int TOP_ENTRIES = 20;
+
+    /**
+     * Počet nejdelších pauz GC v souhrnu.
+     */
+    private static final int TOP_GC_PAUSES = 10;
+
+    /**
+     * Metody, ve kterých vlákna poolů čekají na další úlohu.
+     */
+    private static final Set<String> IDLE_WAIT_METHODS = Set.of("getTask", "awaitWork");
+
+    /**
+     * Blokující odběr z fronty (čekání konzumenta na další prvek).
+     */
+    private static final Set<String> QUEUE_WAIT_METHODS = Set.of("take", "poll");
+
+    private enum State {
+        RUNNING, FINISHED, FAILED
+    }
+
+    private final Duration maxDuration;
+
+    private final int retained;
+
+    private final Path directory;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Záznamy podle ID, od nejstaršího (přístup pod zámkem této komponenty).
+     */
+    private final Map<Long, Entry> recordings = new LinkedHashMap<>();
+
+    private Entry active;
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jfr-recording");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public FlightRecordingService(@Value("${profiling.jfr.max-duration:5m}") Duration maxDuration,
+                                  @Value("${profiling.jfr.retained:5}") int retained) throws IOException {
+        this.maxDuration = maxDuration;
+        this.retained = Math.max(1, retained);
+        this.directory = Files.createTempDirectory("jfr-recordings");
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        scheduler.shutdownNow();
+        if (active != null) {
+            active.recording.close();
+        }
+        recordings.values().forEach(Entry::deleteFile);
+        try {
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            log.debug("Adresář záznamů JFR nelze smazat: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Spuštění časově omezeného záznamu.
+     *
+     * @param duration doba záznamu
+     * @param profile  název nastavení JFR ("default" nebo "profile")
+     * @return spuštěný záznam, nebo prázdný výsledek, pokud již jiný záznam běží
+     * @throws IllegalArgumentException při neplatné době nebo neznámém nastavení
+     */
+    public synchronized Optional<FlightRecordingDTO> start(Duration duration, String profile) {
+
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Doba záznamu musí být kladná a nejvýše " + maxDuration.toSeconds() + " s");
+        }
+        if (active != null) {
+            return Optional.empty();
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(profile);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Neznámé nastavení JFR: " + profile);
+        }
+
+        long id = sequence.incrementAndGet();
+        Recording recording = new Recording(configuration);
+        recording.setName("admin-" + id);
+        recording.setToDisk(true);
+
+        Entry entry = new Entry(id, profile, duration, directory.resolve("recording-" + id + ".jfr"), recording);
+        recording.start();
+
+        active = entry;
+        recordings.put(id, entry);
+        evictOldRecordings();
+        scheduler.schedule(() -> finish(entry), duration.toMillis(), TimeUnit.MILLISECONDS);
+
+        log.info("Spuštěn záznam JFR {} (nastavení {}, {} s)", id, profile, duration.toSeconds());
+        return Optional.of(entry.toDto());
+    }
+
+    /**
+     * Stav a po dokončení i souhrn záznamu.
+     *
+     * @param id identifikátor záznamu
+     * @return záznam
+     * @throws EntityNotFoundException pokud záznam neexistuje
+     */
+    public synchronized FlightRecordingDTO get(long id) {
+        return find(id).toDto();
+    }
+
+    /**
+     * Všechny uchovávané záznamy, od nejnovějšího (bez souhrnu).
+     *
+     * @return záznamy
+     */
+    public synchronized List<FlightRecordingDTO> getAll() {
+        List<FlightRecordingDTO> result = new ArrayList<>();
+        recordings.values().forEach(entry -> {
+            FlightRecordingDTO dto = entry.toDto();
+            dto.setSummary(null);
+            result.add(0, dto);
+        });
+        return result;
+    }
+
+    /**
+     * Otevření souboru dokončeného záznamu ke stažení.
+     *
+     * Soubor se otevírá pod zámkem komponenty, takže jej souběžné
+     * spuštění nového záznamu nemůže smazat mezi nalezením a otevřením.
+     * Otevřený proud zůstává čitelný, i když je záznam mezitím vyřazen
+     * a jeho soubor smazán.
+     *
+     * @param id identifikátor záznamu
+     * @return otevřený soubor .jfr, nebo prázdný výsledek, pokud záznam ještě běží
+     * @throws EntityNotFoundException pokud záznam neexistuje (nebo byl vyřazen) či jeho soubor není k dispozici
+     */
+    public synchronized Optional<RecordingDownload> openFile(long id) {
+
+        Entry entry = find(id);
+        if (entry.state == State.RUNNING) {
+            return Optional.empty();
+        }
+        try {
+            long size = Files.size(entry.file);
+            InputStream stream = Files.newInputStream(entry.file);
+            return Optional.of(new RecordingDownload(entry.file.getFileName().toString(), size, stream));
+        } catch (IOException e) {
+            throw new EntityNotFoundException("Soubor záznamu JFR není k dispozici");
+        }
+    }
+
+    /**
+     * Otevřený soubor záznamu; proud je nutné zavřít.
+     *
+     * @param fileName název souboru
+     * @param size     velikost v bajtech
+     * @param stream   obsah souboru
+     */
+    public record RecordingDownload(String fileName, long size, InputStream stream) {
+    }
+
+    private Entry find(long id) {
+        Entry entry = recordings.get(id);
+        if (entry == null) {
+            throw new EntityNotFoundException("Záznam JFR nenalezen");
+        }
+        return entry;
+    }
+
+    /**
+     * Ukončení záznamu, uložení do souboru a vyhodnocení souhrnu
+     * (na vlákně plánovače, mimo zámek komponenty).
+     */
+    private void finish(Entry entry) {
+
+        ProfileSummaryDTO summary = null;
+        String error = null;
+
+        try {
+            entry.recording.stop();
+            entry.recording.dump(entry.file);
+            summary = summarize(entry.file);
+        } catch (Exception e) {
+            log.warn("Záznam JFR {} selhal: {}", entry.id, e.getMessage());
+            error = e.getMessage();
+        } finally {
+            entry.recording.close();
+        }
+
+        synchronized (this) {
+            entry.summary = summary;
+            entry.error = error;
+            entry.state = error == null ? State.FINISHED : State.FAILED;
+            active = null;
+        }
+        log.info("Záznam JFR {} dokončen", entry.id);
+    }
+
+    private void evictOldRecordings() {
+        Iterator<Entry> iterator = recordings.values().iterator();
+        while (recordings.size() > retained && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.state != State.RUNNING) {
+                entry.deleteFile();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Vyhodnocení záznamu jedním průchodem událostí.
+     */
+    private static ProfileSummaryDTO summarize(Path file) throws IOException {
+
+        Counter cpuTop = new Counter();
+        Counter cpuApplication = new Counter();
+        Counter allocations = new Counter();
+        Map<String, Contention> contention = new HashMap<>();
+        List<GcPauseDTO> gcPauses = new ArrayList<>();
+        long allocationSamples = 0;
+
+        try (RecordingFile recordingFile = new RecordingFile(file)) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        RecordedStackTrace stackTrace = event.getStackTrace();
+                        cpuTop.add(topMethod(stackTrace), 1);
+                        String application = applicationMethod(stackTrace);
+                        if (application != null) {
+                            cpuApplication.add(application, 1);
+                        }
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        allocationSamples++;
+                        RecordedClass objectClass = event.getClass("objectClass");
+                        allocations.add(topMethod(event.getStackTrace())
+                                        + " [" + (objectClass != null ? objectClass.getName() : "?") + "]",
+                                event.getLong("weight"));
+                    }
+                    case "jdk.JavaMonitorEnter" ->
+                            addContention(contention, "monitor", event.getClass("monitorClass"), event);
+                    case "jdk.ThreadPark" -> {
+                        if (!isIdleWait(event.getStackTrace())) {
+                            addContention(contention, "park", event.getClass("parkedClass"), event);
+                        }
+                    }
+                    case "jdk.GarbageCollection" -> gcPauses.add(GcPauseDTO.builder()
+                            .timestamp(event.getStartTime())
+                            .collector(event.getString("name"))
+                            .cause(event.getString("cause"))
+                            .longestPauseMillis(millis(event.getDuration("longestPause")))
+                            .totalPauseMillis(millis(event.getDuration("sumOfPauses")))
+                            .build());
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        return ProfileSummaryDTO.builder()
+                .executionSamples(cpuTop.total)
+                .topCpuMethods(cpuTop.top())
+                .topApplicationMethods(cpuApplication.top())
+                .allocationSamples(allocationSamples)
+                .topAllocationSites(allocations.top())
+                .lockContention(contention.values().stream()
+                        .sorted(Comparator.comparingLong((Contention c) -> c.totalNanos).reversed())
+                        .limit(TOP_ENTRIES)
+                        .map(Contention::toDto)
+                        .toList())
+                .gcPauseCount((long) gcPauses.size())
+                .gcPauseTotalMillis(gcPauses.stream().mapToDouble(GcPauseDTO::getTotalPauseMillis).sum())
+                .gcPauseMaxMillis(gcPauses.stream().mapToDouble(GcPauseDTO::getLongestPauseMillis).max().orElse(0))
+                .longestGcPauses(gcPauses.stream()
+                        .sorted(Comparator.comparing(GcPauseDTO::getLongestPauseMillis).reversed())
+                        .limit(TOP_GC_PAUSES)
+                        .toList())
+                .build();
+    }
+
+    private static void addContention(Map<String, Contention> contention, String type,
+                                      RecordedClass lockClass, RecordedEvent event) {
+
+        String className = lockClass != null ? lockClass.getName() : "?";
+        String method = Optional.ofNullable(applicationMethod(event.getStackTrace()))
+                .orElseGet(() -> callerMethod(event.getStackTrace()));
+
+        contention.computeIfAbsent(type + "|" + className + "|" + method,
+                        key -> new Contention(type, className, method))
+                .add(event.getDuration().toNanos());
+    }
+
+    private static String topMethod(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(neznámá)";
+        }
+        return format(stackTrace.getFrames().get(0).getMethod());
+    }
+
+    /**
+     * Nejvyšší metoda mimo implementaci zámků (místo, které na zámek čeká).
+     */
+    private static String callerMethod(RecordedStackTrace stackTrace) {
+        if (stackTrace != null) {
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                String type = frame.getMethod().getType().getName();
+                if (!type.startsWith("jdk.internal.") && !type.startsWith("java.util.concurrent.locks.")) {
+                    return format(frame.getMethod());
+                }
+            }
+        }
+        return topMethod(stackTrace);
+    }
+
+    /**
+     * Čekání nečinného vlákna poolu nebo konzumenta fronty na další práci,
+     * které nepředstavuje soupeření o zámek.
+     */
+    private static boolean isIdleWait(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return false;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            RecordedMethod method = frame.getMethod();
+            String name = method.getName();
+            if (IDLE_WAIT_METHODS.contains(name)
+                    || (QUEUE_WAIT_METHODS.contains(name) && method.getType().getName().endsWith("Queue"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Nejvyšší metoda aplikace v zásobníku (mimo proxy a vygenerované třídy).
+     */
+    private static String applicationMethod(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APPLICATION_PACKAGE) && !type.contains("$$")) {
+                return format(frame.getMethod());
+            }
+        }
+        return null;
+    }
+
+    private static String format(RecordedMethod method) {
+        return method.getType().getName() + "." + method.getName();
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    /**
+     * Součty hodnot podle metody.
+     */
+    private static class Counter {
+
+        private final Map<String, long[]> values = new HashMap<>();
+
+        private long total;
+
+        void add(String key, long value) {
+            values.computeIfAbsent(key, k -> new long[1])[0] += value;
+            total += value;
+        }
+
+        List<HotMethodDTO> top() {
+            return values.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed())
+                    .limit(TOP_ENTRIES)
+                    .map(e -> HotMethodDTO.builder()
+                            .method(e.getKey())
+                            .value(e.getValue()[0])
+                            .percent(total == 0 ? 0 : e.getValue()[0] * 100.0 / total)
+                            .build())
+                    .toList();
+        }
+    }
+
+    /**
+     * Čekání na jeden druh zámku z jednoho místa v kódu.
+     */
+    private static class Contention {
+
+        private final String type;
+        private final String lockClass;
+        private final String method;
+
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        Contention(String type, String lockClass, String method) {
+            this.type = type;
+            this.lockClass = lockClass;
+            this.method = method;
+        }
+
+        void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        LockContentionDTO toDto() {
+            return LockContentionDTO.builder()
+                    .type(type)
+                    .lockClass(lockClass)
+                    .method(method)
+                    .count(count)
+                    .totalMillis(totalNanos / 1_000_000.0)
+                    .maxMillis(maxNanos / 1_000_000.0)
+                    .build();
+        }
+    }
+
+    /**
+     * Jeden záznam a jeho stav. Měnitelná pole jsou chráněna zámkem komponenty.
+     */
+    private static class Entry {
+
+        private final long id;
+        private final String profile;
+        private final Duration duration;
+        private final Path file;
+        private final Recording recording;
+        private final Instant startedAt = Instant.now();
+
+        private State state = State.RUNNING;
+        private ProfileSummaryDTO summary;
+        private String error;
+
+        Entry(long id, String profile, Duration duration, Path file, Recording recording) {
+            this.id = id;
+            this.profile = profile;
+            this.duration = duration;
+            this.file = file;
+            this.recording = recording;
+        }
+
+        void deleteFile() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Soubor záznamu JFR {} nelze smazat: {}", id, e.getMessage());
+            }
+        }
+
+        FlightRecordingDTO toDto() {
+            Long size = null;
+            if (state != State.RUNNING && Files.exists(file)) {
+                try {
+                    size = Files.size(file);
+                } catch (IOException e) {
+                    log.debug("Velikost souboru záznamu JFR {} nelze zjistit: {}", id, e.getMessage());
+                }
+            }
+            return FlightRecordingDTO.builder()
+                    .id(id)
+                    .profile(profile)
+                    .state(state.name())
+                    .startedAt(startedAt)
+                    .durationSeconds(duration.toSeconds())
+                    .fileSizeBytes(size)
+                    .error(error)
+                    .summary(summary)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package cz.itnetwork.profiling;
+
+import cz.itnetwork.dto.admin.PinnedThreadSiteDTO;
+import cz.itnetwork.dto.admin.ThreadingStatusDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detekce přišpendlení (pinning) virtuálních vláken k nosnému vláknu.
+ *
+ * Virtuální vlákno, které blokuje uvnitř bloku synchronized nebo nativní
+ * metody, neuvolní své nosné vlákno – při malém počtu nosných vláken
+ * (počet jader) tak může zastavit zpracování ostatních požadavků.
+ * Typickým místem jsou ovladače JDBC a connection pool.
+ *
+ * V režimu virtuálních vláken se průběžně odebírají události JFR
+ * jdk.VirtualThreadPinned delší než práh (profiling.pinning.threshold).
+ * Události se seskupují podle místa v kódu: knihovny, ve které
+ * k blokování došlo (HikariCP, ovladač JDBC, Hibernate, ...), blokující
+ * metody a nejvyšší metody aplikace. První výskyt každého místa
+ * se zapíše do logu, souhrn je dostupný přes /api/admin/threads.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String APPLICATION_PACKAGE = "cz.itnetwork.";
+
+    /**
+     * Maximální počet sledovaných míst; další místa se pouze započítají.
+     */
+    private static final int MAX_SITES = 200;
+
+    /**
+     * Známé knihovny na cestě k databázi podle prefixu balíčku.
+     */
+    private static final Map<String, String> LIBRARIES = Map.of(
+            "com.zaxxer.hikari.", "HikariCP",
+            "org.postgresql.", "PostgreSQL JDBC",
+            "org.h2.", "H2",
+            "org.hibernate.", "Hibernate",
+            "org.springframework.", "Spring",
+            "org.apache.catalina.", "Tomcat",
+            "org.apache.tomcat.", "Tomcat"
+    );
+
+    private final boolean virtualThreads;
+
+    private final boolean enabled;
+
+    private final Duration threshold;
+
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+
+    private final LongAdder events = new LongAdder();
+
+    private final LongAdder untrackedEvents = new LongAdder();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Environment environment,
+                                       @Value("${profiling.pinning.enabled:true}") boolean enabled,
+                                       @Value("${profiling.pinning.threshold:20ms}") Duration threshold) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    void init() {
+
+        if (!enabled || !virtualThreads) {
+            return;
+        }
+
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::record);
+            stream.startAsync();
+            log.info("Sledování přišpendlení virtuálních vláken spuštěno (práh {} ms)", threshold.toMillis());
+        } catch (RuntimeException e) {
+            // JFR nemusí být v daném prostředí dostupný
+            log.warn("Sledování přišpendlení virtuálních vláken nelze spustit: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Režim vláken a souhrn přišpendlení podle míst v kódu.
+     *
+     * @param limit maximální počet míst
+     * @return stav s místy seřazenými podle celkové doby přišpendlení
+     */
+    public ThreadingStatusDTO getStatus(int limit) {
+
+        List<PinnedThreadSiteDTO> topSites = sites.values().stream()
+                .sorted(Comparator.comparingLong((Site site) -> site.totalNanos.sum()).reversed())
+                .limit(limit)
+                .map(Site::toDto)
+                .toList();
+
+        return ThreadingStatusDTO.builder()
+                .javaVersion(Runtime.version().toString())
+                .virtualThreads(virtualThreads)
+                .pinningMonitorActive(stream != null)
+                .pinningThresholdMillis(threshold.toMillis())
+                .pinnedEvents(events.sum())
+                .untrackedEvents(untrackedEvents.sum())
+                .sites(topSites)
+                .build();
+    }
+
+    private void record(RecordedEvent event) {
+
+        events.increment();
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String library = library(stackTrace);
+        String blockingMethod = blockingMethod(stackTrace);
+        String applicationMethod = applicationMethod(stackTrace);
+        String key = library + "|" + blockingMethod + "|" + applicationMethod;
+
+        Site site = sites.get(key);
+        if (site == null) {
+            if (sites.size() >= MAX_SITES) {
+                untrackedEvents.increment();
+                return;
+            }
+            site = sites.computeIfAbsent(key, k -> new Site(library, blockingMethod, applicationMethod));
+            if (site.first.compareAndSet(true, false)) {
+                log.warn("Virtuální vlákno přišpendleno na {} ms: knihovna={} metoda={} aplikace={}",
+                        event.getDuration().toMillis(), library, blockingMethod, applicationMethod);
+            }
+        }
+
+        site.add(event.getDuration().toNanos());
+    }
+
+    /**
+     * Nejvyšší rámec ve známé knihovně na cestě k databázi.
+     */
+    private static String library(RecordedStackTrace stackTrace) {
+        if (stackTrace != null) {
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                String type = frame.getMethod().getType().getName();
+                for (Map.Entry<String, String> library : LIBRARIES.entrySet()) {
+                    if (type.startsWith(library.getKey())) {
+                        return library.getValue();
+                    }
+                }
+            }
+        }
+        return "(jiná)";
+    }
+
+    /**
+     * Nejvyšší metoda mimo implementaci plánování virtuálních vláken
+     * a zámků (místo, které blokovalo).
+     */
+    private static String blockingMethod(RecordedStackTrace stackTrace) {
+        if (stackTrace != null) {
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                RecordedMethod method = frame.getMethod();
+                String type = method.getType().getName();
+                if (!type.startsWith("jdk.internal.")
+                        && !type.startsWith("java.lang.VirtualThread")
+                        && !type.startsWith("java.util.concurrent.locks.")
+                        && !type.equals("java.lang.Thread")) {
+                    return format(method);
+                }
+            }
+        }
+        return "(neznámá)";
+    }
+
+    /**
+     * Nejvyšší metoda aplikace v zásobníku (mimo proxy a vygenerované třídy).
+     */
+    private static String applicationMethod(RecordedStackTrace stackTrace) {
+        if (stackTrace != null) {
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                String type = frame.getMethod().getType().getName();
+                if (type.startsWith(APPLICATION_PACKAGE) && !type.contains("$$")) {
+                    return format(frame.getMethod());
+                }
+            }
+        }
+        return "(mimo aplikaci)";
+    }
+
+    private static String format(RecordedMethod method) {
+        return method.getType().getName() + "." + method.getName();
+    }
+
+    /**
+     * Souhrn přišpendlení na jednom místě v kódu.
+     */
+    private static class Site {
+
+        private final String library;
+
+        private final String blockingMethod;
+
+        private final String applicationMethod;
+
+        private final AtomicBoolean first = new AtomicBoolean(true);
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private volatile Instant lastSeen;
+
+        Site(String library, String blockingMethod, String applicationMethod) {
+            this.library = library;
+            this.blockingMethod = blockingMethod;
+            this.applicationMethod = applicationMethod;
+        }
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            lastSeen = Instant.now();
+        }
+
+        PinnedThreadSiteDTO toDto() {
+            return PinnedThreadSiteDTO.builder()
+                    .library(library)
+                    .blockingMethod(blockingMethod)
+                    .applicationMethod(applicationMethod)
+                    .count(count.sum())
+                    .totalMillis(totalNanos.sum() / 1_000_000.0)
+                    .maxMillis(maxNanos.get() / 1_000_000.0)
+                    .lastSeen(lastSeen)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package cz.itnetwork.security;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Omezení četnosti požadavků na autentizační endpointy (/api/auth/**).
+ *
+ * Každý pokus o přihlášení či registraci stojí BCrypt operaci a dotazy
+ * do databáze. Filtr proto před AuthController předřazuje dva token
+ * buckety – podle IP adresy klienta a podle emailu z těla požadavku.
+ * Po vyčerpání kteréhokoliv z nich je požadavek odmítnut stavem 429
+ * s hlavičkou Retry-After, aniž by došel do controlleru.
+ *
+ * Tělo se načítá vždy (i při chunked přenosu bez Content-Length),
+ * nejvýše však MAX_INSPECTED_BODY bajtů – větší tělo je odmítnuto
+ * stavem 413, neprázdné tělo, které není JSON objektem, stavem 400.
+ * Omezení podle emailu tak nelze obejít velikostí ani kódováním těla.
+ *
+ * Buckety jsou drženy v Caffeine cache s omezeným počtem klíčů
+ * a vypršením po nečinnosti. Čtení cache je bezzámkové a odebrání tokenu
+ * je jediná CAS operace, filtr tedy nevytváří společné úzké hrdlo.
+ *
+ * Jako IP adresa se používá request.getRemoteAddr(). Za reverzní proxy
+ * je třeba zapnout server.forward-headers-strategy, jinak by všichni
+ * klienti sdíleli bucket proxy.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PATH = "/api/auth/";
+
+    /**
+     * Maximální velikost těla autentizačního požadavku.
+     */
+    private static final int MAX_INSPECTED_BODY = 8 * 1024;
+
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"error\":\"Příliš mnoho pokusů, zkuste to prosím později\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] PAYLOAD_TOO_LARGE_BODY =
+            "{\"error\":\"Tělo požadavku je příliš velké\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] BAD_REQUEST_BODY =
+            "{\"error\":\"Neplatná vstupní data\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final boolean enabled;
+
+    private final TokenBucket.Limit ipLimit;
+
+    private final TokenBucket.Limit emailLimit;
+
+    private final Cache<String, TokenBucket> ipBuckets;
+
+    private final Cache<String, TokenBucket> emailBuckets;
+
+    public AuthRateLimitFilter(@Value("${security.auth-rate-limit.enabled:true}") boolean enabled,
+                               @Value("${security.auth-rate-limit.ip.capacity:20}") int ipCapacity,
+                               @Value("${security.auth-rate-limit.ip.refill-period:1s}") Duration ipRefill,
+                               @Value("${security.auth-rate-limit.email.capacity:5}") int emailCapacity,
+                               @Value("${security.auth-rate-limit.email.refill-period:12s}") Duration emailRefill,
+                               @Value("${security.auth-rate-limit.max-keys:100000}") long maxKeys) {
+
+        this.enabled = enabled;
+        this.ipLimit = TokenBucket.Limit.of(ipCapacity, ipRefill);
+        this.emailLimit = TokenBucket.Limit.of(emailCapacity, emailRefill);
+        this.ipBuckets = buckets(maxKeys, ipLimit);
+        this.emailBuckets = buckets(maxKeys, emailLimit);
+    }
+
+    /**
+     * Bucket, který se po nečinnosti stihl zcela doplnit, je k nerozeznání
+     * od nového – proto může z cache vypršet.
+     */
+    private static Cache<String, TokenBucket> buckets(long maxKeys, TokenBucket.Limit limit) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(limit.burstNanos(), TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !HttpMethod.POST.matches(request.getMethod())
+                // Dekódovaná cesta bez kontextu – shodná s mapováním controlleru
+                || !UrlPathHelper.defaultInstance.getPathWithinApplication(request).startsWith(AUTH_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // 1) Omezení podle IP adresy – bez čtení těla požadavku
+        long waitNanos = consume(ipBuckets, request.getRemoteAddr(), ipLimit);
+        if (waitNanos > 0) {
+            rejectTooManyRequests(response, waitNanos);
+            return;
+        }
+
+        // 2) Omezení podle emailu – tělo se načte a předá dál v obalu
+        if (request.getContentLengthLong() > MAX_INSPECTED_BODY) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, PAYLOAD_TOO_LARGE_BODY);
+            return;
+        }
+
+        // Délka nemusí být známa (chunked) – čte se o bajt víc než limit
+        byte[] body = request.getInputStream().readNBytes(MAX_INSPECTED_BODY + 1);
+        if (body.length > MAX_INSPECTED_BODY) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, PAYLOAD_TOO_LARGE_BODY);
+            return;
+        }
+
+        if (body.length > 0) {
+            String email;
+            try {
+                email = readEmail(body);
+            } catch (IOException e) {
+                reject(response, HttpStatus.BAD_REQUEST, BAD_REQUEST_BODY);
+                return;
+            }
+            if (email != null) {
+                waitNanos = consume(emailBuckets, email, emailLimit);
+                if (waitNanos > 0) {
+                    rejectTooManyRequests(response, waitNanos);
+                    return;
+                }
+            }
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private static long consume(Cache<String, TokenBucket> buckets, String key, TokenBucket.Limit limit) {
+        return buckets.get(key, k -> new TokenBucket())
+                .tryConsume(limit.refillNanos(), limit.burstNanos());
+    }
+
+    private static void rejectTooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        reject(response, HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS_BODY);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Vyhledání pole "email" v kořenovém objektu JSONu (streamově,
+     * bez vytváření stromu nebo DTO).
+     *
+     * Při opakovaném poli platí poslední výskyt – stejně jako při
+     * deserializaci DTO Jacksonem v controlleru.
+     *
+     * @return normalizovaný email, nebo null, pokud chybí
+     * @throws IOException pokud tělo není platný JSON objekt
+     */
+    private static String readEmail(byte[] body) throws IOException {
+
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Tělo není JSON objekt");
+            }
+
+            String email = null;
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("email".equals(field) && value == JsonToken.VALUE_STRING) {
+                    email = parser.getText().trim();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                throw new JsonParseException(parser, "Neúplný JSON objekt");
+            }
+
+            return email == null || email.isEmpty() ? null : email.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Požadavek s tělem načteným do paměti, aby jej bylo možné
+     * přečíst znovu při deserializaci v controlleru.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * Tělo je celé v paměti – posluchač je ihned upozorněn
+                 * na dostupná data i na konec těla.
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : "UTF-8";
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+    }
+}
@@ -51,6 +51,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .withUsername(user.getEmail())
                 .password(password)
                 .roles(user.getRole().name().replace("ROLE_", ""))
+                .disabled(!Boolean.TRUE.equals(user.getEnabled()))
                 .build();
     }
 }
@@ -1,13 +1,25 @@
 package cz.itnetwork.security;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
 import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Komponenta zajišťující ověření Google ID tokenu.
@@ -17,10 +29,33 @@ import java.util.Collections;
  *
  * Konfigurační údaje jsou načítány z externího konfiguračního souboru,
  * nikoliv přímo ze zdrojového kódu.
+ *
+ * HTTP transport, JSON factory i správce veřejných klíčů Googlu jsou
+ * vytvořeny jednou. Klíče jsou drženy v paměti a obnovovány na pozadí
+ * před vypršením jejich platnosti; pokud obnova selže, používají se
+ * dál dosavadní klíče a obnova se zopakuje později.
  */
 @Component
 public class GoogleTokenVerifier {
 
+    private static final Logger log = LoggerFactory.getLogger(GoogleTokenVerifier.class);
+
+    /**
+     * Vydavatelé, které Google uvádí v claimu "iss".
+     */
+    private static final List<String> ISSUERS =
+            List.of("accounts.google.com", "https://accounts.google.com");
+
+    /**
+     * Tolerance rozdílu hodin při kontrole platnosti tokenu (v sekundách).
+     */
+    private static final long ACCEPTABLE_TIME_SKEW_SECONDS = 300;
+
+    /**
+     * Nejkratší prodleva mezi dvěma obnovami klíčů.
+     */
+    private static final Duration MIN_REFRESH_DELAY = Duration.ofSeconds(30);
+
     /**
      * Client ID aplikace registrované u Google OAuth2.
      * Hodnota je načítána z externí konfigurace (.env).
@@ -28,6 +63,48 @@ public class GoogleTokenVerifier {
     @Value("${google.oauth.client-id}")
     private String clientId;
 
+    /**
+     * URL, ze které se stahují veřejné certifikáty Googlu.
+     * Lze přesměrovat na lokální testovací server klíčů.
+     */
+    @Value("${google.oauth.certs-url:https://www.googleapis.com/oauth2/v1/certs}")
+    private String certsUrl;
+
+    /**
+     * O kolik dříve před vypršením platnosti se klíče obnovují.
+     */
+    @Value("${google.oauth.certs-refresh-ahead:10m}")
+    private Duration refreshAhead;
+
+    private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+
+    private final ScheduledExecutorService refresher =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "google-certs-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private GooglePublicKeysManager keysManager;
+
+    /**
+     * Aktuálně platná sada veřejných klíčů (neměnný seznam).
+     */
+    private volatile List<PublicKey> publicKeys = Collections.emptyList();
+
+    @PostConstruct
+    void init() {
+        keysManager = new GooglePublicKeysManager.Builder(new NetHttpTransport(), jsonFactory)
+                .setPublicCertsEncodedUrl(certsUrl)
+                .build();
+        refresher.execute(this::scheduledRefresh);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
     /**
      * Ověření platnosti Google ID tokenu.
      *
@@ -46,23 +123,20 @@ public class GoogleTokenVerifier {
     public GoogleIdToken.Payload verify(String idTokenString) {
 
         try {
-            // Vytvoření verifieru pro ověřování Google ID tokenů
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(),
-                    new GsonFactory()
-            )
-                    // Nastavení audience – token musí být vydán pro tuto aplikaci
-                    .setAudience(Collections.singletonList(clientId))
-                    .build();
-
-            // Ověření tokenu vůči Google API
-            GoogleIdToken idToken = verifier.verify(idTokenString);
-            if (idToken == null) {
+            GoogleIdToken idToken = GoogleIdToken.parse(jsonFactory, idTokenString);
+
+            // Ověření podpisu vůči klíčům v paměti (bez síťového volání)
+            if (!verifySignature(idToken, currentKeys())) {
                 return null;
             }
 
+            // Audience (token musí být vydán pro tuto aplikaci), vydavatel a časová platnost
+            boolean valid = idToken.verifyAudience(Collections.singletonList(clientId))
+                    && idToken.verifyIssuer(ISSUERS)
+                    && idToken.verifyTime(System.currentTimeMillis(), ACCEPTABLE_TIME_SKEW_SECONDS);
+
             // Vrácení payloadu s uživatelskými údaji
-            return idToken.getPayload();
+            return valid ? idToken.getPayload() : null;
 
         } catch (Exception e) {
             /*
@@ -73,4 +147,68 @@ public class GoogleTokenVerifier {
             return null;
         }
     }
+
+    private static boolean verifySignature(GoogleIdToken idToken, List<PublicKey> keys)
+            throws GeneralSecurityException {
+        for (PublicKey key : keys) {
+            if (idToken.verifySignature(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Klíče v paměti. Pokud se dosud nepodařilo žádné načíst
+     * (např. těsně po startu), proběhne synchronní obnova.
+     */
+    private List<PublicKey> currentKeys() {
+        List<PublicKey> keys = publicKeys;
+        if (keys.isEmpty()) {
+            synchronized (this) {
+                if (publicKeys.isEmpty()) {
+                    loadKeys();
+                }
+                keys = publicKeys;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Obnova klíčů na pozadí a naplánování další obnovy.
+     */
+    private void scheduledRefresh() {
+
+        Duration nextRefresh = loadKeys();
+
+        if (!refresher.isShutdown()) {
+            refresher.schedule(this::scheduledRefresh, nextRefresh.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stažení klíčů. Při chybě zůstávají v platnosti dosavadní klíče.
+     *
+     * @return prodleva do další obnovy
+     */
+    private synchronized Duration loadKeys() {
+
+        Duration nextRefresh;
+
+        try {
+            keysManager.refresh();
+            publicKeys = List.copyOf(keysManager.getPublicKeys());
+
+            long validForMillis = keysManager.getExpirationTimeMilliseconds() - System.currentTimeMillis();
+            nextRefresh = Duration.ofMillis(validForMillis).minus(refreshAhead);
+
+        } catch (Exception e) {
+            log.warn("Obnova veřejných klíčů Googlu selhala, používají se dosavadní klíče: {}",
+                    e.getMessage());
+            nextRefresh = MIN_REFRESH_DELAY;
+        }
+
+        return nextRefresh.compareTo(MIN_REFRESH_DELAY) < 0 ? MIN_REFRESH_DELAY : nextRefresh;
+    }
 }
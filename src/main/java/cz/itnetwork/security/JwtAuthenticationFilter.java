@@ -1,10 +1,13 @@
 package cz.itnetwork.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,13 +25,27 @@ import java.io.IOException;
  * pro aktuální požadavek.
  *
  * Veřejné endpointy (např. autentizační) jsou zpracování filtru vyňaty.
+ *
+ * Role a příznak aktivního účtu jsou čteny z podepsaných claimů tokenu,
+ * filtr se tedy do databáze neptá. Je-li zapnuta živá kontrola
+ * (jwt.live-user-check), načítají se údaje z krátkodobé cache.
+ *
+ * Odvolané tokeny (odhlášení, deaktivace účtu) jsou odmítnuty;
+ * kontrola probíhá v paměti přes Bloom filtr.
  */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Ověřovat uživatele proti aktuálnímu stavu v databázi (přes cache).
+     */
+    @Value("${jwt.live-user-check:false}")
+    private boolean liveUserCheck;
 
     /**
      * Interní metoda filtru, která je volána jednou pro každý HTTP požadavek.
@@ -64,17 +81,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // ZPRACOVÁNÍ JWT TOKENU
         // ============================
         String header = request.getHeader("Authorization");
-        String token = null;
-        String email = null;
+        Claims claims = null;
 
         /*
          * JWT token je očekáván v hlavičce Authorization
          * ve formátu: "Bearer <token>".
+         * Token je ověřen a naparsován jednou; neplatný token
+         * znamená neautentizovaný požadavek.
          */
         if (header != null && header.startsWith("Bearer ")) {
-            token = header.substring(7);
-            email = jwtUtil.extractUsername(token);
+            try {
+                claims = jwtUtil.parseToken(header.substring(7));
+            } catch (JwtException | IllegalArgumentException e) {
+                claims = null;
+            }
         }
+        if (claims != null && tokenRevocationService.isRevoked(claims)) {
+            claims = null;
+        }
+        String email = claims != null ? claims.getSubject() : null;
 
         /*
          * Autentizace je nastavena pouze v případě,
@@ -83,11 +108,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
          */
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            // Načtení uživatelských údajů z databáze
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            // Uživatelské údaje z claimů tokenu, případně z cache
+            UserDetails userDetails = liveUserCheck ? null : jwtUtil.toUserDetails(claims);
+            if (userDetails == null) {
+                userDetails = userDetailsCache.load(email);
+            }
 
             // Ověření platnosti tokenu vůči uživatelským údajům
-            if (jwtUtil.validateToken(token, userDetails)) {
+            if (userDetails.isEnabled() && jwtUtil.validateClaims(claims, userDetails)) {
 
                 // Vytvoření autentizačního objektu
                 UsernamePasswordAuthenticationToken auth =
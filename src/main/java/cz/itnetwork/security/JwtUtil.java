@@ -1,18 +1,29 @@
 package cz.itnetwork.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -25,6 +36,10 @@ import java.util.function.Function;
  *
  * Tajný klíč pro podepisování tokenů je načítán z externí konfigurace
  * a není uložen přímo ve zdrojovém kódu aplikace.
+ *
+ * Klíč i parser jsou vytvořeny jednou při startu. Již ověřené tokeny
+ * jsou drženy v omezené cache až do okamžiku své expirace, takže
+ * opakované požadavky se stejným tokenem nepočítají HMAC znovu.
  */
 @Component
 public class JwtUtil {
@@ -42,13 +57,95 @@ public class JwtUtil {
     private final long EXPIRATION = 1000 * 60 * 60 * 24;
 
     /**
-     * Vytvoření kryptografického klíče pro podepisování tokenů
-     * pomocí algoritmu HMAC SHA-256.
+     * Claim s rolí uživatele (např. ROLE_USER).
+     */
+    static final String ROLE_CLAIM = "role";
+
+    /**
+     * Claim s příznakem aktivního účtu.
+     */
+    static final String ENABLED_CLAIM = "enabled";
+
+    /**
+     * Claim s okamžikem vydání v milisekundách – standardní "iat"
+     * má přesnost jen na sekundy (viz TokenRevocationService).
+     */
+    static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
+    /**
+     * Maximální počet ověřených tokenů držených v cache.
+     */
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    private SecretKey signingKey;
+
+    private JwtParser parser;
+
+    /**
+     * Cache ověřených tokenů. Klíčem je samotný token – mapa jej vyhledává
+     * podle hashe a shodu potvrzuje porovnáním celého řetězce.
+     * Záznam vyprší současně s tokenem.
+     */
+    private Cache<String, Claims> verifiedTokens;
+
+    /**
+     * Vytvoření kryptografického klíče (HMAC SHA-256), parseru
+     * a cache ověřených tokenů. Parser je bezstavový a lze jej
+     * sdílet mezi vlákny.
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims,
+                                                  long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Ověření podpisu a platnosti tokenu a získání jeho claimů.
+     *
+     * Token je parsován nejvýše jednou – výsledek se ukládá do cache
+     * ověřených tokenů.
      *
-     * @return tajný klíč pro podepisování JWT tokenů
+     * @param token JWT token
+     * @return claimy ověřeného tokenu
+     * @throws io.jsonwebtoken.JwtException pokud je token neplatný nebo expirovaný
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    public Claims parseToken(String token) {
+
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(token, claims);
+        }
+        return claims;
     }
 
     /**
@@ -80,32 +177,18 @@ public class JwtUtil {
      * @return hodnota požadovaného claimu
      */
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseToken(token);
         return resolver.apply(claims);
     }
 
     /**
-     * Extrakce všech claimů z JWT tokenu.
-     *
-     * @param token JWT token
-     * @return objekt Claims obsahující data uložená v tokenu
-     */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * Ověření, zda je JWT token expirovaný.
+     * Ověření, zda jsou claimy tokenu expirované.
      *
-     * @param token JWT token
+     * @param claims claimy tokenu
      * @return true, pokud je token expirovaný, jinak false
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     /**
@@ -120,35 +203,104 @@ public class JwtUtil {
      * @return true, pokud je token platný, jinak false
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateClaims(parseToken(token), userDetails);
+    }
+
+    /**
+     * Ověření již naparsovaných claimů vůči uživatelským údajům.
+     *
+     * @param claims      claimy ověřeného tokenu
+     * @param userDetails uživatelské údaje načtené ze systému
+     * @return true, pokud je token platný, jinak false
+     */
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims);
+    }
+
+    /**
+     * Sestavení uživatelských údajů přímo z podepsaných claimů tokenu,
+     * bez dotazu do databáze.
+     *
+     * @param claims claimy ověřeného tokenu
+     * @return uživatelské údaje, nebo null pokud token neobsahuje roli
+     *         (token vydaný starší verzí aplikace)
+     */
+    public UserDetails toUserDetails(Claims claims) {
+
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (role == null) {
+            return null;
+        }
+
+        return User.withUsername(claims.getSubject())
+                .password("")
+                .authorities(role)
+                .disabled(!Boolean.TRUE.equals(claims.get(ENABLED_CLAIM, Boolean.class)))
+                .build();
     }
 
     /**
      * Vygenerování nového JWT tokenu pro autentizovaného uživatele.
      *
+     * Do tokenu je podepsána role a příznak aktivního účtu,
+     * aby filtr mohl požadavek autentizovat bez dotazu do databáze.
+     *
      * @param userDetails uživatelské údaje
      * @return nově vytvořený JWT token
      */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLE_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .orElse(null));
+        claims.put(ENABLED_CLAIM, userDetails.isEnabled());
         return createToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * Okamžik vydání tokenu s přesností na milisekundy. Tokeny vydané
+     * starší verzí aplikace mají jen "iat" s přesností na sekundy.
+     *
+     * @param claims claimy ověřeného tokenu
+     * @return okamžik vydání, nebo null pokud token neobsahuje žádný
+     */
+    public Instant getIssuedAt(Claims claims) {
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (issuedAtMillis != null) {
+            return Instant.ofEpochMilli(issuedAtMillis);
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+    }
+
+    /**
+     * Doba platnosti nově vydaných tokenů.
+     *
+     * @return doba platnosti tokenu
+     */
+    public Duration getTokenLifetime() {
+        return Duration.ofMillis(EXPIRATION);
+    }
+
     /**
      * Vytvoření JWT tokenu s danými claimy a subjektem.
      *
+     * Token dostává náhodné ID (claim "jti"), podle kterého jej lze odvolat.
+     *
      * @param claims  mapa claimů uložených do tokenu
      * @param subject uživatelské jméno (subject tokenu)
      * @return JWT token ve formátu String
      */
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
+        claims.put(ISSUED_AT_MILLIS_CLAIM, now);
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + EXPIRATION))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 }
@@ -0,0 +1,204 @@
+package cz.itnetwork.security;
+
+import cz.itnetwork.logging.Tracer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hashování a ověřování hesel na vyhrazeném, omezeném executoru.
+ *
+ * BCrypt je výpočetně náročný, proto neběží na vláknech Tomcatu.
+ * Počet vláken odpovídá počtu jader, fronta čekajících operací
+ * má pevnou kapacitu. Při plné frontě je požadavek okamžitě odmítnut
+ * výjimkou RejectedExecutionException (HTTP 503).
+ *
+ * Komponenta sleduje hloubku fronty, dobu čekání ve frontě
+ * a dobu samotného hashování. Hashování probíhá v rámci trasy
+ * požadavku, který ho vyvolal (viz Tracer).
+ *
+ * Hashování zůstává na platformových vláknech i v režimu virtuálních
+ * vláken (spring.threads.virtual.enabled) – je vázáno na CPU a pevný
+ * počet vláken omezuje souběh. Pokračování výsledku (typicky zápis
+ * uživatele do databáze) se vždy předává aplikačnímu executoru
+ * (applicationTaskExecutor, v režimu virtuálních vláken virtuální
+ * vlákno), aby blokující JDBC nedrželo vlákno hashování.
+ */
+@Component
+public class PasswordHashingService {
+
+    /**
+     * Cost faktor uložený v BCrypt hashi ("$2a$10$...").
+     */
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Tracer tracer;
+
+    private final int strength;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Executor, na kterém se dokončují vrácené výsledky – nikdy ne vlákno hashování.
+     */
+    private final Executor completionExecutor;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder operations = new LongAdder();
+
+    private final LongAdder hashNanos = new LongAdder();
+
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  Tracer tracer,
+                                  @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                  Executor applicationTaskExecutor,
+                                  @Value("${security.bcrypt.strength:10}") int strength,
+                                  @Value("${security.password-hashing.threads:0}") int threads,
+                                  @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity) {
+
+        this.passwordEncoder = passwordEncoder;
+        this.tracer = tracer;
+        this.strength = strength;
+        this.completionExecutor = applicationTaskExecutor;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Fronta hashování hesel je plná");
+                }
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Zahashování hesla.
+     *
+     * @param rawPassword heslo v otevřené podobě
+     * @return budoucí výsledek s BCrypt hashem
+     * @throws RejectedExecutionException pokud je fronta plná
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Ověření hesla vůči uloženému hashi.
+     *
+     * @param rawPassword     heslo v otevřené podobě
+     * @param encodedPassword uložený BCrypt hash
+     * @return budoucí výsledek – true, pokud heslo odpovídá
+     * @throws RejectedExecutionException pokud je fronta plná
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Zjištění, zda byl hash vytvořen s jiným cost faktorem,
+     * než je aktuálně nakonfigurovaný.
+     *
+     * @param encodedPassword uložený BCrypt hash
+     * @return true, pokud je vhodné heslo znovu zahashovat
+     */
+    public boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return executor.getQueue().size() + executor.getQueue().remainingCapacity();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getCompletedCount() {
+        return operations.sum();
+    }
+
+    public double getAverageHashMillis() {
+        long count = operations.sum();
+        return count == 0 ? 0 : hashNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public double getMaxHashMillis() {
+        return maxHashNanos.get() / 1_000_000.0;
+    }
+
+    public double getAverageQueueWaitMillis() {
+        long count = operations.sum();
+        return count == 0 ? 0 : queueWaitNanos.sum() / 1_000_000.0 / count;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+
+        long submitted = System.nanoTime();
+
+        return CompletableFuture.supplyAsync(tracer.wrap(() -> {
+            long started = System.nanoTime();
+            try (Tracer.Scope span = tracer.startSpan("PasswordHashingService.bcrypt")) {
+                return task.get();
+            } finally {
+                long finished = System.nanoTime();
+                long duration = finished - started;
+                queueWaitNanos.add(started - submitted);
+                hashNanos.add(duration);
+                operations.increment();
+                maxHashNanos.accumulateAndGet(duration, Math::max);
+            }
+        }), executor).thenApplyAsync(result -> result, completionExecutor);
+    }
+}
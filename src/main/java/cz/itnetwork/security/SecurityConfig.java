@@ -1,5 +1,6 @@
 package cz.itnetwork.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -30,13 +31,17 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtFilter;
 
+    private final AuthRateLimitFilter authRateLimitFilter;
+
     /**
-     * Konstruktor s injektovaným JWT autentizačním filtrem.
+     * Konstruktor s injektovanými filtry.
      *
-     * @param jwtFilter filtr zodpovědný za zpracování JWT tokenů
+     * @param jwtFilter           filtr zodpovědný za zpracování JWT tokenů
+     * @param authRateLimitFilter filtr omezující četnost autentizačních pokusů
      */
-    public SecurityConfig(JwtAuthenticationFilter jwtFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtFilter, AuthRateLimitFilter authRateLimitFilter) {
         this.jwtFilter = jwtFilter;
+        this.authRateLimitFilter = authRateLimitFilter;
     }
 
     /**
@@ -47,7 +52,8 @@ public class SecurityConfig {
      * - povolení CORS,
      * - zákaz vytváření HTTP session,
      * - definici veřejných a chráněných endpointů,
-     * - registraci JWT filtru do bezpečnostního řetězce.
+     * - registraci JWT filtru do bezpečnostního řetězce,
+     * - omezení četnosti pokusů na autentizačních endpointech.
      *
      * @param http objekt pro konfiguraci HTTP bezpečnosti
      * @return nakonfigurovaný bezpečnostní filtr chain
@@ -76,12 +82,18 @@ public class SecurityConfig {
                         // Veřejné autentizační endpointy
                         .requestMatchers("/api/auth/**").permitAll()
 
+                        // Administrátorské endpointy (monitoring, diagnostika)
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+
                         // Vše ostatní vyžaduje autentizaci
                         .anyRequest().authenticated()
                 )
 
                 // Registrace JWT filtru před standardním autentizačním filtrem
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+
+                // Omezení četnosti přihlášení a registrací ještě před JWT filtrem
+                .addFilterBefore(authRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -129,11 +141,12 @@ public class SecurityConfig {
      * Používá adaptivní hashovací algoritmus BCrypt,
      * který je odolný vůči brute-force útokům.
      *
+     * @param strength cost faktor BCrypt (log2 počtu iterací)
      * @return instance PasswordEncoder
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     /**
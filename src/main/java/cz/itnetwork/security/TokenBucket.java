@@ -0,0 +1,59 @@
+package cz.itnetwork.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bezzámkový token bucket (varianta GCRA).
+ *
+ * Místo počtu zbývajících tokenů si bucket pamatuje jediné číslo –
+ * teoretický čas příchodu dalšího požadavku. Odebrání tokenu je tak
+ * jedna operace compare-and-set nad AtomicLong, bez zámků
+ * a bez vlákna pro doplňování tokenů.
+ */
+class TokenBucket {
+
+    /**
+     * Teoretický čas příchodu dalšího požadavku (System.nanoTime).
+     */
+    private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+
+    /**
+     * Pokus o odebrání jednoho tokenu.
+     *
+     * @param refillNanos doba doplnění jednoho tokenu v nanosekundách
+     * @param burstNanos  kapacita bucketu vyjádřená v čase (kapacita × refillNanos)
+     * @return 0, pokud byl token odebrán, jinak počet nanosekund do dalšího volného tokenu
+     */
+    long tryConsume(long refillNanos, long burstNanos) {
+
+        long now = System.nanoTime();
+
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + refillNanos;
+            long waitNanos = next - burstNanos - now;
+
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Parametry bucketu převedené do nanosekund.
+     *
+     * @param refillNanos doba doplnění jednoho tokenu
+     * @param burstNanos  kapacita vyjádřená v čase
+     */
+    record Limit(long refillNanos, long burstNanos) {
+
+        static Limit of(int capacity, Duration refillPeriod) {
+            long refill = refillPeriod.toNanos();
+            return new Limit(refill, refill * capacity);
+        }
+    }
+}
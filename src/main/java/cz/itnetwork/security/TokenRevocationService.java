@@ -0,0 +1,288 @@
+package cz.itnetwork.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import cz.itnetwork.entity.RevokedToken;
+import cz.itnetwork.entity.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Odvolávání JWT tokenů (odhlášení, deaktivace nebo změna role uživatele).
+ *
+ * Odvolání jsou uložena v databázi a každý uzel je zrcadlí v paměti:
+ * - Bloom filtr obsahuje ID všech odvolaných tokenů a emaily uživatelů
+ *   s odvolanými tokeny – naprostá většina požadavků jím projde
+ *   s negativní odpovědí v řádu nanosekund,
+ * - malá přesná cache rozhoduje o kladných odpovědích filtru; teprve
+ *   pokud v ní klíč chybí (vytlačený záznam nebo falešně pozitivní
+ *   odpověď filtru), následuje dotaz do databáze.
+ *
+ * Nová odvolání se načítají průběžně (záznamy novější než poslední
+ * načtení s přesahem pro pozdě potvrzené transakce). Protože z Bloom
+ * filtru nelze mazat, je filtr periodicky sestaven znovu jen z dosud
+ * platných záznamů a expirované záznamy jsou z databáze smazány.
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final String TOKEN_PREFIX = "j:";
+
+    private static final String SUBJECT_PREFIX = "s:";
+
+    /**
+     * Hodnota přesné cache pro klíč, který odvolán není
+     * (falešně pozitivní odpověď Bloom filtru).
+     */
+    private static final Instant NOT_REVOKED = Instant.EPOCH;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final JwtUtil jwtUtil;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.revocation.exact-cache.max-size:10000}")
+    private long exactCacheMaxSize;
+
+    @Value("${jwt.revocation.poll-interval:5s}")
+    private Duration pollInterval;
+
+    @Value("${jwt.revocation.poll-overlap:1m}")
+    private Duration pollOverlap;
+
+    @Value("${jwt.revocation.rebuild-interval:10m}")
+    private Duration rebuildInterval;
+
+    private final ScheduledExecutorService refresher =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "token-revocation-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private volatile BloomFilter<CharSequence> filter;
+
+    /**
+     * Přesná cache: u tokenu okamžik odvolání, u uživatele okamžik,
+     * do kterého vydané tokeny neplatí; NOT_REVOKED pro neodvolané klíče.
+     */
+    private Cache<String, Instant> exact;
+
+    private Instant lastPoll;
+
+    private Instant nextRebuild;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, JwtUtil jwtUtil) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @PostConstruct
+    void init() {
+        exact = Caffeine.newBuilder()
+                .maximumSize(exactCacheMaxSize)
+                .build();
+        rebuild(Instant.now());
+        refresher.scheduleWithFixedDelay(this::refresh,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Ověření, zda byl token odvolán.
+     *
+     * @param claims claimy ověřeného tokenu
+     * @return true, pokud je token odvolán
+     */
+    public boolean isRevoked(Claims claims) {
+
+        BloomFilter<CharSequence> current = filter;
+
+        String tokenId = claims.getId();
+        if (tokenId != null && current.mightContain(TOKEN_PREFIX + tokenId)
+                && lookupToken(tokenId) != NOT_REVOKED) {
+            return true;
+        }
+
+        String subject = claims.getSubject();
+        if (subject != null && current.mightContain(SUBJECT_PREFIX + subject)) {
+            Instant revokedBefore = lookupSubject(subject);
+            Instant issuedAt = jwtUtil.getIssuedAt(claims);
+            return revokedBefore != NOT_REVOKED
+                    && (issuedAt == null || !issuedAt.isAfter(revokedBefore));
+        }
+
+        return false;
+    }
+
+    /**
+     * Odvolání jednoho tokenu (odhlášení).
+     *
+     * Token bez ID (vydaný starší verzí aplikace) je odvolán spolu
+     * se všemi dříve vydanými tokeny téhož uživatele.
+     *
+     * @param claims claimy ověřeného tokenu
+     */
+    public void revokeToken(Claims claims) {
+
+        Instant now = Instant.now();
+        Instant expiresAt = claims.getExpiration().toInstant();
+
+        RevokedToken revoked = claims.getId() != null
+                ? RevokedToken.builder().tokenId(claims.getId()).build()
+                : RevokedToken.builder().subject(claims.getSubject())
+                        .revokedBefore(claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : now)
+                        .build();
+
+        revoked.setRevokedAt(now);
+        revoked.setExpiresAt(expiresAt);
+        save(revoked);
+    }
+
+    /**
+     * Odvolání všech dosud vydaných tokenů uživatele.
+     *
+     * Okamžik se ukládá s přesností na milisekundy, stejně jako okamžik
+     * vydání tokenu (claim "iat_ms"), takže token vydaný ve stejné sekundě
+     * po odvolání (např. nové přihlášení po změně hesla) zůstává platný.
+     *
+     * @param email email uživatele (subject tokenu)
+     */
+    public void revokeAllTokens(String email) {
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        save(RevokedToken.builder()
+                .subject(email)
+                .revokedBefore(now)
+                .revokedAt(now)
+                .expiresAt(now.plus(jwtUtil.getTokenLifetime()))
+                .build());
+    }
+
+    private void save(RevokedToken revoked) {
+
+        revokedTokenRepository.save(revoked);
+
+        // Lokálně platí odvolání ihned po potvrzení transakce
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(filter, revoked);
+                }
+            });
+        } else {
+            add(filter, revoked);
+        }
+    }
+
+    private Instant lookupToken(String tokenId) {
+        return exact.get(TOKEN_PREFIX + tokenId, key ->
+                revokedTokenRepository.existsByTokenId(tokenId) ? Instant.now() : NOT_REVOKED);
+    }
+
+    private Instant lookupSubject(String subject) {
+        return exact.get(SUBJECT_PREFIX + subject, key -> {
+            Instant revokedBefore = revokedTokenRepository.findLatestRevokedBefore(subject);
+            return revokedBefore != null ? revokedBefore : NOT_REVOKED;
+        });
+    }
+
+    /**
+     * Zařazení odvolání do Bloom filtru a přesné cache.
+     * Případný záznam NOT_REVOKED je přepsán.
+     */
+    private void add(BloomFilter<CharSequence> target, RevokedToken revoked) {
+
+        if (revoked.getTokenId() != null) {
+            String key = TOKEN_PREFIX + revoked.getTokenId();
+            target.put(key);
+            exact.put(key, revoked.getRevokedAt());
+        }
+
+        if (revoked.getSubject() != null) {
+            String key = SUBJECT_PREFIX + revoked.getSubject();
+            target.put(key);
+            exact.asMap().merge(key, revoked.getRevokedBefore(),
+                    (current, added) -> current.isAfter(added) ? current : added);
+        }
+    }
+
+    /**
+     * Průběžné načtení nových odvolání, případně úplné přestavění filtru.
+     */
+    private void refresh() {
+        try {
+            Instant now = Instant.now();
+
+            if (now.isAfter(nextRebuild)) {
+                rebuild(now);
+                return;
+            }
+
+            BloomFilter<CharSequence> current = filter;
+            revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastPoll.minus(pollOverlap), now)
+                    .forEach(revoked -> add(current, revoked));
+            lastPoll = now;
+
+        } catch (Exception e) {
+            log.warn("Načtení odvolaných tokenů selhalo, zkusí se znovu: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sestavení nového Bloom filtru z platných odvolání.
+     * Odvolání potvrzená během sestavování doplní následující
+     * průběžné načtení díky přesahu (poll-overlap).
+     */
+    private void rebuild(Instant now) {
+
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        List<RevokedToken> active = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(Instant.EPOCH, now);
+
+        BloomFilter<CharSequence> rebuilt = BloomFilter.create(
+                Funnels.stringFunnel(StandardCharsets.UTF_8),
+                Math.max(expectedEntries, 2L * active.size()),
+                falsePositiveRate);
+
+        exact.invalidateAll();
+        active.forEach(revoked -> add(rebuilt, revoked));
+
+        filter = rebuilt;
+        lastPoll = now;
+        nextRebuild = now.plus(rebuildInterval);
+
+        log.debug("Filtr odvolaných tokenů sestaven: {} platných záznamů, {} expirovaných smazáno",
+                active.size(), deleted);
+    }
+}
@@ -0,0 +1,68 @@
+package cz.itnetwork.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Krátkodobá cache uživatelských údajů pro živou kontrolu uživatele.
+ *
+ * Používá se pouze tehdy, je-li zapnuta volba jwt.live-user-check.
+ * Záznam vyprší po nastavené době, při deaktivaci uživatele nebo
+ * změně jeho role je navíc zneplatněn okamžitě a znovu po potvrzení
+ * transakce – souběžný požadavek by jinak mohl do cache uložit údaje
+ * načtené před potvrzením změny a ty by platily po celou dobu TTL.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final CustomUserDetailsService userDetailsService;
+
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(CustomUserDetailsService userDetailsService,
+                            @Value("${security.user-details-cache.ttl:30s}") Duration ttl,
+                            @Value("${security.user-details-cache.max-size:10000}") long maxSize) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Načtení uživatelských údajů – z cache, případně z databáze.
+     *
+     * @param email emailová adresa uživatele
+     * @return uživatelské údaje
+     */
+    public UserDetails load(String email) {
+        return cache.get(email, userDetailsService::loadUserByUsername);
+    }
+
+    /**
+     * Zneplatnění uživatelských údajů v cache – ihned a v rámci transakce
+     * znovu po jejím potvrzení.
+     *
+     * @param email emailová adresa uživatele
+     */
+    public void evict(String email) {
+
+        cache.invalidate(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(email);
+                }
+            });
+        }
+    }
+}
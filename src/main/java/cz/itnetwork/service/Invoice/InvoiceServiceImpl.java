@@ -1,7 +1,11 @@
 package cz.itnetwork.service.Invoice;
 
+import cz.itnetwork.cache.HotKeyTracker;
+import cz.itnetwork.cache.ResponseBodyCache;
+import cz.itnetwork.datasource.ReportingQuery;
 import cz.itnetwork.dto.Invoice.InvoiceDTO;
 import cz.itnetwork.dto.Invoice.InvoiceStatisticsDTO;
+import cz.itnetwork.dto.Person.PersonReadDTO;
 import cz.itnetwork.dto.mapper.InvoiceMapper;
 import cz.itnetwork.entity.Invoice;
 import cz.itnetwork.entity.Person;
@@ -9,16 +13,30 @@ import cz.itnetwork.entity.repository.InvoiceRepository;
 import cz.itnetwork.entity.repository.PersonRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
-
+import java.util.Set;
+
+/**
+ * Implementace aplikační služby pro práci s fakturami.
+ *
+ * Čtecí metody běží v read-only transakci: jedno spojení z poolu
+ * na celé volání, Hibernate nevytváří snapshoty pro dirty checking
+ * a flush je nastaven na MANUAL. Zápisové metody jsou prováděny
+ * v jedné zápisové transakci.
+ */
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class InvoiceServiceImpl implements InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
     private final PersonRepository personRepository;
     private final InvoiceMapper invoiceMapper;
+    private final ResponseBodyCache responseBodyCache;
+    private final HotKeyTracker hotKeyTracker;
 
     @Override
     public List<InvoiceDTO> getAll(
@@ -46,6 +64,10 @@ public class InvoiceServiceImpl implements InvoiceService {
                     .orElse(null);
         }
 
+        // Osoby dohledané podle jména patří mezi čtené klíče
+        hotKeyTracker.recordPerson(buyerId);
+        hotKeyTracker.recordPerson(sellerId);
+
         List<Invoice> invoices = invoiceRepository.filterInvoices(
                 buyerId,
                 sellerId,
@@ -64,48 +86,73 @@ public class InvoiceServiceImpl implements InvoiceService {
     @Override
     public InvoiceDTO getById(Integer id) {
         return invoiceMapper.toDto(
-                invoiceRepository.findById(id).orElseThrow()
+                invoiceRepository.findDetailById(id).orElseThrow()
         );
     }
 
+    /**
+     * Vytvoření faktury.
+     *
+     * Prodávající a kupující jsou dosazeni jako líné reference podle ID,
+     * jejich viditelnost je ověřena jediným dávkovým dotazem.
+     */
     @Override
+    @Transactional
     public InvoiceDTO create(InvoiceDTO dto) {
 
         if (dto.getHidden() == null) {
             dto.setHidden(false);
         }
 
-        Invoice saved = invoiceRepository.save(
-                invoiceMapper.toEntity(dto)
-        );
+        Invoice invoice = invoiceMapper.toEntity(dto);
+        assignParties(invoice, dto, null, null);
+
+        Invoice saved = invoiceRepository.save(invoice);
 
         return invoiceMapper.toDto(saved);
     }
 
+    /**
+     * Aktualizace faktury.
+     *
+     * Ověřují se pouze osoby, které se oproti uložené faktuře mění,
+     * takže úprava historické faktury se skrytou osobou zůstává možná.
+     */
     @Override
+    @Transactional
     public InvoiceDTO update(Integer id, InvoiceDTO dto) {
 
         if (dto.getHidden() == null) {
             dto.setHidden(false);
         }
 
-        dto.setId(id);
+        Invoice invoice = invoiceRepository.findById(id).orElseThrow();
 
-        Invoice saved = invoiceRepository.save(
-                invoiceMapper.toEntity(dto)
+        invoiceMapper.updateEntity(dto, invoice);
+        assignParties(
+                invoice,
+                dto,
+                invoice.getSeller() != null ? invoice.getSeller().getId() : null,
+                invoice.getBuyer() != null ? invoice.getBuyer().getId() : null
         );
 
+        Invoice saved = invoiceRepository.save(invoice);
+        responseBodyCache.evictInvoice(id);
+
         return invoiceMapper.toDto(saved);
     }
 
     @Override
+    @Transactional
     public void delete(Integer id) {
-        Invoice invoice = invoiceRepository.findById(id).orElseThrow();
+        Invoice invoice = invoiceRepository.findForSoftDeleteById(id).orElseThrow();
         invoice.setHidden(true);
         invoiceRepository.save(invoice);
+        responseBodyCache.evictInvoice(id);
     }
 
     @Override
+    @ReportingQuery
     public InvoiceStatisticsDTO getInvoiceStatistics() {
 
         List<Object[]> result = invoiceRepository.getInvoiceStatisticsRaw();
@@ -126,4 +173,52 @@ public class InvoiceServiceImpl implements InvoiceService {
                 .invoicesCount(row[2] != null ? ((Number) row[2]).intValue() : 0)
                 .build();
     }
+
+    /**
+     * Dosazení prodávajícího a kupujícího do faktury jako referencí.
+     *
+     * Údaje osob z DTO se nepoužívají – rozhoduje pouze ID. Osoby,
+     * které se liší od aktuálně uložených, musí existovat a nesmí být
+     * skryté; ověření proběhne jedním dotazem pro obě osoby.
+     *
+     * @param invoice         faktura, do které se osoby dosazují
+     * @param dto             vstupní data faktury
+     * @param currentSellerId ID aktuálně uloženého prodávajícího (nebo null)
+     * @param currentBuyerId  ID aktuálně uloženého kupujícího (nebo null)
+     */
+    private void assignParties(Invoice invoice,
+                               InvoiceDTO dto,
+                               Integer currentSellerId,
+                               Integer currentBuyerId) {
+
+        Integer sellerId = personId(dto.getSeller());
+        Integer buyerId = personId(dto.getBuyer());
+
+        if (sellerId == null || buyerId == null) {
+            throw new IllegalArgumentException("Faktura musí mít prodávajícího i kupujícího");
+        }
+
+        Set<Integer> changedIds = new HashSet<>();
+        if (!sellerId.equals(currentSellerId)) {
+            changedIds.add(sellerId);
+        }
+        if (!buyerId.equals(currentBuyerId)) {
+            changedIds.add(buyerId);
+        }
+
+        if (!changedIds.isEmpty()
+                && personRepository.countVisibleByIdIn(changedIds) != changedIds.size()) {
+            throw new IllegalArgumentException("Prodávající nebo kupující neexistuje nebo je skrytý");
+        }
+
+        invoice.setSeller(personRepository.getReferenceById(sellerId));
+        invoice.setBuyer(personRepository.getReferenceById(buyerId));
+    }
+
+    private static Integer personId(PersonReadDTO person) {
+        if (person == null || person.getId() == null) {
+            return null;
+        }
+        return person.getId().intValue();
+    }
 }
@@ -1,5 +1,8 @@
 package cz.itnetwork.service.Person;
 
+import cz.itnetwork.cache.HotKeyTracker;
+import cz.itnetwork.cache.ResponseBodyCache;
+import cz.itnetwork.datasource.ReportingQuery;
 import cz.itnetwork.dto.Invoice.InvoiceReadDTO;
 import cz.itnetwork.dto.Person.PersonDTO;
 import cz.itnetwork.dto.Person.PersonStatisticsDTO;
@@ -11,6 +14,7 @@ import cz.itnetwork.entity.repository.InvoiceRepository;
 import cz.itnetwork.entity.repository.PersonRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -22,9 +26,13 @@ import java.util.List;
  *
  * Používá soft delete pomocí příznaku hidden,
  * aby byla zachována referenční integrita historických faktur.
+ *
+ * Čtecí metody běží v read-only transakci (bez dirty checkingu,
+ * flush MANUAL), zápisy načtení i uložení provádějí v jedné transakci.
  */
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class PersonServiceImpl implements PersonService {
 
     private final PersonRepository personRepository;
@@ -33,6 +41,9 @@ public class PersonServiceImpl implements PersonService {
     private final InvoiceRepository invoiceRepository;
     private final InvoiceMapper invoiceMapper;
 
+    private final ResponseBodyCache responseBodyCache;
+    private final HotKeyTracker hotKeyTracker;
+
     /**
      * Načtení seznamu všech viditelných osob evidovaných v systému.
      *
@@ -74,6 +85,7 @@ public class PersonServiceImpl implements PersonService {
      * @return vytvořená osoba
      */
     @Override
+    @Transactional
     public PersonDTO create(PersonDTO dto) {
 
         if (dto.getHidden() == null) {
@@ -97,6 +109,7 @@ public class PersonServiceImpl implements PersonService {
      * @return aktualizovaná osoba
      */
     @Override
+    @Transactional
     public PersonDTO update(Integer id, PersonDTO dto) {
 
         Person existing = personRepository.findById(id)
@@ -106,9 +119,10 @@ public class PersonServiceImpl implements PersonService {
         updated.setId(existing.getId());
         updated.setHidden(existing.getHidden());
 
-        return personMapper.toDto(
-                personRepository.save(updated)
-        );
+        Person saved = personRepository.save(updated);
+        responseBodyCache.evictPerson(id);
+
+        return personMapper.toDto(saved);
     }
 
     /**
@@ -120,6 +134,7 @@ public class PersonServiceImpl implements PersonService {
      * @param id identifikátor osoby
      */
     @Override
+    @Transactional
     public void delete(Integer id) {
 
         Person person = personRepository.findById(id)
@@ -127,6 +142,7 @@ public class PersonServiceImpl implements PersonService {
 
         person.setHidden(true);
         personRepository.save(person);
+        responseBodyCache.evictPerson(id);
     }
 
     /**
@@ -138,8 +154,14 @@ public class PersonServiceImpl implements PersonService {
     @Override
     public List<InvoiceReadDTO> getSalesByICO(String ico) {
 
-        List<Invoice> invoices =
-                invoiceRepository.findBySeller_IdentificationNumber(ico);
+        hotKeyTracker.recordIco(ico);
+
+        List<Integer> sellerIds = personRepository.findIdsByIdentificationNumber(ico);
+        if (sellerIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Invoice> invoices = invoiceRepository.findBySeller_IdIn(sellerIds);
 
         return invoices.stream()
                 .map(invoiceMapper::toReadDTO)
@@ -155,8 +177,14 @@ public class PersonServiceImpl implements PersonService {
     @Override
     public List<InvoiceReadDTO> getPurchasesByICO(String ico) {
 
-        List<Invoice> invoices =
-                invoiceRepository.findByBuyer_IdentificationNumber(ico);
+        hotKeyTracker.recordIco(ico);
+
+        List<Integer> buyerIds = personRepository.findIdsByIdentificationNumber(ico);
+        if (buyerIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Invoice> invoices = invoiceRepository.findByBuyer_IdIn(buyerIds);
 
         return invoices.stream()
                 .map(invoiceMapper::toReadDTO)
@@ -172,6 +200,7 @@ public class PersonServiceImpl implements PersonService {
      * @return seznam statistických dat o osobách
      */
     @Override
+    @ReportingQuery
     public List<PersonStatisticsDTO> getPersonStatistics() {
         return personRepository.getPersonStatisticsRaw()
                 .stream()
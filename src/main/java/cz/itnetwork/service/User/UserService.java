@@ -1,6 +1,7 @@
 package cz.itnetwork.service.User;
 
 import cz.itnetwork.dto.user.UserAuthDTO;
+import cz.itnetwork.entity.Role;
 import cz.itnetwork.entity.User;
 
 /**
@@ -15,12 +16,16 @@ import cz.itnetwork.entity.User;
 public interface UserService {
 
     /**
-     * Lokální registrace uživatele pomocí emailu a hesla.
+     * Lokální registrace uživatele pomocí emailu a již zahashovaného hesla.
      *
-     * @param dto datový přenosový objekt obsahující registrační údaje uživatele
+     * Heslo se hashuje předem mimo transakci (viz PasswordHashingService),
+     * aby spojení z poolu nebylo drženo po dobu výpočtu BCrypt.
+     *
+     * @param dto          datový přenosový objekt obsahující registrační údaje uživatele
+     * @param passwordHash BCrypt hash hesla
      * @return registrovaný uživatel
      */
-    User register(UserAuthDTO dto);
+    User register(UserAuthDTO dto, String passwordHash);
 
     /**
      * Registrace nebo přihlášení uživatele pomocí Google OAuth.
@@ -43,4 +48,28 @@ public interface UserService {
      * @return uživatel nebo null, pokud neexistuje
      */
     User findByEmail(String email);
+
+    /**
+     * Aktivace nebo deaktivace uživatelského účtu.
+     *
+     * @param id      identifikátor uživatele
+     * @param enabled true pro aktivní účet, false pro deaktivovaný
+     */
+    void setEnabled(Integer id, boolean enabled);
+
+    /**
+     * Změna role uživatele.
+     *
+     * @param id   identifikátor uživatele
+     * @param role nová role uživatele
+     */
+    void changeRole(Integer id, Role role);
+
+    /**
+     * Nahrazení uloženého hashe hesla (např. po změně cost faktoru BCrypt).
+     *
+     * @param id           identifikátor uživatele
+     * @param passwordHash nový hash hesla
+     */
+    void updatePasswordHash(Integer id, String passwordHash);
 }
@@ -4,9 +4,12 @@ import cz.itnetwork.dto.user.UserAuthDTO;
 import cz.itnetwork.entity.Role;
 import cz.itnetwork.entity.User;
 import cz.itnetwork.entity.repository.UserRepository;
+import cz.itnetwork.security.TokenRevocationService;
+import cz.itnetwork.security.UserDetailsCache;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implementace aplikační služby pro práci s uživateli.
@@ -20,10 +23,12 @@ import org.springframework.stereotype.Service;
  */
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationService tokenRevocationService;
 
     // ================================================
     // Lokální registrace (email + heslo)
@@ -32,25 +37,20 @@ public class UserServiceImpl implements UserService {
     /**
      * Registrace nového uživatele pomocí emailu a hesla.
      *
-     * Metoda provádí kontrolu existence uživatele
-     * a bezpečné zahashování hesla před jeho uložením.
+     * Heslo je již zahashované – transakce trvá jen po dobu zápisu.
      *
-     * @param dto datový přenosový objekt obsahující registrační údaje uživatele
+     * @param dto          datový přenosový objekt obsahující registrační údaje uživatele
+     * @param passwordHash BCrypt hash hesla
      * @return uložený uživatel
-     * @throws RuntimeException pokud uživatel s daným emailem již existuje
      */
     @Override
-    public User register(UserAuthDTO dto) {
-
-        // Kontrola, zda uživatel s daným emailem již existuje
-        if (userRepository.existsByEmail(dto.getEmail())) {
-            throw new RuntimeException("Uživatel již existuje.");
-        }
+    @Transactional
+    public User register(UserAuthDTO dto, String passwordHash) {
 
         // Vytvoření nové entity uživatele
         User user = User.builder()
                 .email(dto.getEmail())
-                .password(passwordEncoder.encode(dto.getPassword()))
+                .password(passwordHash)
                 .firstName(dto.getFirstName())
                 .lastName(dto.getLastName())
                 .phone(dto.getPhone())
@@ -82,6 +82,7 @@ public class UserServiceImpl implements UserService {
      * @return registrovaný nebo přihlášený uživatel
      */
     @Override
+    @Transactional
     public User registerOrLoginGoogle(String googleId, String email, String name, String picture) {
 
         // Bezpečné parsování jména (může být null nebo prázdné)
@@ -156,4 +157,63 @@ public class UserServiceImpl implements UserService {
     public User findByEmail(String email) {
         return userRepository.findByEmail(email).orElse(null);
     }
+
+    // ================================================
+    // Správa přístupu uživatele
+    // ================================================
+
+    /**
+     * Aktivace nebo deaktivace účtu.
+     *
+     * Uživatelské údaje v cache živé kontroly jsou zneplatněny
+     * po potvrzení transakce, při deaktivaci jsou odvolány všechny
+     * dosud vydané tokeny.
+     *
+     * @param id      identifikátor uživatele
+     * @param enabled true pro aktivní účet, false pro deaktivovaný
+     */
+    @Override
+    @Transactional
+    public void setEnabled(Integer id, boolean enabled) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Uživatel nenalezen"));
+        user.setEnabled(enabled);
+        userDetailsCache.evict(user.getEmail());
+        if (!enabled) {
+            tokenRevocationService.revokeAllTokens(user.getEmail());
+        }
+    }
+
+    /**
+     * Změna role uživatele.
+     *
+     * Uživatelské údaje v cache živé kontroly jsou zneplatněny
+     * po potvrzení transakce. Dosud vydané tokeny nesou původní roli,
+     * a jsou proto odvolány.
+     *
+     * @param id   identifikátor uživatele
+     * @param role nová role uživatele
+     */
+    @Override
+    @Transactional
+    public void changeRole(Integer id, Role role) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Uživatel nenalezen"));
+        user.setRole(role);
+        userDetailsCache.evict(user.getEmail());
+        tokenRevocationService.revokeAllTokens(user.getEmail());
+    }
+
+    /**
+     * Nahrazení uloženého hashe hesla.
+     *
+     * @param id           identifikátor uživatele
+     * @param passwordHash nový hash hesla
+     */
+    @Override
+    @Transactional
+    public void updatePasswordHash(Integer id, String passwordHash) {
+        userRepository.findById(id)
+                .ifPresent(user -> user.setPassword(passwordHash));
+    }
 }
@@ -0,0 +1,397 @@
+package cz.itnetwork;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import cz.itnetwork.cache.ResponseBodyCache;
+import cz.itnetwork.dto.admin.FlightRecordingDTO;
+import cz.itnetwork.entity.Countries;
+import cz.itnetwork.entity.Invoice;
+import cz.itnetwork.entity.Person;
+import cz.itnetwork.entity.Role;
+import cz.itnetwork.entity.User;
+import cz.itnetwork.entity.repository.InvoiceRepository;
+import cz.itnetwork.entity.repository.PersonRepository;
+import cz.itnetwork.entity.repository.RevokedTokenRepository;
+import cz.itnetwork.entity.repository.UserRepository;
+import cz.itnetwork.profiling.FlightRecordingService;
+import cz.itnetwork.security.GoogleTokenVerifier;
+import cz.itnetwork.security.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Hlídání počtu SQL příkazů na jednotlivých REST endpointech.
+ *
+ * Každý endpoint je zavolán nad čerstvě naplněnou databází (H2 v režimu
+ * PostgreSQL) se studenými cachemi. Počet připravených SQL příkazů
+ * ze statistik Hibernate nesmí překročit rozpočet daného endpointu –
+ * N+1 dotazy se tak projeví selháním buildu.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EndpointQueryBudgetTest {
+
+    private static final int PERSONS = 5;
+
+    private static final int INVOICES = 20;
+
+    private static final String USER_EMAIL = "user@test.cz";
+
+    private static final String USER_PASSWORD = "heslo";
+
+    private static final String GOOGLE_ID_TOKEN = "google-id-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
+    @Autowired
+    private RequestMappingHandlerMapping requestMappingHandlerMapping;
+
+    @MockBean
+    private GoogleTokenVerifier googleTokenVerifier;
+
+    private Fixture fixture;
+
+    /**
+     * Rozpočty SQL příkazů jednotlivých endpointů (se studenými cachemi).
+     *
+     * Seznam faktur: 1 dotaz na faktury + 1 dávkové načtení osob.
+     * Čtení z ICO: ID osob, faktury, dávkové načtení osob.
+     * Administrátorské statistiky se do databáze neptají vůbec.
+     *
+     * Tabulka musí pokrývat všechny namapované endpointy /api/**
+     * (viz everyEndpointHasBudget).
+     */
+    static Stream<Budget> budgets() {
+        return Stream.of(
+                // Faktury
+                new Budget("GET /api/invoices", 2, f -> get("/api/invoices")),
+                new Budget("GET /api/invoices (filtr)", 3, f -> get("/api/invoices")
+                        .param("buyerName", "Osoba").param("minPrice", "100").param("limit", "5")),
+                new Budget("GET /api/invoices/{id}", 1, f -> get("/api/invoices/{id}", f.invoiceId(0))),
+                new Budget("POST /api/invoices", 3, f -> json(post("/api/invoices"), invoiceJson(f, 0, 1))),
+                new Budget("PUT /api/invoices/{id}", 4, f -> json(put("/api/invoices/{id}", f.invoiceId(0)),
+                        invoiceJson(f, 2, 3))),
+                new Budget("DELETE /api/invoices/{id}", 2, f -> delete("/api/invoices/{id}", f.invoiceId(0))),
+                new Budget("GET /api/invoices/statistics", 1, f -> get("/api/invoices/statistics")),
+
+                // Osoby
+                new Budget("GET /api/persons", 1, f -> get("/api/persons")),
+                new Budget("GET /api/persons/{id}", 1, f -> get("/api/persons/{id}", f.personId(0))),
+                new Budget("POST /api/persons", 1, f -> json(post("/api/persons"), personJson("Nová osoba", "99999999"))),
+                new Budget("PUT /api/persons/{id}", 2, f -> json(put("/api/persons/{id}", f.personId(0)),
+                        personJson("Upravená osoba", "ICO0"))),
+                new Budget("DELETE /api/persons/{id}", 2, f -> delete("/api/persons/{id}", f.personId(0))),
+                new Budget("GET /api/persons/identification/{ico}/sales", 3,
+                        f -> get("/api/persons/identification/{ico}/sales", "ICO0")),
+                new Budget("GET /api/persons/identification/{ico}/purchases", 3,
+                        f -> get("/api/persons/identification/{ico}/purchases", "ICO1")),
+                new Budget("GET /api/persons/statistics", 1, f -> get("/api/persons/statistics")),
+                new Budget("GET /api/persons/search", 1, f -> get("/api/persons/search").param("query", "Osoba")),
+
+                // Autentizace
+                new Budget("POST /api/auth/register", 2, f -> json(post("/api/auth/register"),
+                        "{\"email\":\"novy@test.cz\",\"password\":\"heslo\"}")),
+                new Budget("POST /api/auth/login", 1, f -> json(post("/api/auth/login"),
+                        "{\"email\":\"" + USER_EMAIL + "\",\"password\":\"" + USER_PASSWORD + "\"}")),
+                new Budget("POST /api/auth/logout", 1, f -> post("/api/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + f.userToken())),
+                new Budget("POST /api/auth/google", 3, f -> json(post("/api/auth/google"),
+                        "{\"idToken\":\"" + GOOGLE_ID_TOKEN + "\"}")),
+
+                // Administrace
+                new Budget("PUT /api/admin/users/{id}/enabled", 3,
+                        f -> put("/api/admin/users/{id}/enabled", f.otherUserId()).param("enabled", "false")),
+                new Budget("PUT /api/admin/users/{id}/role", 3,
+                        f -> put("/api/admin/users/{id}/role", f.otherUserId()).param("role", "ROLE_ADMIN")),
+                new Budget("GET /api/admin/cache/regions", 0, f -> get("/api/admin/cache/regions")),
+                new Budget("GET /api/admin/cache/responses", 0, f -> get("/api/admin/cache/responses")),
+                new Budget("GET /api/admin/cache/hot-keys", 0, f -> get("/api/admin/cache/hot-keys")),
+                new Budget("GET /api/admin/password-hashing", 0, f -> get("/api/admin/password-hashing")),
+                new Budget("GET /api/admin/latency", 0, f -> get("/api/admin/latency")),
+                new Budget("GET /api/admin/traces", 0, f -> get("/api/admin/traces")),
+                new Budget("GET /api/admin/repositories", 0, f -> get("/api/admin/repositories")),
+                new Budget("GET /api/admin/repositories/slow", 0, f -> get("/api/admin/repositories/slow")),
+                new Budget("GET /api/admin/event-log", 0, f -> get("/api/admin/event-log")),
+                new Budget("GET /api/admin/threads", 0, f -> get("/api/admin/threads")),
+                new Budget("GET /api/admin/jvm/memory", 0, f -> get("/api/admin/jvm/memory")),
+                new Budget("GET /api/admin/datasource/pools", 0, f -> get("/api/admin/datasource/pools")),
+                new Budget("GET /api/admin/datasource/cancellations", 0,
+                        f -> get("/api/admin/datasource/cancellations")),
+                new Budget("GET /api/admin/load-shedding", 0, f -> get("/api/admin/load-shedding")),
+                new Budget("POST /api/admin/profiling/recordings", 0,
+                        f -> post("/api/admin/profiling/recordings").param("duration", "1s").param("profile", "default")),
+                new Budget("GET /api/admin/profiling/recordings", 0, f -> get("/api/admin/profiling/recordings")),
+                new Budget("GET /api/admin/profiling/recordings/{id}", 0,
+                        f -> get("/api/admin/profiling/recordings/{id}", f.recordingId())),
+                new Budget("GET /api/admin/profiling/recordings/{id}/file", 0,
+                        f -> get("/api/admin/profiling/recordings/{id}/file", f.recordingId()))
+        );
+    }
+
+    @BeforeEach
+    void seed() {
+
+        invoiceRepository.deleteAllInBatch();
+        personRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        revokedTokenRepository.deleteAllInBatch();
+
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < PERSONS; i++) {
+            persons.add(personRepository.save(Person.builder()
+                    .name("Osoba " + i)
+                    .identificationNumber("ICO" + i)
+                    .country(Countries.CZECHIA)
+                    .hidden(false)
+                    .build()));
+        }
+
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < INVOICES; i++) {
+            invoices.add(invoiceRepository.save(Invoice.builder()
+                    .invoiceNumber(i + 1)
+                    .issued(LocalDate.now().minusDays(i))
+                    .dueDate(LocalDate.now().plusDays(14))
+                    .product("Produkt " + i)
+                    .price(100.0 * (i + 1))
+                    .vat(21.0)
+                    .seller(persons.get(i % PERSONS))
+                    .buyer(persons.get((i + 1) % PERSONS))
+                    .hidden(false)
+                    .build()));
+        }
+
+        userRepository.save(User.builder()
+                .email(USER_EMAIL)
+                .password(passwordEncoder.encode(USER_PASSWORD))
+                .role(Role.ROLE_USER)
+                .enabled(true)
+                .oauthUser(false)
+                .build());
+
+        User other = userRepository.save(User.builder()
+                .email("other@test.cz")
+                .password(passwordEncoder.encode(USER_PASSWORD))
+                .role(Role.ROLE_USER)
+                .enabled(true)
+                .oauthUser(false)
+                .build());
+
+        GoogleIdToken.Payload payload = new GoogleIdToken.Payload()
+                .setSubject("google-1")
+                .setEmail("google@test.cz");
+        payload.set("name", "Google Uživatel");
+        when(googleTokenVerifier.verify(GOOGLE_ID_TOKEN)).thenReturn(payload);
+
+        fixture = new Fixture(
+                persons.stream().map(Person::getId).toList(),
+                invoices.stream().map(Invoice::getId).toList(),
+                other.getId(),
+                token(USER_EMAIL, "USER"),
+                token("admin@test.cz", "ADMIN"),
+                this::finishedRecording);
+    }
+
+    /**
+     * Každý namapovaný endpoint /api/** musí mít v tabulce rozpočet,
+     * nový endpoint bez rozpočtu tak neprojde bez povšimnutí.
+     */
+    @Test
+    void everyEndpointHasBudget() {
+
+        Set<String> mapped = new TreeSet<>();
+        requestMappingHandlerMapping.getHandlerMethods().keySet().forEach(info ->
+                info.getMethodsCondition().getMethods().forEach(method ->
+                        info.getPatternValues().stream()
+                                .filter(pattern -> pattern.startsWith("/api/"))
+                                .forEach(pattern -> mapped.add(method.name() + " " + pattern))));
+
+        Set<String> budgeted = budgets()
+                .map(budget -> budget.name().split(" ", 3))
+                .map(parts -> parts[0] + " " + parts[1])
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        assertEquals(mapped, budgeted, "Rozpočty SQL příkazů neodpovídají namapovaným endpointům");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("budgets")
+    void endpointStaysWithinStatementBudget(Budget budget) throws Exception {
+
+        MockHttpServletRequestBuilder request = budget.request().apply(fixture);
+        if (!budget.name().startsWith("POST /api/auth/")) {
+            String token = budget.name().contains("/api/admin/") ? fixture.adminToken() : fixture.userToken();
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+
+        Statistics statistics = coldCaches();
+
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+
+        long statements = statistics.getPrepareStatementCount();
+        int status = result.getResponse().getStatus();
+
+        assertTrue(status >= 200 && status < 300,
+                budget.name() + ": neočekávaný stav " + status);
+        assertTrue(statements <= budget.maxStatements(),
+                budget.name() + ": " + statements + " SQL příkazů, rozpočet " + budget.maxStatements());
+    }
+
+    /**
+     * Vyprázdnění second-level cache i cache odpovědí a vynulování statistik.
+     */
+    private Statistics coldCaches() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        sessionFactory.getCache().evictAllRegions();
+        responseBodyCache.evictAll();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    /**
+     * Dokončený záznam JFR pro endpointy se záznamem (vytvoří se až na vyžádání).
+     */
+    private long finishedRecording() {
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        Long id = null;
+
+        while (System.nanoTime() < deadline) {
+            if (id == null) {
+                // Jiný záznam (z testu POST) může ještě běžet
+                id = flightRecordingService.start(Duration.ofMillis(200), "default")
+                        .map(FlightRecordingDTO::getId)
+                        .orElse(null);
+            } else if (!"RUNNING".equals(flightRecordingService.get(id).getState())) {
+                return id;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalStateException("Záznam JFR nebyl dokončen včas");
+    }
+
+    private String token(String email, String role) {
+        return jwtUtil.generateToken(org.springframework.security.core.userdetails.User
+                .withUsername(email)
+                .password("")
+                .roles(role)
+                .build());
+    }
+
+    private static MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, String body) {
+        return request.contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+
+    private static String invoiceJson(Fixture f, int seller, int buyer) {
+        return """
+                {"invoiceNumber":100,"issued":"2026-01-01","dueDate":"2026-02-01","product":"Test",
+                 "price":1000,"vat":21,"seller":{"id":%d},"buyer":{"id":%d}}
+                """.formatted(f.personId(seller), f.personId(buyer));
+    }
+
+    private static String personJson(String name, String ico) {
+        return """
+                {"name":"%s","identificationNumber":"%s","country":"CZECHIA"}
+                """.formatted(name, ico);
+    }
+
+    /**
+     * Endpoint a jeho rozpočet SQL příkazů.
+     */
+    record Budget(String name, int maxStatements, Function<Fixture, MockHttpServletRequestBuilder> request) {
+
+        @Override
+        public String toString() {
+            return name + " ≤ " + maxStatements;
+        }
+    }
+
+    /**
+     * Identifikátory naplněných dat a tokeny pro aktuální test.
+     */
+    record Fixture(List<Integer> personIds, List<Integer> invoiceIds, Integer otherUserId,
+                   String userToken, String adminToken, LongSupplier finishedRecording) {
+
+        Integer personId(int index) {
+            return personIds.get(index);
+        }
+
+        Integer invoiceId(int index) {
+            return invoiceIds.get(index);
+        }
+
+        long recordingId() {
+            return finishedRecording.getAsLong();
+        }
+    }
+}
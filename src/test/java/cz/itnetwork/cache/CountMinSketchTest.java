@@ -0,0 +1,73 @@
+package cz.itnetwork.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vlastnosti count-min sketche: odhad nikdy není nižší než skutečný
+ * počet, bez kolizí je přesný a půlení čítače zestárne.
+ */
+class CountMinSketchTest {
+
+    @Test
+    void estimateIsExactForFewKeys() {
+
+        CountMinSketch sketch = new CountMinSketch(4096);
+        for (int i = 0; i < 7; i++) {
+            sketch.increment(1);
+        }
+        sketch.increment(2);
+
+        assertEquals(7, sketch.estimate(1));
+        assertEquals(1, sketch.estimate(2));
+        assertEquals(0, sketch.estimate(3));
+    }
+
+    @Test
+    void incrementReturnsEstimateIncludingThisAccess() {
+
+        CountMinSketch sketch = new CountMinSketch(4096);
+
+        assertEquals(1, sketch.increment(42));
+        assertEquals(2, sketch.increment(42));
+        assertEquals(2, sketch.estimate(42));
+    }
+
+    @Test
+    void estimateNeverUnderestimatesUnderCollisions() {
+
+        // Úzký sketch a mnoho klíčů – kolize jsou nevyhnutelné
+        CountMinSketch sketch = new CountMinSketch(16);
+        int[] counts = new int[1_000];
+        Random random = new Random(7);
+
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(counts.length);
+            counts[key]++;
+            sketch.increment(key);
+        }
+
+        for (int key = 0; key < counts.length; key++) {
+            assertTrue(sketch.estimate(key) >= counts[key], "Podhodnocený klíč " + key);
+        }
+    }
+
+    @Test
+    void halveAgesAllCounters() {
+
+        CountMinSketch sketch = new CountMinSketch(4096);
+        for (int i = 0; i < 9; i++) {
+            sketch.increment(1);
+        }
+        sketch.increment(2);
+
+        sketch.halve();
+
+        assertEquals(4, sketch.estimate(1));
+        assertEquals(0, sketch.estimate(2));
+    }
+}
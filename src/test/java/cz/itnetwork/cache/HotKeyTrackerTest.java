@@ -0,0 +1,137 @@
+package cz.itnetwork.cache;
+
+import cz.itnetwork.cache.HotKeyTracker.KeyType;
+import cz.itnetwork.dto.admin.HotKeyDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Přijímání klíčů do množiny nejčastějších klíčů (top-K).
+ */
+class HotKeyTrackerTest {
+
+    @Test
+    void keepsMostFrequentKeysInOrder() {
+
+        HotKeyTracker tracker = new HotKeyTracker(true, 4096, 3);
+        record(tracker, 1, 50);
+        record(tracker, 2, 30);
+        record(tracker, 3, 10);
+
+        assertEquals(List.of(1, 2, 3), tracker.getHotIds(KeyType.INVOICE, 10));
+        assertEquals(List.of(1, 2), tracker.getHotIds(KeyType.INVOICE, 2));
+    }
+
+    @Test
+    void coldKeysDoNotDisplaceHotKeys() {
+
+        HotKeyTracker tracker = new HotKeyTracker(true, 4096, 3);
+        record(tracker, 1, 50);
+        record(tracker, 2, 30);
+        record(tracker, 3, 10);
+
+        // Jednorázová čtení mnoha různých faktur (např. procházení seznamu)
+        for (int id = 100; id < 1_100; id++) {
+            tracker.recordInvoice(id);
+        }
+
+        assertEquals(List.of(1, 2, 3), tracker.getHotIds(KeyType.INVOICE, 10));
+    }
+
+    @Test
+    void newHotKeyReplacesLeastFrequentKey() {
+
+        HotKeyTracker tracker = new HotKeyTracker(true, 4096, 3);
+        record(tracker, 1, 50);
+        record(tracker, 2, 30);
+        record(tracker, 3, 10);
+
+        // Stejná četnost jako minimum množiny ke vstupu nestačí
+        record(tracker, 4, 10);
+        assertEquals(List.of(1, 2, 3), tracker.getHotIds(KeyType.INVOICE, 10));
+
+        record(tracker, 4, 30);
+        assertEquals(List.of(1, 4, 2), tracker.getHotIds(KeyType.INVOICE, 10));
+
+        // Po výměně musí projít i klíč těsně nad novým minimem množiny
+        record(tracker, 5, 31);
+        assertEquals(List.of(1, 4, 5), tracker.getHotIds(KeyType.INVOICE, 10));
+    }
+
+    @Test
+    void rejectedCandidateKeepsThresholdAtSetMinimum() {
+
+        HotKeyTracker tracker = new HotKeyTracker(true, 4096, 3);
+        record(tracker, 1, 50);
+        record(tracker, 2, 30);
+        record(tracker, 3, 10);
+
+        // Po zaplnění je práh 0 – první čtení nového klíče projde k přijetí a neuspěje
+        tracker.recordInvoice(4);
+        assertEquals(10, threshold(tracker));
+
+        // Ani opakovaná čtení pod minimem práh nesníží
+        record(tracker, 4, 9);
+        assertEquals(10, threshold(tracker));
+        assertEquals(List.of(1, 2, 3), tracker.getHotIds(KeyType.INVOICE, 10));
+
+        tracker.recordInvoice(4);
+        assertEquals(List.of(1, 2, 4), tracker.getHotIds(KeyType.INVOICE, 10));
+        assertEquals(11, threshold(tracker));
+    }
+
+    @Test
+    void decayDropsKeysThatAreNoLongerRead() {
+
+        HotKeyTracker tracker = new HotKeyTracker(true, 4096, 3);
+        record(tracker, 1, 8);
+        record(tracker, 2, 1);
+
+        tracker.decay();
+
+        List<HotKeyDTO> hotKeys = tracker.getHotKeys(KeyType.INVOICE, 10);
+        assertEquals(1, hotKeys.size());
+        assertEquals("1", hotKeys.get(0).getKey());
+        assertEquals(4, hotKeys.get(0).getEstimatedCount());
+    }
+
+    @Test
+    void keyTypesAreTrackedSeparately() {
+
+        HotKeyTracker tracker = new HotKeyTracker(true, 4096, 3);
+        tracker.recordInvoice(1);
+        tracker.recordPerson(2);
+        tracker.recordIco("12345678");
+
+        assertEquals(List.of(1), tracker.getHotIds(KeyType.INVOICE, 10));
+        assertEquals(List.of(2), tracker.getHotIds(KeyType.PERSON, 10));
+        assertEquals("12345678", tracker.getHotKeys(KeyType.ICO, 10).get(0).getKey());
+        assertThrows(IllegalArgumentException.class, () -> tracker.getHotIds(KeyType.ICO, 10));
+    }
+
+    @Test
+    void disabledTrackerRecordsNothing() {
+
+        HotKeyTracker tracker = new HotKeyTracker(false, 4096, 3);
+        record(tracker, 1, 10);
+
+        assertTrue(tracker.getHotIds(KeyType.INVOICE, 10).isEmpty());
+    }
+
+    private static int threshold(HotKeyTracker tracker) {
+        Object invoices = ReflectionTestUtils.getField(tracker, "invoices");
+        return (int) ReflectionTestUtils.getField(invoices, "threshold");
+    }
+
+    private static void record(HotKeyTracker tracker, int id, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.recordInvoice(id);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package cz.itnetwork.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.itnetwork.cache.ResponseBodyCache.CachedBody;
+import cz.itnetwork.dto.Invoice.InvoiceDTO;
+import cz.itnetwork.dto.Person.PersonReadDTO;
+import cz.itnetwork.logging.Tracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Zneplatnění uložených odpovědí a výběr gzip varianty podle Accept-Encoding.
+ */
+class ResponseBodyCacheTest {
+
+    private static final int SELLER_ID = 10;
+
+    private static final int BUYER_ID = 20;
+
+    private ResponseBodyCache cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseBodyCache(new ObjectMapper(), new Tracer(false, 0, 10),
+                new HotKeyTracker(true, 4096, 10), 1 << 20, true);
+    }
+
+    @Test
+    void personEvictionInvalidatesInvoicesOfSellerAndBuyer() {
+
+        cache.invoice(1, loader("a"));
+        cache.invoice(1, loader("b"));
+        assertEquals(1, loads.get());
+
+        cache.evictPerson(SELLER_ID);
+        assertEquals("\"note\":\"c\"", note(cache.invoice(1, loader("c"))));
+        assertEquals(2, loads.get());
+
+        cache.evictPerson(BUYER_ID);
+        assertEquals("\"note\":\"d\"", note(cache.invoice(1, loader("d"))));
+        assertEquals(3, loads.get());
+
+        // Zápis jiné osoby uloženou fakturu nezneplatní
+        cache.evictPerson(BUYER_ID + 1);
+        assertEquals("\"note\":\"d\"", note(cache.invoice(1, loader("e"))));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void bodyLoadedDuringWriteIsNotStored() {
+
+        Supplier<InvoiceDTO> racingLoader = () -> {
+            InvoiceDTO invoice = loader("stale").get();
+            // Zápis faktury proběhne, zatímco se odpověď načítá
+            cache.evictInvoice(1);
+            return invoice;
+        };
+
+        CachedBody body = cache.invoice(1, racingLoader);
+
+        assertEquals("\"note\":\"stale\"", note(body));
+        assertFalse(cache.containsInvoice(1));
+
+        cache.invoice(1, loader("fresh"));
+        assertTrue(cache.containsInvoice(1));
+        assertEquals("\"note\":\"fresh\"", note(cache.invoice(1, loader("unused"))));
+    }
+
+    @Test
+    void gzipIsServedOnlyWhenAccepted() {
+
+        CachedBody body = cache.invoice(1, loader("x".repeat(2048)));
+        assertNotNull(body.gzip());
+
+        assertGzip(body, "gzip");
+        assertGzip(body, "br, gzip;q=0.5");
+        assertGzip(body, "*");
+        assertPlain(body, null);
+        assertPlain(body, "gzip;q=0");
+        assertPlain(body, "GZIP; Q=0.0");
+        assertPlain(body, "gzip;q=0, *");
+        assertPlain(body, "br, deflate");
+    }
+
+    private Supplier<InvoiceDTO> loader(String note) {
+        return () -> {
+            loads.incrementAndGet();
+            return InvoiceDTO.builder()
+                    .id(1)
+                    .note(note)
+                    .seller(person(SELLER_ID))
+                    .buyer(person(BUYER_ID))
+                    .build();
+        };
+    }
+
+    private static PersonReadDTO person(int id) {
+        PersonReadDTO person = new PersonReadDTO();
+        person.setId((long) id);
+        return person;
+    }
+
+    private static String note(CachedBody body) {
+        String json = new String(body.json());
+        int start = json.indexOf("\"note\"");
+        return json.substring(start, json.indexOf(',', start));
+    }
+
+    private static void assertGzip(CachedBody body, String acceptEncoding) {
+        ResponseEntity<byte[]> response = body.toResponse(acceptEncoding);
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), acceptEncoding);
+        assertArrayEquals(body.gzip(), response.getBody());
+    }
+
+    private static void assertPlain(CachedBody body, String acceptEncoding) {
+        ResponseEntity<byte[]> response = body.toResponse(acceptEncoding);
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), acceptEncoding);
+        assertArrayEquals(body.json(), response.getBody());
+    }
+}
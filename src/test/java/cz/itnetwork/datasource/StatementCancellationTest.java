@@ -0,0 +1,137 @@
+package cz.itnetwork.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lhůty endpointů (StatementTimeout): zkrácení limitu příkazů,
+ * odmítnutí příkazů po lhůtě a zrušení běžícího dotazu kontrolním vláknem.
+ */
+class StatementCancellationTest {
+
+    /**
+     * Dotaz běžící v H2 mnohem déle než lhůty testů.
+     */
+    private static final String SLOW_QUERY =
+            "select count(*) from system_range(1, 100000) a, system_range(1, 100000) b";
+
+    private StatementCancellation statementCancellation;
+
+    private DataSource dataSource;
+
+    private Endpoints endpoints;
+
+    @BeforeEach
+    void setUp() {
+
+        statementCancellation = new StatementCancellation(new MockEnvironment());
+        ReflectionTestUtils.setField(statementCancellation, "enabled", true);
+        ReflectionTestUtils.setField(statementCancellation, "checkInterval", Duration.ofMillis(20));
+        statementCancellation.init();
+
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement-cancellation;DB_CLOSE_DELAY=-1");
+        dataSource = new StatementTimeoutDataSource(h2, Duration.ofSeconds(30));
+
+        ProxyFactory proxyFactory = new ProxyFactory(new Endpoints());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) statementCancellation::proceed);
+        endpoints = (Endpoints) proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statementCancellation.shutdown();
+    }
+
+    @Test
+    void statementCreatedAfterDeadlineIsRejected() throws Exception {
+
+        try (Connection connection = dataSource.getConnection()) {
+
+            SQLTimeoutException e = assertThrows(SQLTimeoutException.class, () -> endpoints.within50ms(() -> {
+                Thread.sleep(100);
+                return connection.prepareStatement("select 1");
+            }));
+
+            assertEquals("57014", e.getSQLState());
+        }
+        assertEquals(1, statementCancellation.getStatistics().getRejectedStatements());
+    }
+
+    @Test
+    void queryTimeoutIsShortenedToRemainingDeadline() throws Exception {
+
+        try (Connection connection = dataSource.getConnection()) {
+
+            int withinDeadline = endpoints.within3s(() -> {
+                try (PreparedStatement statement = connection.prepareStatement("select 1")) {
+                    return statement.getQueryTimeout();
+                }
+            });
+            assertEquals(3, withinDeadline);
+
+            // Mimo endpoint se lhůtou platí limit poolu
+            try (PreparedStatement statement = connection.prepareStatement("select 1")) {
+                assertEquals(30, statement.getQueryTimeout());
+            }
+        }
+    }
+
+    @Test
+    void watchdogCancelsStatementRunningPastDeadline() throws Exception {
+
+        try (Connection connection = dataSource.getConnection()) {
+
+            long start = System.nanoTime();
+            SQLException e = assertThrows(SQLException.class, () -> endpoints.within200ms(() -> {
+                try (PreparedStatement statement = connection.prepareStatement(SLOW_QUERY)) {
+                    return statement.executeQuery();
+                }
+            }));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals("57014", e.getSQLState());
+            // Limit příkazu je zaokrouhlený na celou sekundu, dřív dotaz ukončí jen kontrolní vlákno
+            assertTrue(elapsedMillis < 900, "Dotaz běžel " + elapsedMillis + " ms");
+        }
+        assertEquals(1, statementCancellation.getStatistics().getDeadlineCancellations());
+    }
+
+    static class Endpoints {
+
+        @StatementTimeout("50ms")
+        <T> T within50ms(Callable<T> work) throws Exception {
+            return work.call();
+        }
+
+        @StatementTimeout("200ms")
+        <T> T within200ms(Callable<T> work) throws Exception {
+            return work.call();
+        }
+
+        @StatementTimeout("3s")
+        <T> T within3s(Callable<T> work) throws Exception {
+            return work.call();
+        }
+    }
+}
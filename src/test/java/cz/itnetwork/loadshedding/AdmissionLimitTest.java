@@ -0,0 +1,108 @@
+package cz.itnetwork.loadshedding;
+
+import cz.itnetwork.dto.admin.RouteClassAdmissionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Přijímání požadavků a gradientní úprava limitu souběžnosti.
+ */
+class AdmissionLimitTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void rejectsSheddableRequestsAboveLimit() {
+
+        AdmissionLimit limit = new AdmissionLimit(RouteClass.STATISTICS, 2);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.release();
+        assertTrue(limit.tryAcquire());
+
+        RouteClassAdmissionDTO status = limit.toDto();
+        assertEquals(3, status.getAdmitted());
+        assertEquals(1, status.getRejected());
+        assertEquals(2, status.getInFlight());
+    }
+
+    @Test
+    void neverRejectsProtectedRequests() {
+
+        AdmissionLimit limit = new AdmissionLimit(RouteClass.INVOICES, 1);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        limit.update(TARGET * 10, TARGET, 1, 200);
+
+        assertTrue(limit.tryAcquire());
+        assertNull(limit.toDto().getLimit());
+        assertEquals(11, limit.toDto().getInFlight());
+    }
+
+    @Test
+    void limitDropsByGradientWhenWaitExceedsTarget() {
+
+        AdmissionLimit limit = new AdmissionLimit(RouteClass.STATISTICS, 20);
+
+        // Čekání 1,25× nad cílem – limit klesne na 80 %
+        limit.update(TARGET * 5 / 4, TARGET, 1, 200);
+        assertEquals(16, limit.toDto().getLimit());
+
+        // Za jeden interval nejvýše na polovinu
+        limit.update(TARGET * 100, TARGET, 1, 200);
+        assertEquals(8, limit.toDto().getLimit());
+    }
+
+    @Test
+    void limitStaysWithinBounds() {
+
+        AdmissionLimit limit = new AdmissionLimit(RouteClass.SEARCH, 4);
+        for (int i = 0; i < 10; i++) {
+            limit.update(TARGET * 100, TARGET, 3, 200);
+        }
+        assertEquals(3, limit.toDto().getLimit());
+
+        AdmissionLimit busy = new AdmissionLimit(RouteClass.SEARCH, 10);
+        for (int i = 0; i < 10; i++) {
+            busy.tryAcquire();
+        }
+        for (int i = 0; i < 100; i++) {
+            busy.update(0, TARGET, 1, 12);
+        }
+        assertEquals(12, busy.toDto().getLimit());
+    }
+
+    @Test
+    void limitGrowsOnlyWhenUsed() {
+
+        AdmissionLimit idle = new AdmissionLimit(RouteClass.STATISTICS, 16);
+        for (int i = 0; i < 5; i++) {
+            idle.update(0, TARGET, 1, 200);
+        }
+        assertEquals(16, idle.toDto().getLimit());
+
+        // Každý interval krátká špička 10 požadavků, které hned skončí –
+        // limit roste o 0,2 × √limit, dokud špička dosahuje jeho poloviny
+        AdmissionLimit used = new AdmissionLimit(RouteClass.STATISTICS, 16);
+        for (int interval = 0; interval < 8; interval++) {
+            for (int i = 0; i < 10; i++) {
+                used.tryAcquire();
+            }
+            for (int i = 0; i < 10; i++) {
+                used.release();
+            }
+            used.update(0, TARGET, 1, 200);
+        }
+        assertEquals(20, used.toDto().getLimit());
+    }
+}
@@ -0,0 +1,65 @@
+package cz.itnetwork.loadshedding;
+
+import cz.itnetwork.datasource.ConnectionPoolMetrics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Zařazení cest do tříd a přijímání požadavků podle tříd.
+ */
+class LoadShedderTest {
+
+    static LoadShedder loadShedder(int initialLimit) {
+        return new LoadShedder(new ConnectionPoolMetrics(), true, Duration.ofMillis(20), Duration.ofMillis(500),
+                initialLimit, 1, 200, Duration.ofSeconds(2),
+                new String[]{"/api/*/statistics"}, new String[]{"/api/persons/search"},
+                new String[]{"/api/**/export/**"});
+    }
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "/api/persons/statistics, STATISTICS",
+            "/api/invoices/statistics, STATISTICS",
+            "/api/persons/search, SEARCH",
+            "/api/invoices/export/csv, EXPORT",
+            "/api/invoices, INVOICES",
+            "/api/invoices/42, INVOICES",
+            "/api/invoicesummary, OTHER",
+            "/api/persons/1, OTHER",
+            "/api/auth/login, OTHER"
+    })
+    void classifiesByPathPattern(String path, RouteClass expected) {
+        assertEquals(expected, loadShedder(20).classify(path));
+    }
+
+    @Test
+    void shedsOnlyLowPriorityClasses() {
+
+        LoadShedder loadShedder = loadShedder(1);
+
+        assertTrue(loadShedder.tryAcquire(RouteClass.STATISTICS));
+        assertFalse(loadShedder.tryAcquire(RouteClass.STATISTICS));
+        assertTrue(loadShedder.tryAcquire(RouteClass.SEARCH));
+
+        assertTrue(loadShedder.tryAcquire(RouteClass.INVOICES));
+        assertTrue(loadShedder.tryAcquire(RouteClass.INVOICES));
+
+        loadShedder.release(RouteClass.STATISTICS);
+        assertTrue(loadShedder.tryAcquire(RouteClass.STATISTICS));
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new LoadShedder(new ConnectionPoolMetrics(), true,
+                Duration.ofMillis(20), Duration.ofMillis(500), 300, 1, 200, Duration.ofSeconds(2),
+                new String[0], new String[0], new String[0]));
+    }
+}
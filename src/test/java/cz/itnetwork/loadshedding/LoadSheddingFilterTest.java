@@ -0,0 +1,89 @@
+package cz.itnetwork.loadshedding;
+
+import cz.itnetwork.dto.admin.RouteClassAdmissionDTO;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Zařazení požadavku podle cesty, jak ji namapuje Spring MVC –
+ * zakódované znaky, zdvojená lomítka ani kontextová cesta limit neobejdou.
+ */
+class LoadSheddingFilterTest {
+
+    @ParameterizedTest(name = "{0}{1} -> {2}")
+    @CsvSource({
+            "'', /api/persons/statistics, STATISTICS",
+            "'', /api/%70ersons/statistics, STATISTICS",
+            "'', /api//persons/statistics, STATISTICS",
+            "'', /api/persons;x=1/search, SEARCH",
+            "/app, /app/api/persons/search, SEARCH",
+            "'', /api//invoices/42, INVOICES",
+            "/app, /app/api/invoices, INVOICES"
+    })
+    void classifiesByDecodedPathWithinApplication(String contextPath, String uri, RouteClass expected)
+            throws Exception {
+
+        LoadShedder loadShedder = LoadShedderTest.loadShedder(20);
+
+        MockHttpServletResponse response = filter(loadShedder, contextPath, uri, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, status(loadShedder, expected).getAdmitted());
+    }
+
+    @Test
+    void rejectsEncodedPathAboveLimit() throws Exception {
+
+        LoadShedder loadShedder = LoadShedderTest.loadShedder(1);
+        loadShedder.tryAcquire(RouteClass.STATISTICS);
+
+        MockHttpServletResponse response =
+                filter(loadShedder, "", "/api/%70ersons/statistics", new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertEquals(1, status(loadShedder, RouteClass.STATISTICS).getRejected());
+    }
+
+    @Test
+    void ignoresPathsOutsideApi() throws Exception {
+
+        LoadShedder loadShedder = LoadShedderTest.loadShedder(20);
+
+        filter(loadShedder, "/app", "/app/swagger-ui/index.html", new MockFilterChain());
+
+        loadShedder.getStatus().getRouteClasses()
+                .forEach(routeClass -> assertEquals(0, routeClass.getAdmitted()));
+        assertNull(loadShedder.getStatus().getRouteClasses().stream()
+                .filter(routeClass -> routeClass.getInFlight() != 0)
+                .findAny()
+                .orElse(null));
+    }
+
+    private static MockHttpServletResponse filter(LoadShedder loadShedder, String contextPath, String uri,
+                                                  FilterChain chain) throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setContextPath(contextPath);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new LoadSheddingFilter(loadShedder).doFilter(request, response, chain);
+        return response;
+    }
+
+    private static RouteClassAdmissionDTO status(LoadShedder loadShedder, RouteClass routeClass) {
+        return loadShedder.getStatus().getRouteClasses().stream()
+                .filter(admission -> admission.getRouteClass().equals(routeClass.name()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
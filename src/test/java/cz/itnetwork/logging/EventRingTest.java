@@ -0,0 +1,92 @@
+package cz.itnetwork.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Kruhový buffer logu: kapacita, pořadí a souběžné vkládání bez ztrát.
+ */
+class EventRingTest {
+
+    @Test
+    void rejectsWhenFullAndKeepsOrder() {
+
+        EventRing<Integer> ring = new EventRing<>(3);
+        assertTrue(ring.offer(1));
+        assertTrue(ring.offer(2));
+        assertTrue(ring.offer(3));
+        assertFalse(ring.offer(4));
+        assertEquals(3, ring.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, ring.drainTo(drained, 2));
+        assertTrue(ring.offer(5));
+        assertEquals(2, ring.drainTo(drained, 10));
+
+        assertEquals(List.of(1, 2, 3, 5), drained);
+        assertEquals(0, ring.size());
+        assertEquals(0, ring.drainTo(drained, 10));
+    }
+
+    @Test
+    void requiresAtLeastTwoSlots() {
+        assertThrows(IllegalArgumentException.class, () -> new EventRing<>(1));
+    }
+
+    @Test
+    void concurrentProducersLoseNothingThatWasAccepted() throws InterruptedException {
+
+        EventRing<Integer> ring = new EventRing<>(64);
+        int producers = 4;
+        int perProducer = 50_000;
+
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(producers);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (ring.offer(offset + i)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        // Jediné čtoucí vlákno – každý přijatý záznam právě jednou
+        BitSet seen = new BitSet(producers * perProducer);
+        List<Integer> batch = new ArrayList<>();
+        int consumed = 0;
+        while (done.getCount() > 0 || ring.size() > 0) {
+            batch.clear();
+            ring.drainTo(batch, 16);
+            for (int value : batch) {
+                assertFalse(seen.get(value), "Záznam " + value + " přečten dvakrát");
+                seen.set(value);
+            }
+            consumed += batch.size();
+        }
+        batch.clear();
+        consumed += ring.drainTo(batch, Integer.MAX_VALUE);
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(accepted.get(), consumed);
+    }
+}
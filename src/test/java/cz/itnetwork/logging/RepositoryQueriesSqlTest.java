@@ -0,0 +1,211 @@
+package cz.itnetwork.logging;
+
+import cz.itnetwork.entity.Invoice;
+import cz.itnetwork.entity.Person;
+import cz.itnetwork.entity.repository.InvoiceRepository;
+import cz.itnetwork.entity.repository.PersonRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Shoda SQL, které měří sada plánů dotazů zátěžových testů
+ * (loadtest, příkaz query-plans), s tím, co Hibernate skutečně odesílá.
+ *
+ * Sada dotazy spouští přímo přes JDBC, takže po změně repository nebo
+ * verze Hibernate by tiše měřila jiný dotaz. Test proto zavolá každou
+ * měřenou metodu repository, zachytí vygenerované SQL a porovná ho
+ * se souborem loadtest/src/main/resources/repository-queries.properties.
+ *
+ * SQL se generuje dialektem PostgreSQL (jako v provozu); H2 některé
+ * příkazy neprovede, ale zachycení proběhne ještě před jejich spuštěním.
+ */
+@SpringBootTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect")
+@ActiveProfiles("test")
+class RepositoryQueriesSqlTest {
+
+    /**
+     * Soubor modulu loadtest – cesta se odvozuje od adresáře projektu
+     * (vlastnost basedir, kterou nastavuje Maven), ne od pracovního adresáře.
+     */
+    private static final Path QUERIES = Path.of(System.getProperty("basedir", ""))
+            .resolve(Path.of("loadtest", "src", "main", "resources", "repository-queries.properties"));
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loadTestQueriesMatchGeneratedSql() throws IOException {
+
+        Map<String, String> emitted = new LinkedHashMap<>();
+
+        // InvoiceRepository
+        emitted.put("InvoiceRepository.findDetailById", capture(() -> invoiceRepository.findDetailById(1)));
+        emitted.put("InvoiceRepository.findForSoftDeleteById", capture(() -> invoiceRepository.findForSoftDeleteById(1)));
+        emitted.put("InvoiceRepository.findBySeller_IdIn", capture(() -> invoiceRepository.findBySeller_IdIn(List.of(1))));
+        emitted.put("InvoiceRepository.findByBuyer_IdIn", capture(() -> invoiceRepository.findByBuyer_IdIn(List.of(1))));
+        emitted.put("InvoiceRepository.getMonthlyTurnoverRaw", capture(() -> invoiceRepository.getMonthlyTurnoverRaw(1, null)));
+        emitted.put("InvoiceRepository.getInvoiceStatisticsRaw", capture(() -> invoiceRepository.getInvoiceStatisticsRaw()));
+        emitted.put("InvoiceRepository.filterInvoices", capture(() -> invoiceRepository.filterInvoices(null, 1, null, null)));
+        emitted.put("InvoiceRepository.save.insert", capture(() -> transactionTemplate.executeWithoutResult(status -> {
+            invoiceRepository.saveAndFlush(invoice(reference(1), reference(2)));
+            status.setRollbackOnly();
+        })));
+        emitted.put("InvoiceRepository.save.update", captureUpdate());
+
+        // PersonRepository
+        emitted.put("PersonRepository.findById.batch", captureBatchFetch());
+        emitted.put("PersonRepository.findFirstByNameIgnoreCaseContaining",
+                capture(() -> personRepository.findFirstByNameIgnoreCaseContaining("Osoba")));
+        emitted.put("PersonRepository.findIdsByIdentificationNumber",
+                capture(() -> personRepository.findIdsByIdentificationNumber("ICO")));
+        emitted.put("PersonRepository.findAllVisible", capture(() -> personRepository.findAllVisible()));
+        emitted.put("PersonRepository.countVisibleByIdIn", capture(() -> personRepository.countVisibleByIdIn(List.of(1, 2))));
+        emitted.put("PersonRepository.getPersonStatisticsRaw", capture(() -> personRepository.getPersonStatisticsRaw()));
+        emitted.put("PersonRepository.searchByName", capture(() -> personRepository.searchByName("Osoba")));
+
+        assertEquals(new TreeMap<>(load()), new TreeMap<>(emitted),
+                "SQL v " + QUERIES + " neodpovídá dotazům, které generuje Hibernate");
+    }
+
+    /**
+     * Dávkové načtení dvou osob při inicializaci první z referencí.
+     * Osoby se vloží přes JDBC a na konci transakce se vše vrátí.
+     */
+    private String captureBatchFetch() {
+        return transactionTemplate.execute(status -> {
+            insertPerson(1);
+            insertPerson(2);
+
+            Person first = entityManager.getReference(Person.class, 1);
+            entityManager.getReference(Person.class, 2);
+            String sql = capture(() -> Hibernate.initialize(first));
+            status.setRollbackOnly();
+            return sql;
+        });
+    }
+
+    /**
+     * Úprava existující faktury – zachytí se jen příkaz update.
+     *
+     * Insert s "returning" H2 neprovede, faktura se proto vloží přes JDBC
+     * a na konci transakce se vše vrátí.
+     */
+    private String captureUpdate() {
+        return transactionTemplate.execute(status -> {
+            insertPerson(1);
+            jdbcTemplate.update("insert into invoices (id, invoice_number, issued, due_date, product, price, vat,"
+                    + " seller_id, buyer_id, hidden) values (1, 1, current_date, current_date, 'Produkt', 1000, 21,"
+                    + " 1, 1, false)");
+
+            Invoice invoice = entityManager.find(Invoice.class, 1);
+            invoice.setProduct("Upravený produkt");
+            String sql = capture(() -> invoiceRepository.saveAndFlush(invoice));
+            status.setRollbackOnly();
+            return sql;
+        });
+    }
+
+    private void insertPerson(int id) {
+        jdbcTemplate.update("insert into persons (id, name, identification_number, country, hidden)"
+                + " values (?, 'Osoba', 'ICO', 'CZECHIA', false)", id);
+    }
+
+    private Person reference(int id) {
+        return entityManager.getReference(Person.class, id);
+    }
+
+    private static Invoice invoice(Person seller, Person buyer) {
+        return Invoice.builder()
+                .invoiceNumber(1)
+                .issued(LocalDate.now())
+                .dueDate(LocalDate.now().plusDays(14))
+                .product("Produkt")
+                .price(1_000.0)
+                .vat(21.0)
+                .seller(seller)
+                .buyer(buyer)
+                .hidden(false)
+                .build();
+    }
+
+    /**
+     * Poslední SQL příkaz vygenerovaný během volání (bez nadbytečných mezer).
+     *
+     * Tolerují se jen chyby, kterými H2 odmítne SQL v dialektu PostgreSQL;
+     * jiná výjimka, nebo volání bez jediného příkazu, test shodí.
+     */
+    private static String capture(Runnable call) {
+
+        boolean started = SqlStatementCapture.begin();
+        try {
+            try {
+                call.run();
+            } catch (DataAccessException e) {
+                // Dialekt PostgreSQL nad H2 – příkaz už byl zachycen
+                if (!(e.getMostSpecificCause() instanceof SQLException)) {
+                    throw e;
+                }
+            }
+            List<String> captured = SqlStatementCapture.captured();
+            if (captured.isEmpty()) {
+                fail("Volání repository nevygenerovalo žádný SQL příkaz");
+            }
+            return normalize(captured.get(captured.size() - 1));
+        } finally {
+            if (started) {
+                SqlStatementCapture.end();
+            }
+        }
+    }
+
+    private static Map<String, String> load() throws IOException {
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(QUERIES, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        Map<String, String> queries = new LinkedHashMap<>();
+        properties.stringPropertyNames().forEach(name -> queries.put(name, normalize(properties.getProperty(name))));
+        return queries;
+    }
+
+    private static String normalize(String sql) {
+        return sql.strip().replaceAll("\\s+", " ");
+    }
+}
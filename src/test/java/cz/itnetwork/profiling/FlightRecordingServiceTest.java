@@ -0,0 +1,64 @@
+package cz.itnetwork.profiling;
+
+import cz.itnetwork.dto.admin.FlightRecordingDTO;
+import cz.itnetwork.profiling.FlightRecordingService.RecordingDownload;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stažení souboru záznamu souběžně s vyřazením starších záznamů.
+ */
+class FlightRecordingServiceTest {
+
+    private FlightRecordingService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new FlightRecordingService(Duration.ofMinutes(1), 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void openedFileSurvivesEvictionAndEvictedRecordingIsNotFound() throws Exception {
+
+        long first = finishedRecording();
+        RecordingDownload download = service.openFile(first).orElseThrow();
+
+        // Spuštění dalšího záznamu první vyřadí a smaže jeho soubor
+        long second = service.start(Duration.ofMillis(200), "default").orElseThrow().getId();
+        assertThrows(EntityNotFoundException.class, () -> service.openFile(first));
+        assertTrue(service.openFile(second).isEmpty(), "Běžící záznam nelze stáhnout");
+
+        try (InputStream stream = download.stream()) {
+            assertEquals(download.size(), stream.readAllBytes().length);
+        }
+        assertTrue(download.size() > 0);
+    }
+
+    private long finishedRecording() throws InterruptedException {
+
+        FlightRecordingDTO recording = service.start(Duration.ofMillis(200), "default").orElseThrow();
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+
+        while ("RUNNING".equals(service.get(recording.getId()).getState())) {
+            assertTrue(System.nanoTime() < deadline, "Záznam JFR se nedokončil");
+            Thread.sleep(50);
+        }
+        assertEquals("FINISHED", service.get(recording.getId()).getState());
+        return recording.getId();
+    }
+}
@@ -0,0 +1,108 @@
+package cz.itnetwork.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Omezení pokusů o přihlášení a registraci podle IP adresy a emailu.
+ */
+class AuthRateLimitFilterTest {
+
+    @Test
+    void rejectsWithRetryAfterOnceIpBucketIsEmpty() throws Exception {
+
+        AuthRateLimitFilter filter = filter(2, Duration.ofMinutes(1), 100);
+
+        assertEquals(200, post(filter, "/api/auth/login", "10.0.0.1", "{}").response().getStatus());
+        assertEquals(200, post(filter, "/api/auth/login", "10.0.0.1", "{}").response().getStatus());
+
+        Result rejected = post(filter, "/api/auth/login", "10.0.0.1", "{}");
+        assertEquals(429, rejected.response().getStatus());
+        assertEquals("60", rejected.response().getHeader("Retry-After"));
+        assertNull(rejected.chain().getRequest());
+
+        // Jiná IP adresa má vlastní bucket
+        assertEquals(200, post(filter, "/api/auth/login", "10.0.0.2", "{}").response().getStatus());
+    }
+
+    @Test
+    void emailLimitAppliesToLoginAndRegister() throws Exception {
+
+        AuthRateLimitFilter filter = filter(100, Duration.ofSeconds(1), 2);
+
+        Result login = post(filter, "/api/auth/login", "10.0.0.1",
+                "{\"email\":\"user@example.com\",\"password\":\"x\"}");
+        assertEquals(200, login.response().getStatus());
+        // Controller dostane tělo v nezměněné podobě
+        assertEquals("{\"email\":\"user@example.com\",\"password\":\"x\"}",
+                new String(login.chain().getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        assertEquals(200, post(filter, "/api/auth/register", "10.0.0.2",
+                "{\"name\":\"x\",\"email\":\" User@Example.com \"}").response().getStatus());
+
+        Result rejected = post(filter, "/api/auth/register", "10.0.0.3",
+                "{\"email\":\"USER@example.com\",\"password\":\"y\"}");
+        assertEquals(429, rejected.response().getStatus());
+        assertNotNull(rejected.response().getHeader("Retry-After"));
+
+        assertEquals(429, post(filter, "/api/auth/login", "10.0.0.4",
+                "{\"email\":\"user@example.com\"}").response().getStatus());
+        assertEquals(200, post(filter, "/api/auth/login", "10.0.0.4",
+                "{\"email\":\"other@example.com\"}").response().getStatus());
+    }
+
+    @Test
+    void emailIsReadFromChunkedBodyWithoutContentLength() throws Exception {
+
+        AuthRateLimitFilter filter = filter(100, Duration.ofSeconds(1), 1);
+
+        assertEquals(200, post(filter, "/api/auth/login", "10.0.0.1",
+                "{\"email\":\"user@example.com\"}").response().getStatus());
+
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setRemoteAddr("10.0.0.2");
+        chunked.setContent("{\"email\":\"user@example.com\"}".getBytes(StandardCharsets.UTF_8));
+        chunked.addHeader("Transfer-Encoding", "chunked");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(chunked, response, new MockFilterChain());
+
+        assertEquals(429, response.getStatus());
+    }
+
+    private static AuthRateLimitFilter filter(int ipCapacity, Duration ipRefill, int emailCapacity) {
+        return new AuthRateLimitFilter(true, ipCapacity, ipRefill, emailCapacity, Duration.ofMinutes(1), 1000);
+    }
+
+    private static Result post(AuthRateLimitFilter filter, String uri, String remoteAddr, String body)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(uri, remoteAddr, body), response, chain);
+        return new Result(response, chain);
+    }
+
+    private static MockHttpServletRequest request(String uri, String remoteAddr, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(remoteAddr);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private record Result(MockHttpServletResponse response, MockFilterChain chain) {
+    }
+}
@@ -0,0 +1,83 @@
+package cz.itnetwork.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Odebírání a doplňování tokenů, včetně souběžného odebírání.
+ */
+class TokenBucketTest {
+
+    @Test
+    void rejectsOnceCapacityIsConsumed() {
+
+        TokenBucket bucket = new TokenBucket();
+        TokenBucket.Limit limit = TokenBucket.Limit.of(3, Duration.ofHours(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(limit.refillNanos(), limit.burstNanos()));
+        }
+
+        long waitNanos = bucket.tryConsume(limit.refillNanos(), limit.burstNanos());
+        assertTrue(waitNanos > 0 && waitNanos <= limit.refillNanos(), "Čekání " + waitNanos + " ns");
+    }
+
+    @Test
+    void refillsOneTokenPerPeriod() throws InterruptedException {
+
+        TokenBucket bucket = new TokenBucket();
+        TokenBucket.Limit limit = TokenBucket.Limit.of(2, Duration.ofMillis(300));
+
+        assertEquals(0, bucket.tryConsume(limit.refillNanos(), limit.burstNanos()));
+        assertEquals(0, bucket.tryConsume(limit.refillNanos(), limit.burstNanos()));
+        long waitNanos = bucket.tryConsume(limit.refillNanos(), limit.burstNanos());
+        assertTrue(waitNanos > 0);
+
+        // Po uplynutí jedné periody je k dispozici právě jeden token
+        TimeUnit.NANOSECONDS.sleep(waitNanos + TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, bucket.tryConsume(limit.refillNanos(), limit.burstNanos()));
+        assertTrue(bucket.tryConsume(limit.refillNanos(), limit.burstNanos()) > 0);
+    }
+
+    @Test
+    void concurrentConsumersNeverExceedCapacity() throws InterruptedException {
+
+        TokenBucket bucket = new TokenBucket();
+        TokenBucket.Limit limit = TokenBucket.Limit.of(100, Duration.ofHours(1));
+
+        int threads = 8;
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 1_000; i++) {
+                    if (bucket.tryConsume(limit.refillNanos(), limit.burstNanos()) == 0) {
+                        consumed.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(100, consumed.get());
+    }
+}
@@ -0,0 +1,140 @@
+package cz.itnetwork.security;
+
+import com.google.common.hash.BloomFilter;
+import cz.itnetwork.entity.RevokedToken;
+import cz.itnetwork.entity.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Odvolání tokenů: porovnání s okamžikem vydání v milisekundách
+ * a přesná kontrola po kladné odpovědi Bloom filtru.
+ */
+class TokenRevocationServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private RevokedTokenRepository repository;
+
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+
+        repository = mock(RevokedTokenRepository.class);
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of());
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET", "test-secret-test-secret-test-secret-1234");
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxSize", 100L);
+        jwtUtil.init();
+
+        service = new TokenRevocationService(repository, jwtUtil);
+        ReflectionTestUtils.setField(service, "expectedEntries", 1000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(service, "exactCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(service, "pollInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(service, "pollOverlap", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(service, "rebuildInterval", Duration.ofHours(1));
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void revokeAllRejectsTokenIssuedEarlierInSameSecond() {
+
+        Instant revokedBefore = revokeAllWithinSecond();
+
+        assertTrue(service.isRevoked(claims(revokedBefore.minusMillis(1))));
+        assertTrue(service.isRevoked(claims(revokedBefore)));
+    }
+
+    @Test
+    void revokeAllAcceptsTokenIssuedAfterwards() {
+
+        Instant revokedBefore = revokeAllWithinSecond();
+
+        // Standardní "iat" je ve stejné sekundě jako odvolání, rozhoduje "iat_ms"
+        assertFalse(service.isRevoked(claims(revokedBefore.plusMillis(1))));
+    }
+
+    @Test
+    void bloomFilterFalsePositiveFallsThroughToExactCheck() {
+
+        Claims claims = claims(Instant.now());
+        BloomFilter<CharSequence> filter = currentFilter();
+        filter.put("j:" + claims.getId());
+        filter.put("s:" + EMAIL);
+
+        assertFalse(service.isRevoked(claims));
+        assertFalse(service.isRevoked(claims));
+
+        // Výsledek přesné kontroly se ukládá, databáze se ptá jen jednou
+        verify(repository, times(1)).existsByTokenId(claims.getId());
+        verify(repository, times(1)).findLatestRevokedBefore(EMAIL);
+    }
+
+    /**
+     * Odvolání všech tokenů uživatele mimo okraj sekundy, aby token
+     * o milisekundu starší i mladší měl stejné "iat" jako odvolání.
+     *
+     * @return uložený okamžik odvolání
+     */
+    private Instant revokeAllWithinSecond() {
+
+        int millis = Instant.now().get(ChronoField.MILLI_OF_SECOND);
+        while (millis < 10 || millis > 900) {
+            Thread.onSpinWait();
+            millis = Instant.now().get(ChronoField.MILLI_OF_SECOND);
+        }
+        service.revokeAllTokens(EMAIL);
+
+        ArgumentCaptor<RevokedToken> saved = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(repository).save(saved.capture());
+        Instant revokedBefore = saved.getValue().getRevokedBefore();
+        assertEquals(revokedBefore.truncatedTo(ChronoUnit.SECONDS),
+                revokedBefore.minusMillis(1).truncatedTo(ChronoUnit.SECONDS));
+        return revokedBefore;
+    }
+
+    private static Claims claims(Instant issuedAt) {
+        Claims claims = Jwts.claims();
+        claims.setSubject(EMAIL);
+        claims.setId(UUID.randomUUID().toString());
+        claims.setIssuedAt(Date.from(issuedAt.truncatedTo(ChronoUnit.SECONDS)));
+        claims.setExpiration(Date.from(issuedAt.plus(Duration.ofHours(1))));
+        claims.put(JwtUtil.ISSUED_AT_MILLIS_CLAIM, issuedAt.toEpochMilli());
+        return claims;
+    }
+
+    @SuppressWarnings("unchecked")
+    private BloomFilter<CharSequence> currentFilter() {
+        return (BloomFilter<CharSequence>) ReflectionTestUtils.getField(service, "filter");
+    }
+}